@@ -0,0 +1,169 @@
+package com.example.contribtracker.database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比原先逐条查询贡献者的N+1加载方式与 {@link ContributionLoader} 的单次JOIN加载
+ * 运行方式：./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContributionLoadBenchmark {
+    private static final int CONTRIBUTORS_PER_CONTRIBUTION = 3;
+    private static final String[] TYPES = {"redstone", "building", "landmark", "other"};
+    private static final String[] WORLDS = {"overworld", "the_nether", "the_end"};
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private File dbFile;
+    private Connection conn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = File.createTempFile("contribtracker-bench", ".db");
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+        DatabaseManager.createTables(conn);
+        populate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        conn.close();
+        dbFile.delete();
+    }
+
+    @Benchmark
+    public List<Contribution> legacyNPlusOne() throws SQLException {
+        List<Contribution> contributions = new ArrayList<>();
+        String sql = """
+            SELECT c.*,
+                   (SELECT player_name FROM contributors WHERE contribution_id = c.id AND player_uuid = c.creator_uuid) as creator_name,
+                   GROUP_CONCAT(ct.player_name) as contributors
+            FROM contributions c
+            LEFT JOIN contributors ct ON c.id = ct.contribution_id
+            GROUP BY c.id
+            ORDER BY c.created_at DESC
+        """;
+        String sql2 = """
+            SELECT player_uuid, player_name, level, inviter_uuid
+            FROM contributors
+            WHERE contribution_id = ?
+            ORDER BY level ASC, player_name ASC
+        """;
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                Contribution contribution = new Contribution();
+                contribution.setId(rs.getInt("id"));
+                contribution.setName(rs.getString("name"));
+                contribution.setType(rs.getString("type"));
+                contribution.setGameId(rs.getString("game_id"));
+                contribution.setX(rs.getDouble("x"));
+                contribution.setY(rs.getDouble("y"));
+                contribution.setZ(rs.getDouble("z"));
+                contribution.setWorld(rs.getString("world"));
+                contribution.setCreatedAt(rs.getTimestamp("created_at").getTime());
+                contribution.setContributors(rs.getString("contributors"));
+                contribution.setCreatorUuid(UuidCodec.read(rs, "creator_uuid"));
+                contribution.setCreatorName(rs.getString("creator_name"));
+
+                try (PreparedStatement pstmt2 = conn.prepareStatement(sql2)) {
+                    pstmt2.setInt(1, contribution.getId());
+                    try (ResultSet rs2 = pstmt2.executeQuery()) {
+                        List<ContributorInfo> contributorList = new ArrayList<>();
+                        while (rs2.next()) {
+                            ContributorInfo info = new ContributorInfo();
+                            info.setPlayerUuid(UuidCodec.read(rs2, "player_uuid"));
+                            info.setPlayerName(rs2.getString("player_name"));
+                            info.setLevel(rs2.getInt("level"));
+                            info.setInviterUuid(UuidCodec.read(rs2, "inviter_uuid"));
+                            contributorList.add(info);
+                        }
+                        contribution.setContributorList(contributorList);
+                    }
+                }
+
+                contributions.add(contribution);
+            }
+        }
+        return contributions;
+    }
+
+    @Benchmark
+    public List<Contribution> singlePassJoin() throws SQLException {
+        return ContributionLoader.loadAll(conn);
+    }
+
+    private void populate() throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement contribution = conn.prepareStatement(
+                "INSERT INTO contributions (id, name, type, x, y, z, world, creator_uuid) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement contributor = conn.prepareStatement(
+                "INSERT INTO contributors (contribution_id, player_uuid, player_name, inviter_uuid, level) VALUES (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= rows; id++) {
+                UUID creator = UUID.randomUUID();
+                contribution.setInt(1, id);
+                contribution.setString(2, "contribution-" + id);
+                contribution.setString(3, TYPES[id % TYPES.length]);
+                contribution.setDouble(4, (id * 37) % 20000 - 10000);
+                contribution.setDouble(5, 64);
+                contribution.setDouble(6, (id * 91) % 20000 - 10000);
+                contribution.setString(7, WORLDS[id % WORLDS.length]);
+                UuidCodec.bind(contribution, 8, creator);
+                contribution.addBatch();
+
+                UUID inviter = null;
+                UUID player = creator;
+                for (int level = 1; level <= CONTRIBUTORS_PER_CONTRIBUTION; level++) {
+                    contributor.setInt(1, id);
+                    UuidCodec.bind(contributor, 2, player);
+                    contributor.setString(3, "player-" + (id * CONTRIBUTORS_PER_CONTRIBUTION + level) % 5000);
+                    UuidCodec.bind(contributor, 4, inviter);
+                    contributor.setInt(5, level);
+                    contributor.addBatch();
+                    inviter = player;
+                    player = UUID.randomUUID();
+                }
+
+                if (id % 1000 == 0) {
+                    contribution.executeBatch();
+                    contributor.executeBatch();
+                }
+            }
+            contribution.executeBatch();
+            contributor.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.contribtracker.database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sqlite.SQLiteConfig;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比SQLite与 {@link JournalContributionRepository} 两种存储引擎
+ * 写入：新建一个贡献并添加创建者为贡献者，SQLite在一个事务中插入两行并记录变更，与写入线程的单个任务相同；
+ * 日志存储追加两条日志记录。加载：SQLite用 {@link ContributionLoader} 读出全部贡献，日志存储从快照启动。
+ * 两种引擎按相同的持久性比较：{@link #syncOnWrite} 为false时日志只写入内存映射，SQLite使用 synchronous = NORMAL，
+ * 进程崩溃不丢数据，但断电或系统崩溃时都可能丢失最近的修改；为true时日志每条记录都 force()，
+ * SQLite使用 synchronous = FULL，每次提交都等待写回磁盘。
+ * 运行方式：./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StorageEngineBenchmark {
+    private static final int CONTRIBUTORS_PER_CONTRIBUTION = 3;
+    private static final long COMPACT_THRESHOLD = 16L * 1024 * 1024;
+
+    private static final String INSERT_CONTRIBUTION_SQL = """
+        INSERT INTO contributions (name, type, game_id, x, y, z, world, creator_uuid)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    private static final String INSERT_CONTRIBUTOR_SQL = """
+        INSERT INTO contributors (contribution_id, player_uuid, player_name, note, inviter_uuid, level)
+        VALUES (?, ?, ?, ?, ?, ?)
+    """;
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    /** 日志存储的 syncOnWrite，同时决定SQLite的 synchronous 级别 */
+    @Param({"false", "true"})
+    public boolean syncOnWrite;
+
+    private File dbFile;
+    private Connection conn;
+    private File journalDir;
+    private JournalContributionRepository journal;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = File.createTempFile("contribtracker-bench", ".db");
+        SQLiteConfig sqLiteConfig = new SQLiteConfig();
+        sqLiteConfig.enforceForeignKeys(true);
+        sqLiteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath(), sqLiteConfig.toProperties());
+        DatabaseManager.createTables(conn);
+
+        journalDir = Files.createTempDirectory("contribtracker-journal").toFile();
+        journal = new JournalContributionRepository(journalDir, false, COMPACT_THRESHOLD);
+        journal.initialize();
+
+        // 预填充时两种引擎都不同步，测量时再按 syncOnWrite 设置
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA synchronous = OFF");
+            for (int i = 0; i < rows; i++) {
+                sqliteInsert();
+                journalInsert();
+            }
+            stmt.execute(syncOnWrite ? "PRAGMA synchronous = FULL" : "PRAGMA synchronous = NORMAL");
+        }
+        // 写入快照，加载基准从快照启动
+        journal.close();
+        journal = new JournalContributionRepository(journalDir, syncOnWrite, COMPACT_THRESHOLD);
+        journal.initialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        journal.close();
+        conn.close();
+        dbFile.delete();
+        new File(dbFile.getPath() + "-wal").delete();
+        new File(dbFile.getPath() + "-shm").delete();
+        File[] files = journalDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        journalDir.delete();
+    }
+
+    @Benchmark
+    public long sqliteInsert() throws SQLException {
+        int n = sequence++;
+        UUID creator = UUID.randomUUID();
+        conn.setAutoCommit(false);
+        try {
+            int id;
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_CONTRIBUTION_SQL, PreparedStatement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, "contribution-" + n);
+                pstmt.setString(2, "building");
+                pstmt.setString(3, null);
+                pstmt.setDouble(4, n % 20000 - 10000);
+                pstmt.setDouble(5, 64);
+                pstmt.setDouble(6, (n * 91) % 20000 - 10000);
+                pstmt.setString(7, "overworld");
+                UuidCodec.bind(pstmt, 8, creator);
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    keys.next();
+                    id = keys.getInt(1);
+                }
+            }
+            ContributionChangeLog.append(conn, id, ContributionChange.Type.CONTRIBUTION_ADDED, creator);
+
+            UUID inviter = null;
+            UUID player = creator;
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_CONTRIBUTOR_SQL)) {
+                for (int level = 1; level <= CONTRIBUTORS_PER_CONTRIBUTION; level++) {
+                    pstmt.setInt(1, id);
+                    UuidCodec.bind(pstmt, 2, player);
+                    pstmt.setString(3, "player-" + (n * CONTRIBUTORS_PER_CONTRIBUTION + level) % 5000);
+                    pstmt.setString(4, null);
+                    UuidCodec.bind(pstmt, 5, inviter);
+                    pstmt.setInt(6, level);
+                    pstmt.executeUpdate();
+                    ContributionChangeLog.append(conn, id, ContributionChange.Type.CONTRIBUTOR_ADDED, player);
+                    inviter = player;
+                    player = UUID.randomUUID();
+                }
+            }
+            conn.commit();
+            return id;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    @Benchmark
+    public long journalInsert() {
+        int n = sequence++;
+        UUID creator = UUID.randomUUID();
+        Contribution contribution = journal.addContributionAsync("contribution-" + n, "building", null,
+            n % 20000 - 10000, 64, (n * 91) % 20000 - 10000, "overworld", creator).join();
+
+        UUID inviter = null;
+        UUID player = creator;
+        for (int level = 1; level <= CONTRIBUTORS_PER_CONTRIBUTION; level++) {
+            journal.addContributorAsync(contribution.getId(), player,
+                "player-" + (n * CONTRIBUTORS_PER_CONTRIBUTION + level) % 5000, null, inviter).join();
+            inviter = player;
+            player = UUID.randomUUID();
+        }
+        return contribution.getId();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Contribution> sqliteLoad() throws SQLException {
+        return ContributionLoader.loadAll(conn);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int journalLoad() throws SQLException {
+        JournalContributionRepository loaded = new JournalContributionRepository(journalDir, syncOnWrite, COMPACT_THRESHOLD);
+        loaded.initialize();
+        int count = loaded.getContributionCount();
+        loaded.close();
+        return count;
+    }
+}
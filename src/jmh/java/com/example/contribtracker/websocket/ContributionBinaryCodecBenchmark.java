@@ -0,0 +1,99 @@
+package com.example.contribtracker.websocket;
+
+import com.example.contribtracker.database.Contribution;
+import com.example.contribtracker.database.ContributorInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ContributionBinaryCodec} 编码完整数据的耗时，编码的正确性由单元测试 ContributionBinaryCodecTest 检查
+ * 运行方式：./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContributionBinaryCodecBenchmark {
+    private static final int CONTRIBUTORS_PER_CONTRIBUTION = 3;
+    private static final String[] TYPES = {"redstone", "building", "landmark", "other"};
+    private static final String[] WORLDS = {"overworld", "the_nether", "the_end"};
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private List<Contribution> contributions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contributions = populate();
+    }
+
+    @Benchmark
+    public byte[] encodeAllData() {
+        return ContributionBinaryCodec.encodeAllData(rows, contributions);
+    }
+
+    private static Contribution contribution(int id, String name, String type, String world, UUID creatorUuid) {
+        Contribution contribution = new Contribution();
+        contribution.setId(id);
+        contribution.setName(name);
+        contribution.setType(type);
+        contribution.setWorld(world);
+        contribution.setCreatorUuid(creatorUuid);
+        contribution.setCreatorName(creatorUuid != null ? "创建者" : null);
+        contribution.setGameId(id % 2 == 0 ? "server-1" : null);
+        contribution.setX(-1234.5);
+        contribution.setY(64);
+        contribution.setZ(98765.25);
+        contribution.setCreatedAt(1700000000000L + id);
+        return contribution;
+    }
+
+    private static ContributorInfo contributor(UUID playerUuid, UUID inviterUuid, String playerName, int level) {
+        ContributorInfo info = new ContributorInfo();
+        info.setPlayerUuid(playerUuid);
+        info.setInviterUuid(inviterUuid);
+        info.setPlayerName(playerName);
+        info.setLevel(level);
+        return info;
+    }
+
+    private List<Contribution> populate() {
+        List<Contribution> list = new ArrayList<>(rows);
+        for (int id = 1; id <= rows; id++) {
+            UUID creator = UUID.randomUUID();
+            Contribution contribution = contribution(id, "contribution-" + id, TYPES[id % TYPES.length],
+                WORLDS[id % WORLDS.length], creator);
+            contribution.setX((id * 37) % 20000 - 10000);
+            contribution.setZ((id * 91) % 20000 - 10000);
+
+            UUID inviter = null;
+            UUID player = creator;
+            for (int level = 1; level <= CONTRIBUTORS_PER_CONTRIBUTION; level++) {
+                contribution.getContributorList().add(
+                    contributor(player, inviter, "player-" + (id * CONTRIBUTORS_PER_CONTRIBUTION + level) % 5000, level));
+                inviter = player;
+                player = UUID.randomUUID();
+            }
+            list.add(contribution);
+        }
+        return list;
+    }
+}
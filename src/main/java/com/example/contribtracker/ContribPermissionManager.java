@@ -2,7 +2,6 @@ package com.example.contribtracker;
 
 import com.example.contribtracker.database.Contribution;
 import com.example.contribtracker.database.ContributorInfo;
-import com.example.contribtracker.database.DatabaseManager;
 import net.minecraft.server.network.ServerPlayerEntity;
 import java.util.UUID;
 import java.sql.SQLException;
@@ -53,7 +52,7 @@ public class ContribPermissionManager {
             }
             
             // 检查是否有权限管理目标贡献者
-            return DatabaseManager.canManageContributor(contribution.getId(), player.getUuid(), targetUuid);
+            return ContribTrackerMod.getRepository().canManageContributor(contribution.getId(), player.getUuid(), targetUuid);
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -79,7 +78,7 @@ public class ContribPermissionManager {
             }
             
             // 检查是否是贡献者
-            return DatabaseManager.isContributor(contribution.getId(), player.getUuid());
+            return ContribTrackerMod.getRepository().isContributor(contribution.getId(), player.getUuid());
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -105,7 +104,7 @@ public class ContribPermissionManager {
             }
             
             // 检查是否是一级贡献者
-            return DatabaseManager.isLevelOneContributor(contribution.getId(), player.getUuid());
+            return ContribTrackerMod.getRepository().isLevelOneContributor(contribution.getId(), player.getUuid());
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -120,7 +119,7 @@ public class ContribPermissionManager {
      */
     public static int getContributorLevel(long contributionId, UUID playerUuid) {
         try {
-            ContributorInfo info = DatabaseManager.getContributorInfo((int)contributionId, playerUuid);
+            ContributorInfo info = ContribTrackerMod.getRepository().getContributorInfo((int)contributionId, playerUuid);
             if (info != null) {
                 return info.getLevel();
             }
@@ -6,6 +6,9 @@ import net.minecraft.server.MinecraftServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.example.contribtracker.database.DatabaseManager;
+import com.example.contribtracker.database.ContributionRepository;
+import com.example.contribtracker.database.SqliteContributionRepository;
+import com.example.contribtracker.database.JournalContributionRepository;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import java.util.UUID;
 import java.util.Map;
@@ -19,8 +22,16 @@ import com.example.contribtracker.command.AcceptCommand;
 import com.example.contribtracker.command.RejectCommand;
 import com.example.contribtracker.command.RemoveCommand;
 import com.example.contribtracker.command.NearCommand;
+import com.example.contribtracker.command.SearchCommand;
+import com.example.contribtracker.command.StatsCommand;
+import com.example.contribtracker.command.ExportCommand;
+import com.example.contribtracker.command.ImportCommand;
+import com.example.contribtracker.command.BackupCommand;
+import com.example.contribtracker.command.RestoreCommand;
 import com.example.contribtracker.websocket.WebSocketHandler;
 import com.example.contribtracker.config.WebSocketConfig;
+import com.example.contribtracker.config.BackupConfig;
+import com.example.contribtracker.config.StorageConfig;
 import com.example.contribtracker.util.LogHelper;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Executors;
@@ -38,6 +49,10 @@ public class ContribTrackerMod implements ModInitializer {
     public static final String MOD_ID = "contribtracker";
     public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
     private static MinecraftServer server;
+    // 贡献数据的存取实现，命令、权限检查和WebSocket都通过它读写贡献，按存储配置在启动时选择
+    private static ContributionRepository repository = new SqliteContributionRepository();
+    // 批量导入导出文件所在的目录
+    private static File transferDir;
     private static final Map<UUID, Contribution> pendingContributions = new ConcurrentHashMap<>();
     private static final Map<UUID, Long> contributionExpiryTimes = new ConcurrentHashMap<>();
     private static final long INVITATION_EXPIRY_TIME = 5 * 60 * 1000;
@@ -74,7 +89,7 @@ public class ContribTrackerMod implements ModInitializer {
         // 异步初始化数据库和WebSocket
         CompletableFuture<Void> dbInitFuture = CompletableFuture.runAsync(() -> {
             try {
-                DatabaseManager.initialize();
+                repository.initialize();
             } catch (Exception e) {
                 LogHelper.error("数据库初始化失败", e);
             }
@@ -103,6 +118,14 @@ public class ContribTrackerMod implements ModInitializer {
                 configDir.mkdirs();
             }
             LogHelper.debug("配置目录创建成功: {}", configDir.getAbsolutePath());
+            transferDir = new File(configDir, "transfer");
+            BackupConfig.initialize(configDir);
+            WebSocketConfig.initialize(configDir);
+            StorageConfig.initialize(configDir);
+            if (StorageConfig.getEngine() == StorageConfig.Engine.JOURNAL) {
+                repository = new JournalContributionRepository(configDir,
+                    StorageConfig.isSyncOnWrite(), StorageConfig.getCompactThresholdBytes());
+            }
         } catch (Exception e) {
             LogHelper.error("创建配置目录失败", e);
         }
@@ -122,8 +145,8 @@ public class ContribTrackerMod implements ModInitializer {
             // 关闭WebSocket服务
             WebSocketHandler.shutdown();
             
-            // 关闭数据库连接
-            DatabaseManager.close();
+            // 关闭存储，日志存储会在这里写入快照
+            repository.close();
             
             // 关闭线程池
             shutdownThreadPools();
@@ -155,6 +178,14 @@ public class ContribTrackerMod implements ModInitializer {
     public static MinecraftServer getServer() {
         return server;
     }
+
+    public static ContributionRepository getRepository() {
+        return repository;
+    }
+
+    public static File getTransferDir() {
+        return transferDir;
+    }
     
     public static Map<UUID, Contribution> getPendingContributions() {
         return pendingContributions;
@@ -177,6 +208,20 @@ public class ContribTrackerMod implements ModInitializer {
             });
         }, 60, 60, TimeUnit.SECONDS);
         
+        // 定期在线备份数据库，备份在数据库线程中进行，不占用定时任务线程；日志存储没有SQLite数据库可备份
+        if (BackupConfig.isEnabled() && StorageConfig.getEngine() == StorageConfig.Engine.SQLITE) {
+            long interval = BackupConfig.getIntervalMinutes();
+            scheduler.scheduleAtFixedRate(() -> {
+                if (!DatabaseManager.isInitialized()) {
+                    return;
+                }
+                DatabaseManager.backupAsync().whenComplete((file, error) -> {
+                    if (error != null) {
+                        LogHelper.error("定时备份数据库失败", error);
+                    }
+                });
+            }, interval, interval, TimeUnit.MINUTES);
+        }
     }
 
     private void registerCommands() {
@@ -188,6 +233,14 @@ public class ContribTrackerMod implements ModInitializer {
             dispatcher.register(new RejectCommand().register());
             dispatcher.register(new RemoveCommand().register());
             dispatcher.register(new NearCommand().register());
+            dispatcher.register(new SearchCommand().register());
+            dispatcher.register(new StatsCommand().register());
+            dispatcher.register(new ExportCommand().register());
+            dispatcher.register(new ImportCommand().register());
+            if (StorageConfig.getEngine() == StorageConfig.Engine.SQLITE) {
+                dispatcher.register(new BackupCommand().register());
+                dispatcher.register(new RestoreCommand().register());
+            }
         });
         
     }
@@ -2,7 +2,7 @@ package com.example.contribtracker.command;
 
 import com.example.contribtracker.ContribTrackerMod;
 import com.example.contribtracker.database.Contribution;
-import com.example.contribtracker.database.DatabaseManager;
+import com.example.contribtracker.database.ContributionRepository;
 import com.example.contribtracker.websocket.WebSocketHandler;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
@@ -12,16 +12,13 @@ import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class AcceptCommand implements BaseCommand {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
-
     @Override
     public LiteralArgumentBuilder<ServerCommandSource> register() {
         return CommandManager.literal("contribtracker")
@@ -40,59 +37,70 @@ public class AcceptCommand implements BaseCommand {
         int contributionId = IntegerArgumentType.getInteger(context, "contributionId");
         UUID playerUuid = player.getUuid();
 
-        try {
-            // 检查贡献是否存在
-            Contribution contribution = DatabaseManager.getContributionById(contributionId);
-            if (contribution == null) {
-                source.sendMessage(Text.of("§c找不到ID为 " + contributionId + " 的贡献"));
-                return 0;
-            }
-
-            // 检查是否已经是贡献者
-            if (DatabaseManager.isContributor(contributionId, playerUuid)) {
-                source.sendMessage(Text.of("§c你已经是该贡献的贡献者"));
-                return 0;
-            }
+        // 检查是否有待处理的邀请
+        Map<UUID, Contribution> pendingContributions = ContribTrackerMod.getPendingContributions();
+        Contribution pendingContribution = pendingContributions.get(playerUuid);
+        
+        if (pendingContribution == null || pendingContribution.getId() != contributionId) {
+            source.sendMessage(Text.of("§c你没有该贡献的邀请"));
+            return 0;
+        }
 
-            // 检查是否有待处理的邀请
-            Map<UUID, Contribution> pendingContributions = ContribTrackerMod.getPendingContributions();
-            Contribution pendingContribution = pendingContributions.get(playerUuid);
-            
-            if (pendingContribution == null || pendingContribution.getId() != contributionId) {
-                source.sendMessage(Text.of("§c你没有该贡献的邀请"));
-                return 0;
-            }
+        // 获取邀请者信息
+        UUID inviterUuid = pendingContribution.getInviterUuid();
+        String playerName = player.getName().getString();
 
-            // 获取邀请者信息
-            UUID inviterUuid = pendingContribution.getInviterUuid();
-            int inviterLevel = pendingContribution.getInviterLevel();
+        // 在数据库线程中检查并添加贡献者，写入线程会把同时接受邀请的多个玩家合并到一个事务中提交
+        ContributionRepository repository = ContribTrackerMod.getRepository();
+        CompletableFuture<String> result = repository.supplyAsync(() -> checkAccept(contributionId, playerUuid))
+            .thenCompose(error -> {
+                if (error != null) {
+                    return CompletableFuture.completedFuture(error);
+                }
+                return repository.addContributorAsync(
+                    contributionId,
+                    playerUuid,
+                    playerName,
+                    "",  // 空字符串，没有note
+                    inviterUuid
+                ).thenCompose(info -> repository.getContributionByIdAsync(contributionId))
+                    .thenApply(updatedContribution -> {
+                        if (updatedContribution != null) {
+                            // 广播WebSocket消息
+                            WebSocketHandler.broadcastContributionUpdate(updatedContribution);
+                        }
+                        return null;
+                    });
+            });
 
-            // 添加贡献者
-            DatabaseManager.addContributor(
-                contributionId,
-                playerUuid,
-                player.getName().getString(),
-                "",  // 空字符串，没有note
-                inviterUuid
-            );
+        BaseCommand.onServerThread(source, result, error -> {
+            if (error != null) {
+                source.sendMessage(Text.of("§c" + error));
+                return;
+            }
 
             // 移除待处理的邀请
             pendingContributions.remove(playerUuid);
             ContribTrackerMod.getContributionExpiryTimes().remove(playerUuid);
+            source.sendMessage(Text.of("§a已成功加入贡献"));
+        }, "接受贡献失败");
+        return 1;
+    }
 
-            // 获取更新后的贡献信息
-            Contribution updatedContribution = DatabaseManager.getContributionById(contributionId);
-            if (updatedContribution != null) {
-                // 广播WebSocket消息
-                WebSocketHandler.broadcastContributionUpdate(updatedContribution);
-            }
+    /**
+     * 检查玩家是否可以加入贡献
+     * @return 不能加入时返回原因，可以加入时返回null
+     */
+    private String checkAccept(int contributionId, UUID playerUuid) throws SQLException {
+        // 检查贡献是否存在
+        if (ContribTrackerMod.getRepository().getContributionById(contributionId) == null) {
+            return "找不到ID为 " + contributionId + " 的贡献";
+        }
 
-            source.sendMessage(Text.of("§a已成功加入贡献"));
-            return 1;
-        } catch (SQLException e) {
-            LOGGER.error("接受贡献失败", e);
-            source.sendMessage(Text.of("§c接受贡献失败：" + e.getMessage()));
-            return 0;
+        // 检查是否已经是贡献者
+        if (ContribTrackerMod.getRepository().isContributor(contributionId, playerUuid)) {
+            return "你已经是该贡献的贡献者";
         }
+        return null;
     }
 } 
\ No newline at end of file
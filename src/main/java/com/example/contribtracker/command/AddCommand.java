@@ -4,8 +4,8 @@ import com.example.contribtracker.ContribPermissionManager;
 import com.example.contribtracker.ContribTrackerMod;
 import com.example.contribtracker.database.Contribution;
 import com.example.contribtracker.database.ContributorInfo;
-import com.example.contribtracker.database.DatabaseManager;
 import com.example.contribtracker.util.LogHelper;
+import com.example.contribtracker.util.WorldHelper;
 import com.example.contribtracker.websocket.WebSocketHandler;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
@@ -36,8 +36,6 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.world.World;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.util.Formatting;
 
 import static net.minecraft.server.command.CommandManager.argument;
@@ -73,7 +71,7 @@ public class AddCommand implements BaseCommand {
                 // 在工作线程中获取所有贡献ID
                 ContribTrackerMod.WORKER_POOL.submit(() -> {
                     try {
-                        List<Contribution> contributions = DatabaseManager.getAllContributions();
+                        List<Contribution> contributions = ContribTrackerMod.getRepository().getAllContributions();
                         List<String> ids = contributions.stream()
                                 .map(c -> String.valueOf(c.getId()))
                                 .collect(Collectors.toList());
@@ -160,7 +158,7 @@ public class AddCommand implements BaseCommand {
         CompletableFuture.runAsync(() -> {
             try {
                 List<ContributorInfo> allPlayers = new ArrayList<>();
-                List<Contribution> allContributions = DatabaseManager.getAllContributions();
+                List<Contribution> allContributions = ContribTrackerMod.getRepository().getAllContributions();
                 
                 // 收集所有贡献者
                 for (Contribution contribution : allContributions) {
@@ -247,7 +245,7 @@ public class AddCommand implements BaseCommand {
         
         CompletableFuture.runAsync(() -> {
             try {
-            Contribution contribution = DatabaseManager.getContributionById(contributionId);
+            Contribution contribution = ContribTrackerMod.getRepository().getContributionById(contributionId);
                 
             if (contribution == null) {
                     MinecraftServer server = source.getServer();
@@ -339,7 +337,7 @@ public class AddCommand implements BaseCommand {
                 UUID playerUUID = player.getUuid();
                 String playerName = player.getName().getString();
                 Vec3d pos = player.getPos();
-                String worldName = getWorldName(player.getWorld());
+                String worldName = WorldHelper.getWorldName(player.getWorld());
                 MinecraftServer server = source.getServer();
                 
                 // 创建贡献
@@ -354,7 +352,7 @@ public class AddCommand implements BaseCommand {
                 contribution.setCreatorName(playerName);
                 
                 // 保存到数据库
-                int id = DatabaseManager.addContribution(contribution);
+                int id = ContribTrackerMod.getRepository().addContribution(contribution);
                 
                 if (id > 0) {
                     // 添加创建者作为一级贡献者
@@ -364,7 +362,7 @@ public class AddCommand implements BaseCommand {
                     creator.setLevel(CREATOR_LEVEL);
                     creator.setInviterUuid(null);
                     
-                    DatabaseManager.addContributor(id, creator);
+                    ContribTrackerMod.getRepository().addContributor(id, creator);
                     
                     contribution.setId(id);
                     // 通知客户端
@@ -430,7 +428,7 @@ public class AddCommand implements BaseCommand {
                 MinecraftServer server = source.getServer();
         
                 // 检查贡献是否存在
-                Contribution contribution = DatabaseManager.getContributionById(contributionId);
+                Contribution contribution = ContribTrackerMod.getRepository().getContributionById(contributionId);
                 if (contribution == null) {
                     server.execute(() -> {
                         source.sendError(Text.literal("找不到ID为 " + contributionId + " 的贡献"));
@@ -472,14 +470,14 @@ public class AddCommand implements BaseCommand {
             contributor.setLevel(CONTRIBUTOR_LEVEL);
             contributor.setInviterUuid(inviterUUID);
             
-            if (DatabaseManager.isContributor(contribution.getId(), targetPlayer.getUuid())) {
+            if (ContribTrackerMod.getRepository().isContributor(contribution.getId(), targetPlayer.getUuid())) {
                 source.sendFeedback(() -> Text.literal(
                     String.format("玩家 %s 已经是贡献 %s 的贡献者", targetPlayerName, contribution.getName())
                 ).formatted(Formatting.YELLOW), false);
                 return;
             }
             
-            DatabaseManager.addContributor(contribution.getId(), contributor);
+            ContribTrackerMod.getRepository().addContributor(contribution.getId(), contributor);
             
             server.execute(() -> {
                 targetPlayer.sendMessage(Text.literal(
@@ -494,13 +492,13 @@ public class AddCommand implements BaseCommand {
             });
         } else {
             // 尝试添加离线玩家
-            List<ContributorInfo> offlinePlayerInfo = DatabaseManager.findPlayerByName(targetPlayerName);
+            List<ContributorInfo> offlinePlayerInfo = ContribTrackerMod.getRepository().findPlayerByName(targetPlayerName);
             
             if (!offlinePlayerInfo.isEmpty()) {
                 ContributorInfo offlinePlayer = offlinePlayerInfo.get(0);
                 
                 // 检查是否已经是贡献者
-                if (DatabaseManager.isContributor(contribution.getId(), offlinePlayer.getPlayerUuid())) {
+                if (ContribTrackerMod.getRepository().isContributor(contribution.getId(), offlinePlayer.getPlayerUuid())) {
                     server.execute(() -> {
                         source.sendError(Text.literal(offlinePlayer.getPlayerName() + " 已经是此贡献的贡献者"));
                     });
@@ -511,7 +509,7 @@ public class AddCommand implements BaseCommand {
                 contributor.setPlayerName(offlinePlayer.getPlayerName());
                 contributor.setLevel(CONTRIBUTOR_LEVEL);
                 contributor.setInviterUuid(inviterUUID);
-                DatabaseManager.addContributor(contribution.getId(), contributor);
+                ContribTrackerMod.getRepository().addContributor(contribution.getId(), contributor);
                 
                 server.execute(() -> {
                     source.sendFeedback(() -> Text.literal(
@@ -520,15 +518,22 @@ public class AddCommand implements BaseCommand {
                     ).formatted(Formatting.GREEN), true);
                 });
             } else {
+                // 提示名称相似的玩家
+                String similarNames = ContribTrackerMod.getRepository().findSimilarPlayers(targetPlayerName, 3).stream()
+                    .map(ContributorInfo::getPlayerName)
+                    .collect(Collectors.joining("、"));
                 server.execute(() -> {
                     source.sendError(Text.literal("找不到玩家: " + targetPlayerName));
+                    if (!similarNames.isEmpty()) {
+                        source.sendFeedback(() -> Text.literal("你是不是要找：" + similarNames).formatted(Formatting.YELLOW), false);
+                    }
                 });
                 return;
             }
         }
         
         // 广播更新
-        Contribution updatedContribution = DatabaseManager.getContributionById(contribution.getId());
+        Contribution updatedContribution = ContribTrackerMod.getRepository().getContributionById(contribution.getId());
         if (updatedContribution != null) {
             com.example.contribtracker.websocket.WebSocketHandler.broadcastContributionUpdate(updatedContribution);
         }
@@ -540,18 +545,4 @@ public class AddCommand implements BaseCommand {
                type.equalsIgnoreCase("landmark") || 
                type.equalsIgnoreCase("other");
     }
-    
-    private String getWorldName(World world) {
-        RegistryKey<World> key = world.getRegistryKey();
-        
-        if (key == World.OVERWORLD) {
-            return "overworld";
-        } else if (key == World.NETHER) {
-            return "the_nether";
-        } else if (key == World.END) {
-            return "the_end";
-        } else {
-            return key.getValue().toString();
-        }
-    }
 } 
\ No newline at end of file
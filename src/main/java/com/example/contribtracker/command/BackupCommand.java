@@ -0,0 +1,58 @@
+package com.example.contribtracker.command;
+
+import com.example.contribtracker.database.DatabaseManager;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.util.List;
+
+/**
+ * 数据库备份命令
+ * 只有OP可以执行此命令
+ * - backup：立即在线备份数据库
+ * - backup list：列出所有备份，从新到旧排列
+ */
+public class BackupCommand implements BaseCommand {
+    @Override
+    public LiteralArgumentBuilder<ServerCommandSource> register() {
+        return CommandManager.literal("contribtracker")
+            .then(CommandManager.literal("backup")
+                .requires(source -> source.hasPermissionLevel(4))
+                .executes(this::backup)
+                .then(CommandManager.literal("list")
+                    .executes(this::listBackups)
+                )
+            );
+    }
+
+    /**
+     * 立即备份数据库，备份在数据库线程中逐步进行，完成后通知执行者
+     */
+    private int backup(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        source.sendMessage(Text.of("§e正在备份数据库..."));
+        BaseCommand.onServerThread(source, DatabaseManager.backupAsync(),
+            file -> source.sendMessage(Text.of("§a数据库已备份：" + file.getName())),
+            "备份数据库失败");
+        return 1;
+    }
+
+    private int listBackups(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        List<String> backups = DatabaseManager.listBackups();
+        if (backups.isEmpty()) {
+            source.sendMessage(Text.of("§c还没有任何备份"));
+            return 0;
+        }
+
+        source.sendMessage(Text.of("§a=== 数据库备份 ==="));
+        for (String name : backups) {
+            source.sendMessage(Text.of("§f" + name));
+        }
+        source.sendMessage(Text.of("§a共 " + backups.size() + " 个备份，使用 /contribtracker restore <备份名> 恢复"));
+        return 1;
+    }
+}
@@ -1,7 +1,13 @@
 package com.example.contribtracker.command;
 
+import com.example.contribtracker.ContribTrackerMod;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * 命令基础接口，所有命令都必须实现此接口
@@ -12,4 +18,24 @@ public interface BaseCommand {
      * @return 命令构建器
      */
     LiteralArgumentBuilder<ServerCommandSource> register();
-} 
\ No newline at end of file
+
+    /**
+     * 等待异步数据库操作完成后回到服务器主线程处理结果
+     * @param source 命令来源
+     * @param future 数据库操作
+     * @param onSuccess 操作成功时在服务器主线程上执行
+     * @param failureMessage 操作失败时发送给玩家的提示，后面会附上错误原因
+     */
+    static <T> void onServerThread(ServerCommandSource source, CompletableFuture<T> future,
+                                   Consumer<T> onSuccess, String failureMessage) {
+        future.whenComplete((result, error) -> source.getServer().execute(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            ContribTrackerMod.LOGGER.error(failureMessage, cause);
+            source.sendMessage(Text.of("§c" + failureMessage + "：" + cause.getMessage()));
+        }));
+    }
+}
@@ -1,10 +1,10 @@
 package com.example.contribtracker.command;
 
-import com.example.contribtracker.ContribPermissionManager;
 import com.example.contribtracker.ContribTrackerMod;
+import com.example.contribtracker.ContribPermissionManager;
 import com.example.contribtracker.database.Contribution;
+import com.example.contribtracker.database.ContributionRepository;
 import com.example.contribtracker.database.ContributorInfo;
-import com.example.contribtracker.database.DatabaseManager;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
@@ -13,10 +13,10 @@ import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 删除贡献命令
@@ -25,8 +25,6 @@ import java.sql.SQLException;
  * - admin可以删除任意贡献
  */
 public class DeleteCommand implements BaseCommand {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
-
     @Override
     public LiteralArgumentBuilder<ServerCommandSource> register() {
         return CommandManager.literal("contribtracker")
@@ -47,46 +45,48 @@ public class DeleteCommand implements BaseCommand {
 
         int contributionId = IntegerArgumentType.getInteger(context, "contributionId");
 
-        try {
-            // 获取贡献信息
-            Contribution contribution = DatabaseManager.getContributionById(contributionId);
-            if (contribution == null) {
-                source.sendMessage(Text.of("§c找不到ID为 " + contributionId + " 的贡献"));
-                return 0;
-            }
+        // 权限判断需要的玩家信息在主线程读取，数据库查询和删除放到数据库线程执行
+        boolean isAdmin = ContribPermissionManager.isAdmin(player);
+        UUID playerUuid = player.getUuid();
 
-            // 检查删除权限
-            boolean canDelete = false;
-            
-            // 检查是否是管理员
-            if (ContribPermissionManager.isAdmin(player)) {
-                canDelete = true;
-            } 
-            // 检查是否是一级贡献者且是贡献创建者
-            else {
-                // 获取玩家在该贡献中的角色
-                ContributorInfo contributorInfo = DatabaseManager.getContributorInfo(contributionId, player.getUuid());
-                if (contributorInfo != null && contributorInfo.getLevel() == 1) {
-                    // 检查是否是创建者
-                    if (contribution.getCreatorUuid().equals(player.getUuid())) {
-                        canDelete = true;
-                    }
-                }
-            }
+        ContributionRepository repository = ContribTrackerMod.getRepository();
+        CompletableFuture<String> result = repository.supplyAsync(() -> checkDelete(contributionId, playerUuid, isAdmin))
+            .thenCompose(error -> error != null
+                ? CompletableFuture.completedFuture(error)
+                : repository.deleteContributionAsync(contributionId).thenApply(ignored -> (String) null));
 
-            if (!canDelete) {
-                source.sendMessage(Text.of("§c你没有权限删除该贡献"));
-                return 0;
+        BaseCommand.onServerThread(source, result, error -> {
+            if (error != null) {
+                source.sendMessage(Text.of("§c" + error));
+                return;
             }
-
-            // 执行删除操作
-            DatabaseManager.deleteContribution(contributionId);
             source.sendMessage(Text.of("§a已成功删除ID为 " + contributionId + " 的贡献"));
-            return 1;
-        } catch (SQLException e) {
-            LOGGER.error("删除贡献失败", e);
-            source.sendMessage(Text.of("§c删除贡献失败：" + e.getMessage()));
-            return 0;
+        }, "删除贡献失败");
+        return 1;
+    }
+
+    /**
+     * 检查玩家是否可以删除贡献
+     * @return 不能删除时返回原因，可以删除时返回null
+     */
+    private String checkDelete(int contributionId, UUID playerUuid, boolean isAdmin) throws SQLException {
+        // 获取贡献信息
+        Contribution contribution = ContribTrackerMod.getRepository().getContributionById(contributionId);
+        if (contribution == null) {
+            return "找不到ID为 " + contributionId + " 的贡献";
+        }
+
+        // 检查是否是管理员
+        if (isAdmin) {
+            return null;
+        }
+
+        // 检查是否是一级贡献者且是贡献创建者
+        ContributorInfo contributorInfo = ContribTrackerMod.getRepository().getContributorInfo(contributionId, playerUuid);
+        if (contributorInfo != null && contributorInfo.getLevel() == 1
+                && contribution.getCreatorUuid().equals(playerUuid)) {
+            return null;
         }
+        return "你没有权限删除该贡献";
     }
 } 
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.contribtracker.command;
+
+import com.example.contribtracker.ContribTrackerMod;
+import com.example.contribtracker.database.ContributionTransfer;
+import com.example.contribtracker.database.ContributionWriter;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 导出贡献命令
+ * 只有OP可以执行此命令
+ * - export jsonl / export csv：把全部贡献及其贡献者导出到 transfer 目录，文件名带有导出时间
+ */
+public class ExportCommand implements BaseCommand {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public LiteralArgumentBuilder<ServerCommandSource> register() {
+        return CommandManager.literal("contribtracker")
+            .then(CommandManager.literal("export")
+                .requires(source -> source.hasPermissionLevel(4))
+                .then(CommandManager.literal("jsonl")
+                    .executes(context -> export(context, ContributionTransfer.Format.JSONL))
+                )
+                .then(CommandManager.literal("csv")
+                    .executes(context -> export(context, ContributionTransfer.Format.CSV))
+                )
+            );
+    }
+
+    /**
+     * 在工作线程中逐页导出，完成后通知执行者
+     */
+    private int export(CommandContext<ServerCommandSource> context, ContributionTransfer.Format format) {
+        ServerCommandSource source = context.getSource();
+        File directory = ContribTrackerMod.getTransferDir();
+        File file = new File(directory, "contributions-" + LocalDateTime.now().format(FILE_TIME) + "." + format.getExtension());
+
+        source.sendMessage(Text.of("§e正在导出贡献..."));
+        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return exportTo(file, format);
+            } catch (SQLException | IOException e) {
+                file.delete();
+                throw new CompletionException(e);
+            }
+        }, ContribTrackerMod.WORKER_POOL);
+        BaseCommand.onServerThread(source, future,
+            count -> source.sendMessage(Text.of("§a已导出 " + count + " 条贡献到 " + file.getName())),
+            "导出贡献失败");
+        return 1;
+    }
+
+    private static int exportTo(File file, ContributionTransfer.Format format) throws SQLException, IOException {
+        if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            throw new IOException("无法创建目录：" + file.getParentFile().getAbsolutePath());
+        }
+        try (ContributionWriter writer = ContributionTransfer.newWriter(format, new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            return ContributionTransfer.export(ContribTrackerMod.getRepository(), writer);
+        }
+    }
+}
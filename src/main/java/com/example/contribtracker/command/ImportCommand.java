@@ -0,0 +1,75 @@
+package com.example.contribtracker.command;
+
+import com.example.contribtracker.ContribTrackerMod;
+import com.example.contribtracker.database.ContributionReader;
+import com.example.contribtracker.database.ContributionTransfer;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 导入贡献命令
+ * 只有OP可以执行此命令
+ * 从 transfer 目录中的 .jsonl 或 .csv 文件导入贡献及其贡献者，贡献使用新的ID，
+ * 导入失败时已导入的部分保留
+ */
+public class ImportCommand implements BaseCommand {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public LiteralArgumentBuilder<ServerCommandSource> register() {
+        return CommandManager.literal("contribtracker")
+            .then(CommandManager.literal("import")
+                .requires(source -> source.hasPermissionLevel(4))
+                .then(CommandManager.argument("file", StringArgumentType.string())
+                    .suggests((context, builder) -> {
+                        for (String name : ContributionTransfer.listFiles(ContribTrackerMod.getTransferDir())) {
+                            builder.suggest(name);
+                        }
+                        return builder.buildFuture();
+                    })
+                    .executes(this::importFile)
+                )
+            );
+    }
+
+    private int importFile(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        String fileName = StringArgumentType.getString(context, "file");
+
+        source.sendMessage(Text.of("§e正在从 " + fileName + " 导入贡献..."));
+        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return importFrom(fileName);
+            } catch (SQLException | IOException e) {
+                throw new CompletionException(e);
+            }
+        }, ContribTrackerMod.WORKER_POOL);
+        BaseCommand.onServerThread(source, future,
+            count -> source.sendMessage(Text.of("§a已从 " + fileName + " 导入 " + count + " 条贡献")),
+            "导入贡献失败");
+        return 1;
+    }
+
+    private static int importFrom(String fileName) throws SQLException, IOException {
+        File file = ContributionTransfer.resolve(ContribTrackerMod.getTransferDir(), fileName);
+        ContributionTransfer.Format format = ContributionTransfer.Format.fromFileName(fileName);
+        try (ContributionReader reader = ContributionTransfer.newReader(format, new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            return ContribTrackerMod.getRepository().importContributions(reader);
+        }
+    }
+}
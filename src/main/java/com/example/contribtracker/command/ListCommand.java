@@ -2,77 +2,156 @@ package com.example.contribtracker.command;
 
 import com.example.contribtracker.ContribTrackerMod;
 import com.example.contribtracker.database.Contribution;
-import com.example.contribtracker.database.DatabaseManager;
+import com.example.contribtracker.database.ContributionCursor;
+import com.example.contribtracker.database.ContributionPage;
+import com.example.contribtracker.database.ContributionStore;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
-import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
-import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.ClickEvent;
+import net.minecraft.text.HoverEvent;
+import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.sql.SQLException;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 列出所有贡献命令
  * 任何人都可以执行此命令
  * 格式为：贡献类型 | 贡献名称 | 创建人 | xyz坐标
+ * - /contribtracker list [页码]：按页列出贡献，页码跳转需要跳过前面的页，最多到第 {@link #MAX_PAGE_NUMBER} 页
+ * - 翻页链接使用 /contribtracker list {页码} after|before {创建时间} {ID} 键集游标，每次只读取一页，不受页码限制
  */
 public class ListCommand implements BaseCommand {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
+    private static final int PAGE_SIZE = 10;
+    private static final int MAX_PAGE_NUMBER = ContributionStore.MAX_PAGE_SKIP / PAGE_SIZE + 1;
 
     @Override
     public LiteralArgumentBuilder<ServerCommandSource> register() {
         return CommandManager.literal("contribtracker")
             .then(CommandManager.literal("list")
-                .executes(this::listContributions)
+                .executes(context -> listPage(context, 1))
+                .then(CommandManager.argument("page", IntegerArgumentType.integer(1))
+                    .executes(context -> listPage(context, IntegerArgumentType.getInteger(context, "page")))
+                    .then(CommandManager.literal("after")
+                        .then(CommandManager.argument("createdAt", LongArgumentType.longArg())
+                            .then(CommandManager.argument("id", IntegerArgumentType.integer(0))
+                                .executes(context -> listFromCursor(context, true))
+                            )
+                        )
+                    )
+                    .then(CommandManager.literal("before")
+                        .then(CommandManager.argument("createdAt", LongArgumentType.longArg())
+                            .then(CommandManager.argument("id", IntegerArgumentType.integer(0))
+                                .executes(context -> listFromCursor(context, false))
+                            )
+                        )
+                    )
+                )
             );
     }
 
     /**
-     * 列出所有贡献
+     * 按页码列出贡献
      */
-    private int listContributions(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
-        ServerCommandSource source = context.getSource();
-        ServerPlayerEntity player = source.getPlayer();
+    private int listPage(CommandContext<ServerCommandSource> context, int pageNumber) {
+        if (pageNumber > MAX_PAGE_NUMBER) {
+            context.getSource().sendMessage(Text.of("§c页码最多可以直接跳转到第 " + MAX_PAGE_NUMBER + " 页，更靠后的页请使用翻页链接"));
+            return 0;
+        }
+        CompletableFuture<ContributionPage> page = ContribTrackerMod.getRepository().getContributionPageAsync(pageNumber, PAGE_SIZE);
+        showPageAsync(context.getSource(), page, pageNumber);
+        return 1;
+    }
 
-        try {
-            // 获取所有贡献记录
-            List<Contribution> contributions = DatabaseManager.getAllContributions();
-            
-            if (contributions.isEmpty()) {
+    /**
+     * 从翻页链接中的游标继续列出贡献
+     */
+    private int listFromCursor(CommandContext<ServerCommandSource> context, boolean forward) {
+        int pageNumber = IntegerArgumentType.getInteger(context, "page");
+        ContributionCursor cursor = new ContributionCursor(
+            LongArgumentType.getLong(context, "createdAt"),
+            IntegerArgumentType.getInteger(context, "id")
+        );
+
+        CompletableFuture<ContributionPage> page = forward
+            ? ContribTrackerMod.getRepository().getContributionsAfterAsync(cursor, PAGE_SIZE)
+            : ContribTrackerMod.getRepository().getContributionsBeforeAsync(cursor, PAGE_SIZE);
+        showPageAsync(context.getSource(), page, pageNumber);
+        return 1;
+    }
+
+    /**
+     * 查询完成后在服务器主线程上显示结果
+     */
+    private void showPageAsync(ServerCommandSource source, CompletableFuture<ContributionPage> page, int pageNumber) {
+        CompletableFuture<Runnable> display = page.thenCombine(ContribTrackerMod.getRepository().getContributionCountAsync(),
+            (result, total) -> () -> showPage(source, result, total, pageNumber));
+        BaseCommand.onServerThread(source, display, Runnable::run, "获取贡献列表失败");
+    }
+
+    /**
+     * 显示一页贡献和翻页链接
+     */
+    private void showPage(ServerCommandSource source, ContributionPage page, int total, int pageNumber) {
+        if (page.isEmpty()) {
+            if (pageNumber == 1) {
                 source.sendMessage(Text.of("§c当前没有任何贡献记录"));
-                return 0;
+            } else {
+                source.sendMessage(Text.of("§c第 " + pageNumber + " 页没有贡献记录"));
             }
+            return;
+        }
 
-            // 显示贡献列表
-            source.sendMessage(Text.of("§a=== 贡献列表 ==="));
-            source.sendMessage(Text.of("§eID | 贡献类型 | 贡献名称 | 创建人 | 坐标"));
-            source.sendMessage(Text.of("§e----------------------------------------"));
+        // 显示贡献列表
+        source.sendMessage(Text.of("§a=== 贡献列表（第 " + pageNumber + " 页）==="));
+        source.sendMessage(Text.of("§eID | 贡献类型 | 贡献名称 | 创建人 | 坐标"));
+        source.sendMessage(Text.of("§e----------------------------------------"));
 
-            for (Contribution contribution : contributions) {
-                String message = String.format("§f%d | %s | %s | %s | %.1f, %.1f, %.1f",
-                    contribution.getId(),
-                    contribution.getType(),
-                    contribution.getName(),
-                    contribution.getCreatorName(),
-                    contribution.getX(),
-                    contribution.getY(),
-                    contribution.getZ()
-                );
-                source.sendMessage(Text.of(message));
-            }
+        for (Contribution contribution : page.getContributions()) {
+            String message = String.format("§f%d | %s | %s | %s | %.1f, %.1f, %.1f",
+                contribution.getId(),
+                contribution.getType(),
+                contribution.getName(),
+                contribution.getCreatorName(),
+                contribution.getX(),
+                contribution.getY(),
+                contribution.getZ()
+            );
+            source.sendMessage(Text.of(message));
+        }
 
-            source.sendMessage(Text.of("§e----------------------------------------"));
-            source.sendMessage(Text.of("§a共显示 " + contributions.size() + " 条记录"));
-            return 1;
-        } catch (SQLException e) {
-            LOGGER.error("获取贡献列表失败", e);
-            source.sendMessage(Text.of("§c获取贡献列表失败：" + e.getMessage()));
-            return 0;
+        source.sendMessage(Text.of("§e----------------------------------------"));
+
+        MutableText navigation = Text.literal("§a共 " + total + " 条记录 ");
+        if (page.hasPrevious()) {
+            ContributionCursor first = page.getFirstCursor();
+            navigation.append(pageLink("§b[上一页]", pageNumber - 1, "before", first));
+            navigation.append(" ");
         }
+        if (page.hasNext()) {
+            ContributionCursor last = page.getLastCursor();
+            navigation.append(pageLink("§b[下一页]", pageNumber + 1, "after", last));
+        }
+        source.sendMessage(navigation);
+    }
+
+    /**
+     * 创建点击后执行翻页命令的链接
+     */
+    private Text pageLink(String label, int targetPage, String direction, ContributionCursor cursor) {
+        String command = String.format("/contribtracker list %d %s %d %d",
+            targetPage, direction, cursor.getCreatedAt(), cursor.getId());
+        return Text.literal(label)
+            .styled(style -> style
+                .withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, command))
+                .withHoverEvent(new HoverEvent(
+                    HoverEvent.Action.SHOW_TEXT,
+                    Text.literal("点击查看第 " + targetPage + " 页")
+                ))
+            );
     }
-} 
\ No newline at end of file
+}
@@ -3,8 +3,8 @@ package com.example.contribtracker.command;
 import com.example.contribtracker.ContribPermissionManager;
 import com.example.contribtracker.ContribTrackerMod;
 import com.example.contribtracker.database.Contribution;
+import com.example.contribtracker.database.ContributionRepository;
 import com.example.contribtracker.database.ContributorInfo;
-import com.example.contribtracker.database.DatabaseManager;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
@@ -18,13 +18,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 删除贡献者命令类
  */
 public class RemoveCommand implements BaseCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
+    private static final int SIMILAR_NAME_LIMIT = 3;
 
     @Override
     public LiteralArgumentBuilder<ServerCommandSource> register() {
@@ -38,7 +42,19 @@ public class RemoveCommand implements BaseCommand {
                             for (ServerPlayerEntity player : source.getServer().getPlayerManager().getPlayerList()) {
                                 builder.suggest(player.getName().getString());
                             }
-                            return builder.buildFuture();
+                            // 同时提示该贡献中的离线贡献者，在数据库线程中查询
+                            int contributionId = IntegerArgumentType.getInteger(context, "contributionId");
+                            return ContribTrackerMod.getRepository().getContributorsByContributionIdAsync(contributionId)
+                                .handle((contributors, error) -> {
+                                    if (error != null) {
+                                        LOGGER.debug("获取贡献者名称提示失败", error);
+                                    } else {
+                                        for (ContributorInfo info : contributors) {
+                                            builder.suggest(info.getPlayerName());
+                                        }
+                                    }
+                                    return builder.build();
+                                });
                         })
                         .executes(this::removeContributor)
                     )
@@ -66,67 +82,119 @@ public class RemoveCommand implements BaseCommand {
         int contributionId = IntegerArgumentType.getInteger(context, "contributionId");
         String targetPlayerName = StringArgumentType.getString(context, "playerName");
 
-        try {
-            Contribution contribution = DatabaseManager.getContributionById(contributionId);
-            if (contribution == null) {
-                source.sendMessage(Text.of("§c找不到ID为 " + contributionId + " 的贡献"));
-                return 0;
-            }
+        // 在线玩家和权限在主线程读取，数据库查询和删除放到数据库线程执行
+        ServerPlayerEntity targetPlayer = source.getServer().getPlayerManager().getPlayer(targetPlayerName);
+        UUID onlineTargetUuid = targetPlayer != null ? targetPlayer.getUuid() : null;
+        boolean isAdmin = ContribPermissionManager.isAdmin(player);
+        UUID playerUuid = player.getUuid();
 
-            UUID targetUuid = null;
-            ServerPlayerEntity targetPlayer = source.getServer().getPlayerManager().getPlayer(targetPlayerName);
-            if (targetPlayer != null) {
-                targetUuid = targetPlayer.getUuid();
-            } else {
-                targetUuid = DatabaseManager.getPlayerUuidByName(targetPlayerName, contributionId);
-                if (targetUuid == null) {
-                    source.sendMessage(Text.of("§c找不到玩家：" + targetPlayerName));
-                    return 0;
-                }
+        ContributionRepository repository = ContribTrackerMod.getRepository();
+        CompletableFuture<String> result = repository.supplyAsync(
+                () -> checkRemove(contributionId, playerUuid, isAdmin, targetPlayerName, onlineTargetUuid))
+            .thenCompose(check -> check.error != null
+                ? CompletableFuture.completedFuture(check.error)
+                : repository.deleteContributorAsync(contributionId, check.targetUuid).thenApply(ignored -> (String) null));
+
+        BaseCommand.onServerThread(source, result, error -> {
+            if (error != null) {
+                source.sendMessage(Text.of("§c" + error));
+                return;
             }
+            source.sendMessage(Text.of("§a已从贡献中移除玩家：" + targetPlayerName));
 
-            ContributorInfo targetInfo = DatabaseManager.getContributorInfo(contributionId, targetUuid);
-            if (targetInfo == null) {
-                source.sendMessage(Text.of("§c玩家 " + targetPlayerName + " 不是该贡献的贡献者"));
-                return 0;
+            // 通知期间可能已经下线，重新获取在线玩家
+            ServerPlayerEntity removedPlayer = source.getServer().getPlayerManager().getPlayer(targetPlayerName);
+            if (removedPlayer != null) {
+                removedPlayer.sendMessage(Text.of("§c你已被从贡献 ID:" + contributionId + " 中移除"));
             }
+        }, "删除贡献者失败");
+        return 1;
+    }
+
+    /**
+     * 删除贡献者前的检查结果
+     */
+    private static final class RemoveCheck {
+        private final UUID targetUuid;
+        private final String error;
+
+        private RemoveCheck(UUID targetUuid, String error) {
+            this.targetUuid = targetUuid;
+            this.error = error;
+        }
+
+        private static RemoveCheck denied(String error) {
+            return new RemoveCheck(null, error);
+        }
+    }
+
+    /**
+     * 检查玩家是否可以删除贡献者
+     * @param onlineTargetUuid 目标玩家在线时的UUID，不在线时为null，按名称在该贡献的贡献者中查找
+     */
+    private RemoveCheck checkRemove(int contributionId, UUID playerUuid, boolean isAdmin,
+                                    String targetPlayerName, UUID onlineTargetUuid) throws SQLException {
+        Contribution contribution = ContribTrackerMod.getRepository().getContributionById(contributionId);
+        if (contribution == null) {
+            return RemoveCheck.denied("找不到ID为 " + contributionId + " 的贡献");
+        }
 
-            boolean canRemove = false;
-            
-            if (ContribPermissionManager.isAdmin(player)) {
-                canRemove = true;
-            } 
-            else if (DatabaseManager.isContributionCreator(contributionId, player.getUuid())) {
-                canRemove = true;
+        UUID targetUuid = onlineTargetUuid;
+        if (targetUuid == null) {
+            targetUuid = ContribTrackerMod.getRepository().getPlayerUuidByName(targetPlayerName, contributionId);
+            if (targetUuid == null) {
+                String suggestion = suggestSimilarContributors(contributionId, targetPlayerName);
+                return RemoveCheck.denied("找不到玩家：" + targetPlayerName + (suggestion != null ? "\n" + suggestion : ""));
             }
-            else {
-                ContributorInfo removerInfo = DatabaseManager.getContributorInfo(contributionId, player.getUuid());
-                if (removerInfo != null) {
-                    if (removerInfo.getLevel() == 1) {
-                        canRemove = true;
-                    } 
-                    else if (targetInfo.getInviterUuid() != null && targetInfo.getInviterUuid().equals(player.getUuid())) {
-                        canRemove = true;
-                    }
+        }
+
+        ContributorInfo targetInfo = ContribTrackerMod.getRepository().getContributorInfo(contributionId, targetUuid);
+        if (targetInfo == null) {
+            return RemoveCheck.denied("玩家 " + targetPlayerName + " 不是该贡献的贡献者");
+        }
+
+        boolean canRemove = false;
+        
+        if (isAdmin) {
+            canRemove = true;
+        } 
+        else if (ContribTrackerMod.getRepository().isContributionCreator(contributionId, playerUuid)) {
+            canRemove = true;
+        }
+        else {
+            ContributorInfo removerInfo = ContribTrackerMod.getRepository().getContributorInfo(contributionId, playerUuid);
+            if (removerInfo != null) {
+                if (removerInfo.getLevel() == 1) {
+                    canRemove = true;
+                } 
+                else if (playerUuid.equals(targetInfo.getInviterUuid())) {
+                    // 只能移除自己直接邀请的贡献者
+                    canRemove = true;
                 }
             }
+        }
 
-            if (!canRemove) {
-                source.sendMessage(Text.of("§c你没有权限删除该贡献者"));
-                return 0;
-            }
-            DatabaseManager.deleteContributor(contributionId, targetUuid);
-            source.sendMessage(Text.of("§a已从贡献中移除玩家：" + targetPlayerName));
+        if (!canRemove) {
+            return RemoveCheck.denied("你没有权限删除该贡献者");
+        }
+        return new RemoveCheck(targetUuid, null);
+    }
 
-            if (targetPlayer != null) {
-                targetPlayer.sendMessage(Text.of("§c你已被从贡献 ID:" + contributionId + " 中移除"));
+    /**
+     * 在该贡献的贡献者中查找名称相似的玩家
+     * @return 提示信息，没有相似的玩家时返回null
+     */
+    private String suggestSimilarContributors(int contributionId, String playerName) throws SQLException {
+        ContributionRepository repository = ContribTrackerMod.getRepository();
+        List<String> names = new ArrayList<>();
+        for (ContributorInfo similar : repository.findSimilarPlayers(playerName, SIMILAR_NAME_LIMIT * 4)) {
+            if (repository.isContributor(contributionId, similar.getPlayerUuid())) {
+                names.add(similar.getPlayerName());
+                if (names.size() >= SIMILAR_NAME_LIMIT) {
+                    break;
+                }
             }
-
-            return 1;
-        } catch (SQLException e) {
-            LOGGER.error("删除贡献者失败", e);
-            source.sendMessage(Text.of("§c删除贡献者失败：" + e.getMessage()));
-            return 0;
         }
+        return names.isEmpty() ? null : "§e你是不是要找：" + String.join("、", names);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.example.contribtracker.command;
+
+import com.example.contribtracker.database.DatabaseManager;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+/**
+ * 从备份恢复数据库命令
+ * 只有OP可以执行此命令
+ * 恢复前会先备份当前数据，恢复期间新的修改会失败，查询不受影响
+ */
+public class RestoreCommand implements BaseCommand {
+    @Override
+    public LiteralArgumentBuilder<ServerCommandSource> register() {
+        return CommandManager.literal("contribtracker")
+            .then(CommandManager.literal("restore")
+                .requires(source -> source.hasPermissionLevel(4))
+                .then(CommandManager.argument("backup", StringArgumentType.string())
+                    .suggests((context, builder) -> {
+                        for (String name : DatabaseManager.listBackups()) {
+                            builder.suggest(name);
+                        }
+                        return builder.buildFuture();
+                    })
+                    .executes(this::restore)
+                )
+            );
+    }
+
+    private int restore(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        String backupName = StringArgumentType.getString(context, "backup");
+
+        source.sendMessage(Text.of("§e正在从备份 " + backupName + " 恢复数据库..."));
+        BaseCommand.onServerThread(source, DatabaseManager.restoreAsync(backupName),
+            ignored -> source.sendMessage(Text.of("§a数据库已从备份 " + backupName + " 恢复")),
+            "恢复数据库失败");
+        return 1;
+    }
+}
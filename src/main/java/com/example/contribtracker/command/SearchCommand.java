@@ -0,0 +1,78 @@
+package com.example.contribtracker.command;
+
+import com.example.contribtracker.ContribTrackerMod;
+import com.example.contribtracker.database.Contribution;
+import com.example.contribtracker.database.ContributionSearch;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.util.List;
+
+/**
+ * 搜索贡献命令
+ * 任何人都可以执行此命令
+ * 按贡献名称和类型全文搜索，结果按相关度排序，格式与list命令一致
+ */
+public class SearchCommand implements BaseCommand {
+    private static final int MAX_RESULTS = 10;
+
+    @Override
+    public LiteralArgumentBuilder<ServerCommandSource> register() {
+        return CommandManager.literal("contribtracker")
+            .then(CommandManager.literal("search")
+                .then(CommandManager.argument("text", StringArgumentType.greedyString())
+                    .executes(this::searchContributions)
+                )
+            );
+    }
+
+    /**
+     * 搜索贡献
+     */
+    private int searchContributions(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        String text = StringArgumentType.getString(context, "text");
+
+        if (!ContributionSearch.isSearchable(text)) {
+            source.sendMessage(Text.of("§c搜索词不能为空"));
+            return 0;
+        }
+
+        BaseCommand.onServerThread(source,
+            ContribTrackerMod.getRepository().searchContributionsAsync(text, MAX_RESULTS),
+            contributions -> showResults(source, text, contributions),
+            "搜索贡献失败");
+        return 1;
+    }
+
+    private void showResults(ServerCommandSource source, String text, List<Contribution> contributions) {
+        if (contributions.isEmpty()) {
+            source.sendMessage(Text.of("§c没有找到与 \"" + text + "\" 相关的贡献"));
+            return;
+        }
+
+        source.sendMessage(Text.of("§a=== 搜索结果：" + text + " ==="));
+        source.sendMessage(Text.of("§eID | 贡献类型 | 贡献名称 | 创建人 | 坐标"));
+        source.sendMessage(Text.of("§e----------------------------------------"));
+
+        for (Contribution contribution : contributions) {
+            String message = String.format("§f%d | %s | %s | %s | %.1f, %.1f, %.1f",
+                contribution.getId(),
+                contribution.getType(),
+                contribution.getName(),
+                contribution.getCreatorName(),
+                contribution.getX(),
+                contribution.getY(),
+                contribution.getZ()
+            );
+            source.sendMessage(Text.of(message));
+        }
+
+        source.sendMessage(Text.of("§e----------------------------------------"));
+        source.sendMessage(Text.of("§a共找到 " + contributions.size() + " 条相关贡献（最多显示 " + MAX_RESULTS + " 条）"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.contribtracker.command;
+
+import com.example.contribtracker.ContribTrackerMod;
+import com.example.contribtracker.database.ContributionStats;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 贡献统计命令
+ * 任何人都可以执行此命令
+ * 显示贡献总数、各类型和各世界的贡献数量以及最早和最新的创建时间
+ */
+public class StatsCommand implements BaseCommand {
+    @Override
+    public LiteralArgumentBuilder<ServerCommandSource> register() {
+        return CommandManager.literal("contribtracker")
+            .then(CommandManager.literal("stats")
+                .executes(this::showStats)
+            );
+    }
+
+    private int showStats(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        BaseCommand.onServerThread(source,
+            ContribTrackerMod.getRepository().getContributionStatsAsync(),
+            stats -> showStats(source, stats),
+            "获取贡献统计失败");
+        return 1;
+    }
+
+    private void showStats(ServerCommandSource source, ContributionStats stats) {
+        if (stats.getTotal() == 0) {
+            source.sendMessage(Text.of("§c还没有任何贡献记录"));
+            return;
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        source.sendMessage(Text.of("§a========== 贡献统计 =========="));
+        source.sendMessage(Text.of("§7贡献总数：§f" + stats.getTotal()));
+        source.sendMessage(Text.of("§7最早创建：§f" + format.format(new Date(stats.getOldestCreatedAt()))));
+        source.sendMessage(Text.of("§7最新创建：§f" + format.format(new Date(stats.getNewestCreatedAt()))));
+        source.sendMessage(Text.of("§e按类型："));
+        showCounts(source, stats.getByType());
+        source.sendMessage(Text.of("§e按世界："));
+        showCounts(source, stats.getByWorld());
+        source.sendMessage(Text.of("§a=============================="));
+    }
+
+    /**
+     * 按数量从多到少列出
+     */
+    private void showCounts(ServerCommandSource source, Map<String, Integer> counts) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+        for (Map.Entry<String, Integer> entry : entries) {
+            source.sendMessage(Text.of("§7  " + entry.getKey() + "：§f" + entry.getValue()));
+        }
+    }
+}
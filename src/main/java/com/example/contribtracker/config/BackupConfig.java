@@ -0,0 +1,119 @@
+package com.example.contribtracker.config;
+
+import com.example.contribtracker.ContribTrackerMod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 数据库在线备份配置
+ */
+public class BackupConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
+    private static final String CONFIG_FILE = "backup.yml";
+
+    private static boolean enabled = true;
+    // 两次自动备份的间隔
+    private static int intervalMinutes = 360;
+    // 保留的备份数量，超出时删除最旧的备份
+    private static int generations = 5;
+    // 每一步复制的页数，每步结束后释放锁
+    private static int pagesPerStep = 256;
+    // 每一步之间的停顿，降低备份对磁盘的占用
+    private static int stepPauseMillis = 10;
+
+    public static void initialize(File configDir) {
+        File configFile = new File(configDir, CONFIG_FILE);
+        
+        if (!configFile.exists()) {
+            createDefaultConfig(configFile);
+        }
+        
+        loadConfig(configFile);
+    }
+
+    private static void createDefaultConfig(File configFile) {
+        try {
+            Map<String, Object> config = new LinkedHashMap<>();
+            Map<String, Object> backup = new LinkedHashMap<>();
+            backup.put("enabled", enabled);
+            backup.put("intervalMinutes", intervalMinutes);
+            backup.put("generations", generations);
+            backup.put("pagesPerStep", pagesPerStep);
+            backup.put("stepPauseMillis", stepPauseMillis);
+            config.put("backup", backup);
+
+            Yaml yaml = new Yaml();
+            try (FileWriter writer = new FileWriter(configFile)) {
+                yaml.dump(config, writer);
+            }
+            
+            LOGGER.info("已创建默认备份配置文件");
+        } catch (IOException e) {
+            LOGGER.error("创建备份配置文件失败", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void loadConfig(File configFile) {
+        try {
+            Yaml yaml = new Yaml();
+            try (FileInputStream input = new FileInputStream(configFile)) {
+                Map<String, Object> config = yaml.load(input);
+                if (config != null && config.get("backup") instanceof Map) {
+                    Map<String, Object> backup = (Map<String, Object>) config.get("backup");
+                    if (backup.get("enabled") instanceof Boolean value) {
+                        enabled = value;
+                    }
+                    intervalMinutes = readPositive(backup, "intervalMinutes", intervalMinutes);
+                    generations = readPositive(backup, "generations", generations);
+                    pagesPerStep = readPositive(backup, "pagesPerStep", pagesPerStep);
+                    if (backup.get("stepPauseMillis") instanceof Integer value && value >= 0) {
+                        stepPauseMillis = value;
+                    }
+                    LOGGER.info("已加载备份配置: 启用={}, 间隔={}分钟, 保留{}份", enabled, intervalMinutes, generations);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("加载备份配置文件失败", e);
+        }
+    }
+
+    private static int readPositive(Map<String, Object> section, String key, int defaultValue) {
+        Object value = section.get(key);
+        if (value instanceof Integer intValue && intValue > 0) {
+            return intValue;
+        }
+        if (value != null) {
+            LOGGER.error("备份配置 {} 必须是正整数，使用默认值 {}", key, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static int getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    public static int getGenerations() {
+        return generations;
+    }
+
+    public static int getPagesPerStep() {
+        return pagesPerStep;
+    }
+
+    public static int getStepPauseMillis() {
+        return stepPauseMillis;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.contribtracker.config;
+
+import com.example.contribtracker.ContribTrackerMod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 存储引擎配置
+ */
+public class StorageConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
+    private static final String CONFIG_FILE = "storage.yml";
+
+    /**
+     * 可选的存储引擎
+     */
+    public enum Engine {
+        /** SQLite数据库，支持在线备份 */
+        SQLITE,
+        /** 内存数据加内存映射的只追加日志 */
+        JOURNAL
+    }
+
+    private static Engine engine = Engine.SQLITE;
+    // 每次修改后都把日志强制写回磁盘；关闭时进程崩溃不会丢数据，但断电可能丢失最近的修改
+    private static boolean syncOnWrite = false;
+    // 日志超过这个大小时写入快照并清空日志
+    private static int compactThresholdMB = 16;
+
+    public static void initialize(File configDir) {
+        File configFile = new File(configDir, CONFIG_FILE);
+        
+        if (!configFile.exists()) {
+            createDefaultConfig(configFile);
+        }
+        
+        loadConfig(configFile);
+    }
+
+    private static void createDefaultConfig(File configFile) {
+        try {
+            Map<String, Object> config = new LinkedHashMap<>();
+            Map<String, Object> storage = new LinkedHashMap<>();
+            storage.put("engine", engine.name().toLowerCase(Locale.ROOT));
+            Map<String, Object> journal = new LinkedHashMap<>();
+            journal.put("syncOnWrite", syncOnWrite);
+            journal.put("compactThresholdMB", compactThresholdMB);
+            storage.put("journal", journal);
+            config.put("storage", storage);
+
+            Yaml yaml = new Yaml();
+            try (FileWriter writer = new FileWriter(configFile)) {
+                yaml.dump(config, writer);
+            }
+            
+            LOGGER.info("已创建默认存储配置文件");
+        } catch (IOException e) {
+            LOGGER.error("创建存储配置文件失败", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void loadConfig(File configFile) {
+        try {
+            Yaml yaml = new Yaml();
+            try (FileInputStream input = new FileInputStream(configFile)) {
+                Map<String, Object> config = yaml.load(input);
+                if (config != null && config.get("storage") instanceof Map) {
+                    Map<String, Object> storage = (Map<String, Object>) config.get("storage");
+                    if (storage.get("engine") instanceof String value) {
+                        try {
+                            engine = Engine.valueOf(value.trim().toUpperCase(Locale.ROOT));
+                        } catch (IllegalArgumentException e) {
+                            LOGGER.error("未知的存储引擎 {}，使用 {}", value, engine.name().toLowerCase(Locale.ROOT));
+                        }
+                    }
+                    if (storage.get("journal") instanceof Map) {
+                        Map<String, Object> journal = (Map<String, Object>) storage.get("journal");
+                        if (journal.get("syncOnWrite") instanceof Boolean value) {
+                            syncOnWrite = value;
+                        }
+                        if (journal.get("compactThresholdMB") instanceof Integer value && value > 0) {
+                            compactThresholdMB = value;
+                        } else if (journal.get("compactThresholdMB") != null) {
+                            LOGGER.error("存储配置 compactThresholdMB 必须是正整数，使用默认值 {}", compactThresholdMB);
+                        }
+                    }
+                    LOGGER.info("已加载存储配置: 引擎={}", engine.name().toLowerCase(Locale.ROOT));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("加载存储配置文件失败", e);
+        }
+    }
+
+    public static Engine getEngine() {
+        return engine;
+    }
+
+    public static boolean isSyncOnWrite() {
+        return syncOnWrite;
+    }
+
+    public static long getCompactThresholdBytes() {
+        return compactThresholdMB * 1024L * 1024L;
+    }
+}
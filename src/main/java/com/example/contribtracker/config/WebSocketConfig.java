@@ -16,6 +16,12 @@ public class WebSocketConfig {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
     private static final String CONFIG_FILE = "websocket.yml";
     private static String wsUrl = "ws://127.0.0.1:25580/ws";
+    // 客户端支持时使用 permessage-deflate 压缩消息
+    private static boolean compressionEnabled = true;
+    // 压缩级别，1最快，9压缩率最高
+    private static int compressionLevel = 6;
+    // 小于这个字节数的消息不压缩
+    private static int compressionThreshold = 1024;
 
     public static void initialize(File configDir) {
         File configFile = new File(configDir, CONFIG_FILE);
@@ -30,8 +36,13 @@ public class WebSocketConfig {
     private static void createDefaultConfig(File configFile) {
         try {
             Map<String, Object> config = new HashMap<>();
-            Map<String, String> websocket = new HashMap<>();
+            Map<String, Object> websocket = new HashMap<>();
             websocket.put("url", wsUrl);
+            Map<String, Object> compression = new HashMap<>();
+            compression.put("enabled", compressionEnabled);
+            compression.put("level", compressionLevel);
+            compression.put("thresholdBytes", compressionThreshold);
+            websocket.put("compression", compression);
             config.put("websocket", websocket);
 
             Yaml yaml = new Yaml();
@@ -65,6 +76,9 @@ public class WebSocketConfig {
                                 LOGGER.error("WebSocket URL格式无效，必须使用127.0.0.1作为IP地址");
                             }
                         }
+                        if (websocket.get("compression") instanceof Map) {
+                            loadCompression((Map<String, Object>) websocket.get("compression"));
+                        }
                     }
                 }
             }
@@ -73,6 +87,24 @@ public class WebSocketConfig {
         }
     }
 
+    private static void loadCompression(Map<String, Object> compression) {
+        if (compression.get("enabled") instanceof Boolean value) {
+            compressionEnabled = value;
+        }
+        if (compression.get("level") instanceof Integer value && value >= 1 && value <= 9) {
+            compressionLevel = value;
+        } else if (compression.get("level") != null) {
+            LOGGER.error("WebSocket压缩级别必须是1到9之间的整数，使用默认值 {}", compressionLevel);
+        }
+        if (compression.get("thresholdBytes") instanceof Integer value && value >= 0) {
+            compressionThreshold = value;
+        } else if (compression.get("thresholdBytes") != null) {
+            LOGGER.error("WebSocket压缩阈值必须是非负整数，使用默认值 {}", compressionThreshold);
+        }
+        LOGGER.info("已加载WebSocket压缩配置: 启用={}, 级别={}, 阈值={}字节",
+            compressionEnabled, compressionLevel, compressionThreshold);
+    }
+
     private static boolean validateUrl(String url) {
         // 检查URL格式
         if (!url.startsWith("ws://127.0.0.1:")) {
@@ -96,4 +128,16 @@ public class WebSocketConfig {
     public static String getWsUrl() {
         return wsUrl;
     }
+
+    public static boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    public static int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public static int getCompressionThreshold() {
+        return compressionThreshold;
+    }
 } 
\ No newline at end of file
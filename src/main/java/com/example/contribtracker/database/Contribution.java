@@ -13,6 +13,7 @@ public class Contribution {
     @SerializedName("name")
     private String name;
     
+    // 类型、世界和创建者名称在设置时换成共享实例，见 StringDictionary 和 StringPool
     @SerializedName("type")
     private String type;
     
@@ -84,12 +85,7 @@ public class Contribution {
         if (this.contributorList != null) {
             List<ContributorInfo> copyList = new ArrayList<>();
             for (ContributorInfo info : this.contributorList) {
-                ContributorInfo infoCopy = new ContributorInfo();
-                infoCopy.setPlayerUuid(info.getPlayerUuid());
-                infoCopy.setPlayerName(info.getPlayerName());
-                infoCopy.setLevel(info.getLevel());
-                infoCopy.setInviterUuid(info.getInviterUuid());
-                copyList.add(infoCopy);
+                copyList.add(info.copy());
             }
             copy.contributorList = copyList;
         }
@@ -118,7 +114,7 @@ public class Contribution {
     }
 
     public void setType(String type) {
-        this.type = type;
+        this.type = StringDictionary.TYPES.intern(type);
     }
 
     public UUID getCreatorUuid() {
@@ -134,7 +130,7 @@ public class Contribution {
     }
 
     public void setCreatorName(String creatorName) {
-        this.creatorName = creatorName;
+        this.creatorName = StringPool.PLAYER_NAMES.intern(creatorName);
     }
 
     public double getX() {
@@ -166,7 +162,7 @@ public class Contribution {
     }
 
     public void setWorld(String world) {
-        this.world = world;
+        this.world = StringDictionary.WORLDS.intern(world);
     }
 
     public long getCreatedAt() {
@@ -0,0 +1,71 @@
+package com.example.contribtracker.database;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.UUID;
+
+/**
+ * 变更日志中的一条记录
+ * 记录只说明哪个贡献在什么时候发生了什么变化，不包含变化后的数据；
+ * 使用者应按贡献ID重新读取当前数据，贡献已删除时读取结果为空。
+ */
+public class ContributionChange {
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        CONTRIBUTION_ADDED,
+        CONTRIBUTION_DELETED,
+        CONTRIBUTOR_ADDED,
+        CONTRIBUTOR_REMOVED
+    }
+
+    @SerializedName("seq")
+    private final long seq;
+
+    @SerializedName("contributionId")
+    private final int contributionId;
+
+    @SerializedName("type")
+    private final Type type;
+
+    @SerializedName("playerUuid")
+    private final UUID playerUuid;
+
+    @SerializedName("changedAt")
+    private final long changedAt;
+
+    public ContributionChange(long seq, int contributionId, Type type, UUID playerUuid, long changedAt) {
+        this.seq = seq;
+        this.contributionId = contributionId;
+        this.type = type;
+        this.playerUuid = playerUuid;
+        this.changedAt = changedAt;
+    }
+
+    /**
+     * 全局递增的序号，不会重复使用
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    public int getContributionId() {
+        return contributionId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 贡献者变更时为该贡献者的UUID，贡献变更时为创建者的UUID
+     */
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public long getChangedAt() {
+        return changedAt;
+    }
+}
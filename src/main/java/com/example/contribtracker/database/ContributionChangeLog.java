@@ -0,0 +1,235 @@
+package com.example.contribtracker.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 贡献变更日志
+ * 每次添加、删除贡献或贡献者时，在同一事务中向 contribution_changes 追加一条记录，
+ * 序号由 AUTOINCREMENT 分配，只增不减，删除记录后也不会重复使用。
+ * 使用者记住读取到的序号，之后只需读取该序号之后的变更，而不必重新加载全部贡献。
+ *
+ * 日志通过两种方式保持有界：
+ * - 压缩：同一贡献只保留最近的一条记录。记录只指明需要重新读取的贡献，
+ *   保留最近的一条时任何序号之后的读取仍能得知该贡献发生过变化，因此压缩不影响使用者。
+ * - 清理：超过保留时间或超出最大行数的记录被删除，被删除的最大序号记为保留起点（horizon），
+ *   请求的序号早于保留起点时使用者需要重新读取完整数据。
+ */
+public final class ContributionChangeLog {
+    /** 记录的最长保留时间 */
+    public static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    /** 压缩后最多保留的记录数 */
+    public static final int MAX_ROWS = 100_000;
+
+    /** 单次读取最多返回的记录数 */
+    public static final int MAX_READ = 1000;
+
+    static final String APPEND_SQL = """
+        INSERT INTO contribution_changes (contribution_id, change_type, player_uuid, changed_at)
+        VALUES (?, ?, ?, ?)
+    """;
+
+    static final String READ_SQL = """
+        SELECT seq, contribution_id, change_type, player_uuid, changed_at
+        FROM contribution_changes
+        WHERE seq > ? AND seq <= ?
+        ORDER BY seq
+        LIMIT ?
+    """;
+
+    static final String LATEST_SEQ_SQL = "SELECT seq FROM sqlite_sequence WHERE name = 'contribution_changes'";
+
+    static final String HORIZON_SQL = "SELECT value FROM contribution_changes_meta WHERE key = 'horizon'";
+
+    /** 同一贡献只保留序号最大的记录，子查询通过 (contribution_id, seq) 索引完成分组 */
+    static final String COMPACT_SQL = """
+        DELETE FROM contribution_changes
+        WHERE seq NOT IN (SELECT MAX(seq) FROM contribution_changes GROUP BY contribution_id)
+    """;
+
+    /** 需要清理的记录中最大的序号：超过保留时间，或排在最近 MAX_ROWS 条之前 */
+    static final String EXPIRED_SEQ_SQL = """
+        SELECT MAX(seq) FROM contribution_changes
+        WHERE changed_at < ?
+           OR seq <= (SELECT seq FROM contribution_changes ORDER BY seq DESC LIMIT 1 OFFSET ?)
+    """;
+
+    static final String EXPIRE_SQL = "DELETE FROM contribution_changes WHERE seq <= ?";
+
+    static final String UPDATE_HORIZON_SQL = """
+        INSERT INTO contribution_changes_meta (key, value) VALUES ('horizon', ?)
+        ON CONFLICT (key) DO UPDATE SET value = MAX(value, excluded.value)
+    """;
+
+    static final String ADVANCE_SEQ_SQL = """
+        UPDATE sqlite_sequence SET seq = MAX(seq, ?) WHERE name = 'contribution_changes'
+    """;
+
+    static final String INSERT_SEQ_SQL = "INSERT INTO sqlite_sequence (name, seq) VALUES ('contribution_changes', ?)";
+
+    private ContributionChangeLog() {
+    }
+
+    /**
+     * 追加一条变更记录，需要在执行修改的同一事务中调用
+     * @param conn 写入连接
+     * @param contributionId 发生变化的贡献
+     * @param type 变更类型
+     * @param playerUuid 相关玩家，可以为null
+     * @return 新记录的序号
+     * @throws SQLException 如果写入失败
+     */
+    public static long append(Connection conn, int contributionId, ContributionChange.Type type, UUID playerUuid)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(APPEND_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, contributionId);
+            pstmt.setString(2, type.name());
+            UuidCodec.bind(pstmt, 3, playerUuid);
+            pstmt.setLong(4, System.currentTimeMillis());
+            pstmt.executeUpdate();
+            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                if (!rs.next()) {
+                    throw new SQLException("写入变更记录失败，无法获取序号");
+                }
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * 读取指定序号之后的变更
+     * @param conn 数据库连接
+     * @param afterSeq 使用者已读取到的序号，从未读取过时为0
+     * @param upToSeq 最多读取到的序号，调用方用它排除内存数据尚未同步的记录
+     * @param limit 最多返回的记录数，超过 {@link #MAX_READ} 时按上限处理
+     * @return 变更列表；afterSeq 早于保留起点时标记为需要重新读取完整数据
+     * @throws SQLException 如果查询失败
+     */
+    public static ContributionChanges readSince(Connection conn, long afterSeq, long upToSeq, int limit)
+            throws SQLException {
+        List<ContributionChange> changes = new ArrayList<>();
+        long latestSeq = afterSeq;
+        try (PreparedStatement pstmt = conn.prepareStatement(READ_SQL)) {
+            pstmt.setLong(1, afterSeq);
+            pstmt.setLong(2, upToSeq);
+            pstmt.setInt(3, Math.max(1, Math.min(limit, MAX_READ)));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ContributionChange change = new ContributionChange(
+                        rs.getLong("seq"),
+                        rs.getInt("contribution_id"),
+                        ContributionChange.Type.valueOf(rs.getString("change_type")),
+                        UuidCodec.read(rs, "player_uuid"),
+                        rs.getLong("changed_at")
+                    );
+                    changes.add(change);
+                    latestSeq = change.getSeq();
+                }
+            }
+        }
+
+        // 保留起点在读取之后检查，读取期间发生的清理也会被发现
+        boolean snapshotRequired = afterSeq < getHorizon(conn);
+        if (snapshotRequired) {
+            return new ContributionChanges(List.of(), afterSeq, true);
+        }
+        return new ContributionChanges(changes, latestSeq, false);
+    }
+
+    /**
+     * 获取已分配的最大序号，记录被压缩或清理后仍保持不变
+     * @return 最大序号，从未写入过变更时为0
+     * @throws SQLException 如果查询失败
+     */
+    public static long getLatestSeq(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(LATEST_SEQ_SQL)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 获取保留起点，该序号及之前的记录可能已被清理
+     * @return 保留起点，从未清理过时为0
+     * @throws SQLException 如果查询失败
+     */
+    public static long getHorizon(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(HORIZON_SQL)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 压缩并清理变更日志，需要在写入连接的事务中调用
+     * @param conn 写入连接
+     * @param now 当前时间，早于 now - {@link #RETENTION_MILLIS} 的记录被清理
+     * @return 删除的记录数
+     * @throws SQLException 如果写入失败
+     */
+    public static int compact(Connection conn, long now) throws SQLException {
+        int deleted;
+        try (Statement stmt = conn.createStatement()) {
+            deleted = stmt.executeUpdate(COMPACT_SQL);
+        }
+
+        long expiredSeq = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(EXPIRED_SEQ_SQL)) {
+            pstmt.setLong(1, now - RETENTION_MILLIS);
+            pstmt.setInt(2, MAX_ROWS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    expiredSeq = rs.getLong(1);
+                }
+            }
+        }
+        if (expiredSeq <= 0) {
+            return deleted;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(EXPIRE_SQL)) {
+            pstmt.setLong(1, expiredSeq);
+            deleted += pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_HORIZON_SQL)) {
+            pstmt.setLong(1, expiredSeq);
+            pstmt.executeUpdate();
+        }
+        return deleted;
+    }
+
+    /**
+     * 从备份恢复数据库后调用：序号从恢复前的位置继续分配，保持只增不减，
+     * 并把保留起点推进到该位置，恢复前读取过变更的使用者都会被要求重新读取完整数据
+     * @param conn 写入连接
+     * @param previousSeq 恢复前已分配的最大序号
+     * @throws SQLException 如果写入失败
+     */
+    public static void markRestored(Connection conn, long previousSeq) throws SQLException {
+        if (previousSeq <= 0) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(ADVANCE_SEQ_SQL)) {
+            pstmt.setLong(1, previousSeq);
+            if (pstmt.executeUpdate() == 0) {
+                // 备份中从未写入过变更，sqlite_sequence 中还没有这一行
+                try (PreparedStatement insert = conn.prepareStatement(INSERT_SEQ_SQL)) {
+                    insert.setLong(1, previousSeq);
+                    insert.executeUpdate();
+                }
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_HORIZON_SQL)) {
+            pstmt.setLong(1, previousSeq);
+            pstmt.executeUpdate();
+        }
+    }
+}
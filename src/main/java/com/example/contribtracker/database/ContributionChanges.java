@@ -0,0 +1,43 @@
+package com.example.contribtracker.database;
+
+import java.util.List;
+
+/**
+ * 某个序号之后的一批变更
+ */
+public class ContributionChanges {
+    private final List<ContributionChange> changes;
+    private final long latestSeq;
+    private final boolean snapshotRequired;
+
+    public ContributionChanges(List<ContributionChange> changes, long latestSeq, boolean snapshotRequired) {
+        this.changes = changes;
+        this.latestSeq = latestSeq;
+        this.snapshotRequired = snapshotRequired;
+    }
+
+    /**
+     * 按序号升序排列的变更，同一贡献在压缩后可能只保留最近的一条
+     */
+    public List<ContributionChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * 本批变更读取到的位置，下次从这里继续读取；没有更多变更时与请求的序号相同
+     */
+    public long getLatestSeq() {
+        return latestSeq;
+    }
+
+    /**
+     * 请求的序号早于保留范围，其后的部分变更已被清理，使用者需要重新读取完整数据
+     */
+    public boolean isSnapshotRequired() {
+        return snapshotRequired;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.contribtracker.database;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 贡献的列式快照
+ * 与 {@link ContributionStore} 中的贡献对象并存，把扫描类查询需要的字段按列存放在平行的基本类型数组中：
+ * ID、坐标、世界和类型的字典编码（见 {@link StringDictionary}）以及创建时间。
+ * 范围过滤和统计只需顺序遍历这些数组，不需要访问贡献对象和贡献者列表。
+ *
+ * 每条贡献占一个槽位，新增时追加到末尾，删除时把最后一个槽位移到空出的位置，数组保持紧凑。
+ * 修改由 {@link ContributionStore} 在持有锁时调用；扫描持有读锁，看到的总是某次修改之后的完整状态。
+ */
+public class ContributionColumns {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private double[] zs = new double[INITIAL_CAPACITY];
+    private short[] worlds = new short[INITIAL_CAPACITY];
+    private short[] types = new short[INITIAL_CAPACITY];
+    private long[] createdAts = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * 放入新贡献或替换已有贡献的列值
+     */
+    public void put(Contribution contribution) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(contribution.getId());
+            if (slot == null) {
+                ensureCapacity(size + 1);
+                slot = size++;
+                slots.put(contribution.getId(), slot);
+            }
+            ids[slot] = contribution.getId();
+            xs[slot] = contribution.getX();
+            ys[slot] = contribution.getY();
+            zs[slot] = contribution.getZ();
+            worlds[slot] = toShort(StringDictionary.WORLDS.encode(contribution.getWorld()));
+            types[slot] = toShort(StringDictionary.TYPES.encode(contribution.getType()));
+            createdAts[slot] = contribution.getCreatedAt();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                ids[slot] = ids[last];
+                xs[slot] = xs[last];
+                ys[slot] = ys[last];
+                zs[slot] = zs[last];
+                worlds[slot] = worlds[last];
+                types[slot] = types[last];
+                createdAts[slot] = createdAts[last];
+                slots.put(ids[slot], slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 扫描全部贡献，找出同一世界中坐标落在给定范围内（包含边界）的贡献
+     * @return 按升序排列的贡献ID
+     */
+    public int[] findInBox(String world, double minX, double minY, double minZ,
+                           double maxX, double maxY, double maxZ) {
+        int worldCode = StringDictionary.WORLDS.find(world);
+        if (worldCode < 0) {
+            return new int[0];
+        }
+        short code = toShort(worldCode);
+
+        lock.readLock().lock();
+        try {
+            int[] result = new int[16];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (worlds[i] == code
+                        && xs[i] >= minX && xs[i] <= maxX
+                        && ys[i] >= minY && ys[i] <= maxY
+                        && zs[i] >= minZ && zs[i] <= maxZ) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+                    result[count++] = ids[i];
+                }
+            }
+            result = Arrays.copyOf(result, count);
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从候选ID中筛选出坐标落在给定范围内的贡献，候选通常来自空间索引，世界已经匹配
+     * @return 按升序排列的贡献ID
+     */
+    public int[] filterInBox(Iterable<Integer> candidates, double minX, double minY, double minZ,
+                             double maxX, double maxY, double maxZ) {
+        lock.readLock().lock();
+        try {
+            int[] result = new int[16];
+            int count = 0;
+            for (int id : candidates) {
+                Integer slot = slots.get(id);
+                if (slot != null
+                        && xs[slot] >= minX && xs[slot] <= maxX
+                        && ys[slot] >= minY && ys[slot] <= maxY
+                        && zs[slot] >= minZ && zs[slot] <= maxZ) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+                    result[count++] = id;
+                }
+            }
+            result = Arrays.copyOf(result, count);
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 统计贡献总数、各类型和各世界的数量以及创建时间范围
+     */
+    public ContributionStats stats() {
+        lock.readLock().lock();
+        try {
+            int[] typeCounts = new int[StringDictionary.TYPES.size()];
+            int[] worldCounts = new int[StringDictionary.WORLDS.size()];
+            long oldest = Long.MAX_VALUE;
+            long newest = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                typeCounts[types[i] & 0xFFFF]++;
+                worldCounts[worlds[i] & 0xFFFF]++;
+                oldest = Math.min(oldest, createdAts[i]);
+                newest = Math.max(newest, createdAts[i]);
+            }
+            return new ContributionStats(size,
+                toMap(StringDictionary.TYPES, typeCounts),
+                toMap(StringDictionary.WORLDS, worldCounts),
+                size > 0 ? oldest : 0,
+                size > 0 ? newest : 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> toMap(StringDictionary dictionary, int[] counts) {
+        Map<String, Integer> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(dictionary.decode(code), counts[code]);
+            }
+        }
+        return result;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, grown);
+        xs = Arrays.copyOf(xs, grown);
+        ys = Arrays.copyOf(ys, grown);
+        zs = Arrays.copyOf(zs, grown);
+        worlds = Arrays.copyOf(worlds, grown);
+        types = Arrays.copyOf(types, grown);
+        createdAts = Arrays.copyOf(createdAts, grown);
+    }
+
+    /**
+     * 字典编码按无符号16位存放，最多支持65536个不同的值
+     */
+    private static short toShort(int code) {
+        if (code > 0xFFFF) {
+            throw new IllegalStateException("字典编码超出范围：" + code);
+        }
+        return (short) code;
+    }
+}
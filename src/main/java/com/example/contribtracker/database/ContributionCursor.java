@@ -0,0 +1,55 @@
+package com.example.contribtracker.database;
+
+import java.util.Objects;
+
+/**
+ * 贡献列表的键集分页游标
+ * 列表按 (createdAt, id) 倒序排列，游标指向某条贡献在列表中的位置，
+ * 翻页时从游标处继续读取，不需要像 OFFSET 那样跳过前面的所有记录。
+ */
+public final class ContributionCursor implements Comparable<ContributionCursor> {
+    private final long createdAt;
+    private final int id;
+
+    public ContributionCursor(long createdAt, int id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static ContributionCursor of(Contribution contribution) {
+        return new ContributionCursor(contribution.getCreatedAt(), contribution.getId());
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * 较新的贡献排在前面，创建时间相同时ID较大的排在前面
+     */
+    @Override
+    public int compareTo(ContributionCursor other) {
+        int result = Long.compare(other.createdAt, this.createdAt);
+        return result != 0 ? result : Integer.compare(other.id, this.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContributionCursor other)) {
+            return false;
+        }
+        return createdAt == other.createdAt && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, id);
+    }
+}
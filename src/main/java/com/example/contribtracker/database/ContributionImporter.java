@@ -0,0 +1,116 @@
+package com.example.contribtracker.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 批量写入导入的贡献
+ * 一批贡献在写入线程的一个事务中用批量预编译语句写入：贡献、贡献者和变更记录各一条语句，
+ * 每种语句只执行一次 executeBatch，不需要逐条往返读取自增ID。
+ * 新贡献的ID在事务开始时一次性分配，写入线程是唯一的写入者，分配的ID不会与其他修改冲突。
+ */
+public final class ContributionImporter {
+    /** AUTOINCREMENT 不会重用已删除的ID，新ID从已分配过的最大ID之后开始 */
+    static final String MAX_ID_SQL = """
+        SELECT MAX(
+            COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'contributions'), 0),
+            COALESCE((SELECT MAX(id) FROM contributions), 0)
+        )
+    """;
+
+    /**
+     * 创建时间按本地时区写成与 CURRENT_TIMESTAMP 相同的文本格式，读取时按本地时区解析，
+     * 导出再导入后读到的时间不变；文件中没有创建时间时使用当前时间
+     */
+    static final String INSERT_CONTRIBUTION_SQL = """
+        INSERT INTO contributions (id, name, type, game_id, x, y, z, world, creator_uuid, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE(datetime(? / 1000, 'unixepoch', 'localtime'), CURRENT_TIMESTAMP))
+    """;
+
+    static final String INSERT_CONTRIBUTOR_SQL = """
+        INSERT INTO contributors (contribution_id, player_uuid, player_name, inviter_uuid, level)
+        VALUES (?, ?, ?, ?, ?)
+    """;
+
+    private ContributionImporter() {
+    }
+
+    /**
+     * 写入一批贡献及其贡献者，需要在写入线程的事务中调用
+     * 邀请者先于被邀请者写入，使闭包表触发器能找到邀请者；级别按邀请关系重新计算，规则与添加贡献者时相同。
+     * 同一贡献中重复的玩家只保留第一条。每条贡献写入一条新增贡献的变更记录。
+     * @param conn 写入连接
+     * @param batch 从导入文件读取的贡献，ID会被忽略
+     * @return 写入后从数据库读回的贡献，与启动时加载的对象一致
+     * @throws SQLException 如果写入失败
+     */
+    public static List<Contribution> insertBatch(Connection conn, List<Contribution> batch) throws SQLException {
+        int firstId;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(MAX_ID_SQL)) {
+            firstId = (rs.next() ? rs.getInt(1) : 0) + 1;
+        }
+
+        long now = System.currentTimeMillis();
+        try (PreparedStatement contributions = conn.prepareStatement(INSERT_CONTRIBUTION_SQL);
+             PreparedStatement contributors = conn.prepareStatement(INSERT_CONTRIBUTOR_SQL);
+             PreparedStatement changes = conn.prepareStatement(ContributionChangeLog.APPEND_SQL)) {
+            int id = firstId;
+            for (Contribution contribution : batch) {
+                contributions.setInt(1, id);
+                contributions.setString(2, contribution.getName());
+                contributions.setString(3, contribution.getType());
+                contributions.setString(4, contribution.getGameId());
+                contributions.setDouble(5, contribution.getX());
+                contributions.setDouble(6, contribution.getY());
+                contributions.setDouble(7, contribution.getZ());
+                contributions.setString(8, contribution.getWorld());
+                UuidCodec.bind(contributions, 9, contribution.getCreatorUuid());
+                if (contribution.getCreatedAt() > 0) {
+                    contributions.setLong(10, contribution.getCreatedAt());
+                } else {
+                    contributions.setNull(10, Types.INTEGER);
+                }
+                contributions.addBatch();
+
+                Map<UUID, Integer> levels = new HashMap<>();
+                for (ContributorInfo contributor : ContributionTransfer.insertionOrder(contribution)) {
+                    if (levels.containsKey(contributor.getPlayerUuid())) {
+                        continue;
+                    }
+                    UUID inviterUuid = contributor.getInviterUuid();
+                    int level = inviterUuid == null ? 1 : levels.getOrDefault(inviterUuid, -1) + 1;
+                    levels.put(contributor.getPlayerUuid(), level);
+
+                    contributors.setInt(1, id);
+                    UuidCodec.bind(contributors, 2, contributor.getPlayerUuid());
+                    contributors.setString(3, contributor.getPlayerName());
+                    UuidCodec.bind(contributors, 4, inviterUuid);
+                    contributors.setInt(5, level);
+                    contributors.addBatch();
+                }
+
+                changes.setInt(1, id);
+                changes.setString(2, ContributionChange.Type.CONTRIBUTION_ADDED.name());
+                UuidCodec.bind(changes, 3, contribution.getCreatorUuid());
+                changes.setLong(4, now);
+                changes.addBatch();
+                id++;
+            }
+            // 先写贡献，贡献者的外键才能通过检查
+            contributions.executeBatch();
+            contributors.executeBatch();
+            changes.executeBatch();
+        }
+
+        return ContributionLoader.loadRange(conn, firstId, firstId + batch.size() - 1);
+    }
+}
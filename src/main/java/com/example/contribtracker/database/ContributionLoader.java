@@ -0,0 +1,179 @@
+package com.example.contribtracker.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 贡献数据加载器
+ * 用一条按贡献ID排序的 LEFT JOIN 查询流式读取 contributions 和 contributors，
+ * 边读边组装 Contribution/ContributorInfo 对象，只需一次数据库往返。
+ *
+ * 加载结果与内存模型中的对象一致：贡献者列表按级别和名称排序，并带有派生出的
+ * creatorName 和 contributors 字段。
+ */
+public final class ContributionLoader {
+    /**
+     * 按主键顺序扫描贡献表，每条贡献通过 (contribution_id, player_uuid) 唯一索引连接贡献者，
+     * 不需要 GROUP BY、临时排序或相关子查询
+     */
+    static final String LOAD_ALL_SQL = """
+        SELECT c.id, c.name, c.type, c.game_id, c.x, c.y, c.z, c.world, c.creator_uuid, c.created_at,
+               ct.player_uuid, ct.player_name, ct.level, ct.inviter_uuid
+        FROM contributions c
+        LEFT JOIN contributors ct ON ct.contribution_id = c.id
+        ORDER BY c.id
+    """;
+
+    /** 按主键范围读取，用于批量导入后把新写入的贡献放入内存 */
+    static final String LOAD_RANGE_SQL = """
+        SELECT c.id, c.name, c.type, c.game_id, c.x, c.y, c.z, c.world, c.creator_uuid, c.created_at,
+               ct.player_uuid, ct.player_name, ct.level, ct.inviter_uuid
+        FROM contributions c
+        LEFT JOIN contributors ct ON ct.contribution_id = c.id
+        WHERE c.id BETWEEN ? AND ?
+        ORDER BY c.id
+    """;
+
+    /**
+     * 通过R*Tree虚拟表按范围查询，先用索引筛出候选，再按精确坐标过滤
+     * （R*Tree以单精度存储坐标并向外取整，候选可能略多于精确结果）
+     */
+    static final String LOAD_IN_BOX_SQL = """
+        SELECT c.id, c.name, c.type, c.game_id, c.x, c.y, c.z, c.world, c.creator_uuid, c.created_at,
+               ct.player_uuid, ct.player_name, ct.level, ct.inviter_uuid
+        FROM contributions_rtree r
+        JOIN contributions c ON c.id = r.id
+        LEFT JOIN contributors ct ON ct.contribution_id = c.id
+        WHERE r.min_x <= ? AND r.max_x >= ?
+          AND r.min_y <= ? AND r.max_y >= ?
+          AND r.min_z <= ? AND r.max_z >= ?
+          AND r.world = ?
+          AND c.x BETWEEN ? AND ? AND c.y BETWEEN ? AND ? AND c.z BETWEEN ? AND ?
+        ORDER BY c.id
+    """;
+
+    private static final int FETCH_SIZE = 1000;
+
+    private ContributionLoader() {
+    }
+
+    /**
+     * 读取所有贡献及其贡献者
+     * @param conn 数据库连接
+     * @return 按ID升序排列的贡献列表
+     * @throws SQLException 如果查询失败
+     */
+    public static List<Contribution> loadAll(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(LOAD_ALL_SQL)) {
+            pstmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return readGraph(rs);
+            }
+        }
+    }
+
+    /**
+     * 读取ID在指定范围内的贡献及其贡献者
+     * @param conn 数据库连接
+     * @param fromId 最小ID（包含）
+     * @param toId 最大ID（包含）
+     * @return 按ID升序排列的贡献列表
+     * @throws SQLException 如果查询失败
+     */
+    public static List<Contribution> loadRange(Connection conn, int fromId, int toId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(LOAD_RANGE_SQL)) {
+            pstmt.setFetchSize(FETCH_SIZE);
+            pstmt.setInt(1, fromId);
+            pstmt.setInt(2, toId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return readGraph(rs);
+            }
+        }
+    }
+
+    /**
+     * 通过R*Tree索引读取指定世界中坐标落在给定范围内的贡献
+     * @param conn 数据库连接
+     * @param world 世界名称
+     * @return 按ID升序排列的贡献列表
+     * @throws SQLException 如果查询失败
+     */
+    public static List<Contribution> loadInBox(Connection conn, String world,
+                                               double minX, double minY, double minZ,
+                                               double maxX, double maxY, double maxZ) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(LOAD_IN_BOX_SQL)) {
+            pstmt.setDouble(1, maxX);
+            pstmt.setDouble(2, minX);
+            pstmt.setDouble(3, maxY);
+            pstmt.setDouble(4, minY);
+            pstmt.setDouble(5, maxZ);
+            pstmt.setDouble(6, minZ);
+            pstmt.setString(7, world);
+            pstmt.setDouble(8, minX);
+            pstmt.setDouble(9, maxX);
+            pstmt.setDouble(10, minY);
+            pstmt.setDouble(11, maxY);
+            pstmt.setDouble(12, minZ);
+            pstmt.setDouble(13, maxZ);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return readGraph(rs);
+            }
+        }
+    }
+
+    /**
+     * 把按贡献ID排序的连接结果组装成对象
+     */
+    private static List<Contribution> readGraph(ResultSet rs) throws SQLException {
+        List<Contribution> contributions = new ArrayList<>();
+        Contribution current = null;
+        while (rs.next()) {
+            int id = rs.getInt("id");
+            // 结果按贡献ID排序，ID变化时说明进入了下一条贡献
+            if (current == null || current.getId() != id) {
+                current = readContribution(rs, id);
+                contributions.add(current);
+            }
+
+            UUID playerUuid = UuidCodec.read(rs, "player_uuid");
+            if (playerUuid != null) {
+                current.getContributorList().add(readContributor(rs, id, playerUuid));
+            }
+        }
+
+        for (Contribution contribution : contributions) {
+            ContributionStore.sortAndDerive(contribution);
+        }
+        return contributions;
+    }
+
+    private static Contribution readContribution(ResultSet rs, int id) throws SQLException {
+        Contribution contribution = new Contribution();
+        contribution.setId(id);
+        contribution.setName(rs.getString("name"));
+        contribution.setType(rs.getString("type"));
+        contribution.setGameId(rs.getString("game_id"));
+        contribution.setX(rs.getDouble("x"));
+        contribution.setY(rs.getDouble("y"));
+        contribution.setZ(rs.getDouble("z"));
+        contribution.setWorld(rs.getString("world"));
+        contribution.setCreatorUuid(UuidCodec.read(rs, "creator_uuid"));
+        contribution.setCreatedAt(rs.getTimestamp("created_at").getTime());
+        return contribution;
+    }
+
+    private static ContributorInfo readContributor(ResultSet rs, int contributionId, UUID playerUuid) throws SQLException {
+        ContributorInfo info = new ContributorInfo();
+        info.setContributionId(contributionId);
+        info.setPlayerUuid(playerUuid);
+        info.setPlayerName(rs.getString("player_name"));
+        info.setLevel(rs.getInt("level"));
+        info.setInviterUuid(UuidCodec.read(rs, "inviter_uuid"));
+        return info;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.contribtracker.database;
+
+import java.util.List;
+
+/**
+ * 一页贡献列表及其前后翻页游标
+ */
+public class ContributionPage {
+    private final List<Contribution> contributions;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    public ContributionPage(List<Contribution> contributions, boolean hasPrevious, boolean hasNext) {
+        this.contributions = contributions;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<Contribution> getContributions() {
+        return contributions;
+    }
+
+    public boolean isEmpty() {
+        return contributions.isEmpty();
+    }
+
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * 本页第一条贡献的游标，用于向前翻页
+     * @return 游标，本页为空时返回null
+     */
+    public ContributionCursor getFirstCursor() {
+        return contributions.isEmpty() ? null : ContributionCursor.of(contributions.get(0));
+    }
+
+    /**
+     * 本页最后一条贡献的游标，用于向后翻页
+     * @return 游标，本页为空时返回null
+     */
+    public ContributionCursor getLastCursor() {
+        return contributions.isEmpty() ? null : ContributionCursor.of(contributions.get(contributions.size() - 1));
+    }
+}
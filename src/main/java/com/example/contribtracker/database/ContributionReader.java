@@ -0,0 +1,18 @@
+package com.example.contribtracker.database;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 逐条读取导入文件中的贡献
+ * 每次只读取一条贡献及其贡献者，导入任意大小的文件时内存占用不变。
+ * 格式见 {@link ContributionTransfer}。
+ */
+public interface ContributionReader extends Closeable {
+    /**
+     * 读取下一条贡献
+     * @return 带有贡献者列表的贡献，ID为文件中的原始ID；没有更多贡献时返回null
+     * @throws IOException 如果读取失败或文件内容有误，异常信息包含出错的行号
+     */
+    Contribution next() throws IOException;
+}
@@ -0,0 +1,336 @@
+package com.example.contribtracker.database;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 贡献数据的存取接口
+ * 命令、权限检查和WebSocket只通过此接口读写贡献，不依赖具体的存储方式。
+ * 默认实现 {@link SqliteContributionRepository} 把数据保存在SQLite中，
+ * {@link InMemoryContributionRepository} 只保存在内存中，用于基准测试和测试，
+ * {@link JournalContributionRepository} 在内存数据之外把修改写入内存映射的日志文件。
+ *
+ * 同步查询方法可以在任意线程调用；修改方法返回的Future在修改生效后完成，失败时以SQLException异常完成。
+ * 带Async后缀的查询通过 {@link #supplyAsync} 执行，调用方应在回调中通过 server.execute 回到服务器主线程再操作游戏对象。
+ */
+public interface ContributionRepository {
+    /**
+     * 检查数据是否已经可以读写
+     */
+    boolean isReady();
+
+    /**
+     * 打开存储并加载数据，在调用其他方法之前调用
+     * @throws SQLException 如果存储无法打开
+     */
+    default void initialize() throws SQLException {
+    }
+
+    /**
+     * 等待已提交的修改写完后释放资源
+     * @throws SQLException 如果关闭时写入失败
+     */
+    default void close() throws SQLException {
+    }
+
+    // ==================== 贡献查询 ====================
+
+    /**
+     * 获取指定ID的贡献
+     * @return 贡献，不存在则返回null
+     */
+    Contribution getContributionById(int id) throws SQLException;
+
+    /**
+     * 根据名称获取贡献
+     * @return 贡献，不存在则返回null
+     */
+    Contribution getContributionByName(String name) throws SQLException;
+
+    /**
+     * 获取所有贡献，按创建时间倒序排列
+     */
+    List<Contribution> getAllContributions() throws SQLException;
+
+    /**
+     * 获取指定创建者的所有贡献，按创建时间倒序排列
+     */
+    List<Contribution> getAllContributionsByCreator(UUID creatorUuid) throws SQLException;
+
+    /**
+     * 获取游标之后的一页贡献（按创建时间倒序）
+     * @param after 上一页最后一条贡献的游标，为null时返回第一页
+     */
+    ContributionPage getContributionsAfter(ContributionCursor after, int limit) throws SQLException;
+
+    /**
+     * 获取游标之前的一页贡献（按创建时间倒序）
+     * @param before 下一页第一条贡献的游标
+     */
+    ContributionPage getContributionsBefore(ContributionCursor before, int limit) throws SQLException;
+
+    /**
+     * 按页码获取贡献（按创建时间倒序）
+     * 需要从头跳过前面的页，只作为靠前页码的后备方式，最多跳过 {@link ContributionStore#MAX_PAGE_SKIP} 条；
+     * 连续翻页应使用 {@link #getContributionsAfter} 和 {@link #getContributionsBefore}
+     * @param pageNumber 从1开始的页码
+     * @throws IllegalArgumentException 如果页码超出可以跳转的范围
+     */
+    ContributionPage getContributionPage(int pageNumber, int limit) throws SQLException;
+
+    int getContributionCount() throws SQLException;
+
+    /**
+     * 获取贡献总数以及各类型和各世界的贡献数量
+     */
+    ContributionStats getContributionStats() throws SQLException;
+
+    /**
+     * 获取指定世界中坐标落在给定范围内（包含边界）的贡献，按ID升序排列
+     */
+    List<Contribution> getContributionsInBox(String world, double minX, double minY, double minZ,
+                                             double maxX, double maxY, double maxZ) throws SQLException;
+
+    /**
+     * 获取同一世界中指定坐标附近的贡献
+     * @param radius 搜索半径（各轴分别计算）
+     */
+    default List<Contribution> getNearbyContributions(String world, double x, double y, double z, double radius)
+            throws SQLException {
+        return getContributionsInBox(world, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+    }
+
+    /**
+     * 按名称和类型搜索贡献
+     * @param query 搜索文本，按空白拆分为多个词，所有词都需匹配
+     * @return 按相关度排序的贡献列表
+     */
+    List<Contribution> searchContributions(String query, int limit) throws SQLException;
+
+    // ==================== 贡献者查询 ====================
+
+    /**
+     * 获取贡献中的某个贡献者
+     * @return 贡献者信息，不是贡献者时返回null
+     */
+    ContributorInfo getContributorInfo(int contributionId, UUID playerUuid) throws SQLException;
+
+    /**
+     * 获取指定贡献的所有贡献者，按级别和名称排列
+     */
+    List<ContributorInfo> getContributorsByContributionId(int contributionId) throws SQLException;
+
+    int getContributorCount(int contributionId) throws SQLException;
+
+    default boolean isContributor(int contributionId, UUID playerUuid) throws SQLException {
+        return getContributorInfo(contributionId, playerUuid) != null;
+    }
+
+    default boolean isContributionCreator(int contributionId, UUID playerUuid) throws SQLException {
+        Contribution contribution = getContributionById(contributionId);
+        return contribution != null && playerUuid.equals(contribution.getCreatorUuid());
+    }
+
+    default boolean isLevelOneContributor(int contributionId, UUID playerUuid) throws SQLException {
+        ContributorInfo info = getContributorInfo(contributionId, playerUuid);
+        return info != null && info.getLevel() == 1;
+    }
+
+    /**
+     * 获取贡献者的上级
+     * @return 上级贡献者的信息，没有上级时返回null
+     */
+    default ContributorInfo getContributorSuperior(int contributionId, UUID playerUuid) throws SQLException {
+        ContributorInfo info = getContributorInfo(contributionId, playerUuid);
+        if (info == null || info.getInviterUuid() == null) {
+            return null;
+        }
+        return getContributorInfo(contributionId, info.getInviterUuid());
+    }
+
+    /**
+     * 检查一个贡献者是否是另一个贡献者的上级（直接或间接邀请了对方）
+     * @return 同一玩家返回false
+     */
+    boolean isAncestor(int contributionId, UUID ancestorUuid, UUID descendantUuid) throws SQLException;
+
+    /**
+     * 检查管理者是否可以管理目标贡献者：两人都是该贡献的贡献者，且管理者的级别小于目标的级别
+     */
+    default boolean canManageContributor(int contributionId, UUID managerUuid, UUID targetUuid) throws SQLException {
+        ContributorInfo manager = getContributorInfo(contributionId, managerUuid);
+        ContributorInfo target = getContributorInfo(contributionId, targetUuid);
+        return manager != null && target != null && manager.getLevel() < target.getLevel();
+    }
+
+    /**
+     * 获取一个贡献者直接和间接邀请的所有下级，按与上级相隔的层数从近到远排列
+     */
+    List<ContributorInfo> getSubordinates(int contributionId, UUID playerUuid) throws SQLException;
+
+    /**
+     * 获取贡献者在邀请树中的深度
+     * @return 没有上级的贡献者为0，每多一级上级加一；不是贡献者时返回-1
+     */
+    int getContributorDepth(int contributionId, UUID playerUuid) throws SQLException;
+
+    // ==================== 玩家查询 ====================
+
+    /**
+     * 在指定贡献的贡献者中按名称查找玩家
+     * @return 玩家UUID，找不到时返回null
+     */
+    UUID getPlayerUuidByName(String playerName, int contributionId) throws SQLException;
+
+    /**
+     * 查找名称包含指定字符串的玩家（忽略大小写），名称完全相同的排在最前
+     */
+    List<ContributorInfo> findPlayerByName(String playerName) throws SQLException;
+
+    /**
+     * 查找名称与输入相似的玩家，用于输入的名称找不到时给出提示
+     * @return 按相似度排列的玩家信息列表
+     */
+    List<ContributorInfo> findSimilarPlayers(String playerName, int limit) throws SQLException;
+
+    // ==================== 变更日志 ====================
+
+    /**
+     * 获取已同步到查询结果中的变更位置，增量同步的使用者应先读取该位置再读取完整数据
+     */
+    long getChangeLogPosition();
+
+    /**
+     * 读取指定序号之后的变更
+     * @return 变更列表；afterSeq 早于日志保留范围时标记为需要重新读取完整数据
+     */
+    ContributionChanges getChangesSince(long afterSeq, int limit) throws SQLException;
+
+    // ==================== 修改 ====================
+
+    /**
+     * 添加新贡献
+     * @return 添加完成后返回新创建的贡献（包含ID和创建时间）
+     */
+    CompletableFuture<Contribution> addContributionAsync(String name, String type, String gameId,
+                                                         double x, double y, double z, String world,
+                                                         UUID creatorUuid);
+
+    /**
+     * 添加贡献者，级别由邀请者的级别推算
+     * @return 添加完成后返回写入的贡献者信息
+     */
+    CompletableFuture<ContributorInfo> addContributorAsync(int contributionId, UUID playerUuid,
+                                                           String playerName, String note, UUID inviterUuid);
+
+    /**
+     * 删除贡献及其所有贡献者
+     */
+    CompletableFuture<Void> deleteContributionAsync(int contributionId);
+
+    CompletableFuture<Void> deleteContributorAsync(int contributionId, UUID playerUuid);
+
+    /**
+     * 批量导入贡献及其贡献者，逐条读取，不会把整个文件放在内存中
+     * 贡献使用新的ID，创建时间和邀请关系保持不变；失败时已导入的部分保留。会阻塞到导入完成，不应在服务器主线程上调用
+     * @param reader 导入文件，见 {@link ContributionTransfer}
+     * @return 导入的贡献数
+     * @throws SQLException 如果文件内容有误或写入失败
+     */
+    int importContributions(ContributionReader reader) throws SQLException;
+
+    /**
+     * 添加新贡献并等待完成
+     * @return 新创建贡献的ID
+     */
+    default int addContribution(String name, String type, String gameId, double x, double y, double z,
+                                String world, UUID creatorUuid) throws SQLException {
+        return DatabaseFutures.await(addContributionAsync(name, type, gameId, x, y, z, world, creatorUuid)).getId();
+    }
+
+    default int addContribution(Contribution contribution) throws SQLException {
+        return addContribution(
+            contribution.getName(),
+            contribution.getType(),
+            contribution.getGameId(),
+            contribution.getX(),
+            contribution.getY(),
+            contribution.getZ(),
+            contribution.getWorld(),
+            contribution.getCreatorUuid()
+        );
+    }
+
+    default void addContributor(int contributionId, UUID playerUuid, String playerName, String note, UUID inviterUuid)
+            throws SQLException {
+        DatabaseFutures.await(addContributorAsync(contributionId, playerUuid, playerName, note, inviterUuid));
+    }
+
+    default void addContributor(int contributionId, ContributorInfo contributor) throws SQLException {
+        addContributor(contributionId, contributor.getPlayerUuid(), contributor.getPlayerName(), null,
+            contributor.getInviterUuid());
+    }
+
+    default void deleteContribution(int contributionId) throws SQLException {
+        DatabaseFutures.await(deleteContributionAsync(contributionId));
+    }
+
+    default void deleteContributor(int contributionId, UUID playerUuid) throws SQLException {
+        DatabaseFutures.await(deleteContributorAsync(contributionId, playerUuid));
+    }
+
+    // ==================== 异步查询 ====================
+
+    /**
+     * 在数据库线程中执行任意查询，可以组合多个同步查询
+     * @return 查询完成后完成的Future，查询失败时以对应的异常完成
+     */
+    <T> CompletableFuture<T> supplyAsync(DatabaseCall<T> call);
+
+    default CompletableFuture<Contribution> getContributionByIdAsync(int id) {
+        return supplyAsync(() -> getContributionById(id));
+    }
+
+    default CompletableFuture<List<Contribution>> getAllContributionsAsync() {
+        return supplyAsync(this::getAllContributions);
+    }
+
+    default CompletableFuture<ContributionPage> getContributionsAfterAsync(ContributionCursor after, int limit) {
+        return supplyAsync(() -> getContributionsAfter(after, limit));
+    }
+
+    default CompletableFuture<ContributionPage> getContributionsBeforeAsync(ContributionCursor before, int limit) {
+        return supplyAsync(() -> getContributionsBefore(before, limit));
+    }
+
+    default CompletableFuture<ContributionPage> getContributionPageAsync(int pageNumber, int limit) {
+        return supplyAsync(() -> getContributionPage(pageNumber, limit));
+    }
+
+    default CompletableFuture<Integer> getContributionCountAsync() {
+        return supplyAsync(this::getContributionCount);
+    }
+
+    default CompletableFuture<ContributionStats> getContributionStatsAsync() {
+        return supplyAsync(this::getContributionStats);
+    }
+
+    default CompletableFuture<List<Contribution>> getNearbyContributionsAsync(String world, double x, double y,
+                                                                              double z, double radius) {
+        return supplyAsync(() -> getNearbyContributions(world, x, y, z, radius));
+    }
+
+    default CompletableFuture<List<Contribution>> searchContributionsAsync(String query, int limit) {
+        return supplyAsync(() -> searchContributions(query, limit));
+    }
+
+    default CompletableFuture<List<ContributorInfo>> getContributorsByContributionIdAsync(int contributionId) {
+        return supplyAsync(() -> getContributorsByContributionId(contributionId));
+    }
+
+    default CompletableFuture<ContributionChanges> getChangesSinceAsync(long afterSeq, int limit) {
+        return supplyAsync(() -> getChangesSince(afterSeq, limit));
+    }
+}
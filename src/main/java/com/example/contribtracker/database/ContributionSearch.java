@@ -0,0 +1,147 @@
+package com.example.contribtracker.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 贡献全文搜索
+ * 通过 contributions_fts 全文索引按名称和类型搜索贡献，结果按相关度（bm25）排序，
+ * 名称匹配的权重高于类型匹配。只读取索引命中的行，不扫描贡献表。
+ * 少于3个字符的词（例如两个字的中文名称）无法通过 trigram 索引匹配，改用 LIKE 在索引内容上逐行比较，
+ * 这类查询按创建顺序倒序返回，读取到 limit 条结果即停止。
+ */
+public final class ContributionSearch {
+    /** trigram 分词器按3个字符建立索引，更短的词改用 LIKE 匹配 */
+    public static final int MIN_TERM_LENGTH = 3;
+
+    /** 单次搜索最多返回的结果数 */
+    public static final int MAX_RESULTS = 50;
+
+    private static final String MATCH_CONDITION = "contributions_fts MATCH ?";
+    private static final String LIKE_CONDITION = "(name LIKE ? ESCAPE '\\' OR type LIKE ? ESCAPE '\\')";
+    private static final String RANK_ORDER = "bm25(contributions_fts, 10.0, 1.0)";
+    private static final String RECENT_ORDER = "rowid DESC";
+
+    private ContributionSearch() {
+    }
+
+    /**
+     * 搜索贡献
+     * 达到 {@link #MIN_TERM_LENGTH} 个字符的词通过全文索引匹配，更短的词作为 LIKE 条件；
+     * 两类词同时存在时先由索引缩小范围，再逐行检查短词
+     * @param conn 数据库连接
+     * @param query 用户输入的搜索文本，按空白拆分为多个词，所有词都需匹配
+     * @param limit 最多返回的结果数，超过 {@link #MAX_RESULTS} 时按上限处理
+     * @return 贡献ID列表，没有可搜索的词时返回空列表
+     * @throws SQLException 如果查询失败
+     */
+    public static List<Integer> search(Connection conn, String query, int limit) throws SQLException {
+        List<String> terms = splitTerms(query);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String match = toMatchExpression(terms);
+        List<String> shortTerms = new ArrayList<>();
+        for (String term : terms) {
+            if (!isIndexable(term)) {
+                shortTerms.add(term);
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT rowid FROM contributions_fts WHERE ");
+        if (match != null) {
+            sql.append(MATCH_CONDITION);
+        }
+        for (int i = 0; i < shortTerms.size(); i++) {
+            if (match != null || i > 0) {
+                sql.append(" AND ");
+            }
+            sql.append(LIKE_CONDITION);
+        }
+        sql.append(" ORDER BY ").append(match != null ? RANK_ORDER : RECENT_ORDER).append(" LIMIT ?");
+
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (match != null) {
+                pstmt.setString(index++, match);
+            }
+            for (String term : shortTerms) {
+                String pattern = toLikePattern(term);
+                pstmt.setString(index++, pattern);
+                pstmt.setString(index++, pattern);
+            }
+            pstmt.setInt(index, Math.max(1, Math.min(limit, MAX_RESULTS)));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 检查搜索文本中是否有可以搜索的词
+     */
+    public static boolean isSearchable(String query) {
+        return !splitTerms(query).isEmpty();
+    }
+
+    /**
+     * 按空白把搜索文本拆分为词
+     * @return 非空的词，没有时返回空列表
+     */
+    public static List<String> splitTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        for (String term : query.trim().split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 检查词是否足够长，可以通过 trigram 索引匹配
+     */
+    static boolean isIndexable(String term) {
+        return term.codePointCount(0, term.length()) >= MIN_TERM_LENGTH;
+    }
+
+    /**
+     * 把可以通过索引匹配的词转换为FTS5查询表达式
+     * 每个词都作为带引号的字符串处理，用户输入中的运算符和特殊字符不会被解释；
+     * 少于 {@link #MIN_TERM_LENGTH} 个字符的词不在表达式中，由 LIKE 条件匹配
+     * @return 查询表达式，没有足够长的词时返回null
+     */
+    static String toMatchExpression(List<String> terms) {
+        StringBuilder match = new StringBuilder();
+        for (String term : terms) {
+            if (!isIndexable(term)) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(term.replace("\"", "\"\"")).append('"');
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * 把词转换为子串匹配的 LIKE 模式，转义其中的通配符
+     */
+    static String toLikePattern(String term) {
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
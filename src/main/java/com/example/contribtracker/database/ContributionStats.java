@@ -0,0 +1,55 @@
+package com.example.contribtracker.database;
+
+import java.util.Map;
+
+/**
+ * 贡献统计：总数、各类型和各世界的贡献数量以及创建时间范围
+ */
+public class ContributionStats {
+    private final int total;
+    private final Map<String, Integer> byType;
+    private final Map<String, Integer> byWorld;
+    private final long oldestCreatedAt;
+    private final long newestCreatedAt;
+
+    public ContributionStats(int total, Map<String, Integer> byType, Map<String, Integer> byWorld,
+                             long oldestCreatedAt, long newestCreatedAt) {
+        this.total = total;
+        this.byType = byType;
+        this.byWorld = byWorld;
+        this.oldestCreatedAt = oldestCreatedAt;
+        this.newestCreatedAt = newestCreatedAt;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * 各类型的贡献数量，没有贡献的类型不会出现
+     */
+    public Map<String, Integer> getByType() {
+        return byType;
+    }
+
+    /**
+     * 各世界的贡献数量，没有贡献的世界不会出现
+     */
+    public Map<String, Integer> getByWorld() {
+        return byWorld;
+    }
+
+    /**
+     * 最早的贡献创建时间（毫秒），没有贡献时为0
+     */
+    public long getOldestCreatedAt() {
+        return oldestCreatedAt;
+    }
+
+    /**
+     * 最新的贡献创建时间（毫秒），没有贡献时为0
+     */
+    public long getNewestCreatedAt() {
+        return newestCreatedAt;
+    }
+}
@@ -0,0 +1,437 @@
+package com.example.contribtracker.database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 贡献数据的内存模型
+ * 启动时一次性加载全部贡献和贡献者，之后所有读取都直接从内存返回；
+ * 所有修改先写入SQLite，成功后再同步到这里，因此内存中的数据始终与数据库一致。
+ *
+ * 存放在内部的贡献对象一经放入就不再修改，每次变更都会替换成新的副本，
+ * 读取方无需加锁即可拿到一致的快照；对外返回的对象都是副本，调用方可以随意修改。
+ */
+public class ContributionStore {
+    /** 贡献者列表的排序规则，与原先 ORDER BY level ASC, player_name ASC 保持一致 */
+    private static final Comparator<ContributorInfo> CONTRIBUTOR_ORDER = Comparator
+        .comparingInt(ContributorInfo::getLevel)
+        .thenComparing(ContributorInfo::getPlayerName, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /** 贡献列表的排序规则：按创建时间倒序，时间相同时按ID倒序 */
+    private static final Comparator<Contribution> NEWEST_FIRST = Comparator
+        .comparingLong(Contribution::getCreatedAt).reversed()
+        .thenComparing(Comparator.comparingInt(Contribution::getId).reversed());
+
+    /** 按页码跳转时最多跳过的条目数 */
+    public static final int MAX_PAGE_SKIP = 1000;
+
+    private final Map<Integer, Contribution> contributions = new ConcurrentHashMap<>();
+    private final SpatialIndex spatialIndex = new SpatialIndex();
+    private final PlayerNameIndex playerNames = new PlayerNameIndex();
+    // 坐标、世界、类型和创建时间的列式快照，用于范围过滤和统计
+    private final ContributionColumns columns = new ContributionColumns();
+    // 按 (createdAt, id) 倒序排列的有序索引，用于列表和键集分页
+    private final NavigableSet<ContributionCursor> order = new ConcurrentSkipListSet<>();
+    private volatile boolean loaded = false;
+
+    /**
+     * 用数据库中的完整数据替换内存内容
+     * @param all 所有贡献（包含贡献者列表）
+     */
+    public synchronized void load(Collection<Contribution> all) {
+        contributions.clear();
+        spatialIndex.clear();
+        playerNames.clear();
+        columns.clear();
+        order.clear();
+        for (Contribution contribution : all) {
+            Contribution stored = contribution.copy();
+            sortAndDerive(stored);
+            contributions.put(stored.getId(), stored);
+            spatialIndex.add(stored.getWorld(), stored.getX(), stored.getZ(), stored.getId());
+            addPlayerNames(stored);
+            columns.put(stored);
+            order.add(ContributionCursor.of(stored));
+        }
+        loaded = true;
+    }
+
+    /**
+     * 清空内存数据，之后的读取会被视为未初始化
+     */
+    public synchronized void clear() {
+        contributions.clear();
+        spatialIndex.clear();
+        playerNames.clear();
+        columns.clear();
+        order.clear();
+        loaded = false;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return contributions.size();
+    }
+
+    /**
+     * 获取指定ID的贡献
+     * @param id 贡献ID
+     * @return 贡献副本，不存在则返回null
+     */
+    public Contribution get(int id) {
+        Contribution contribution = contributions.get(id);
+        return contribution != null ? contribution.copy() : null;
+    }
+
+    /**
+     * 获取所有贡献，按创建时间倒序排列
+     * @return 贡献副本列表
+     */
+    public List<Contribution> getAll() {
+        List<Contribution> result = new ArrayList<>(contributions.size());
+        for (ContributionCursor cursor : order) {
+            Contribution contribution = contributions.get(cursor.getId());
+            if (contribution != null) {
+                result.add(contribution.copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取游标之后（更旧）的一页贡献
+     * @param after 上一页最后一条贡献的游标，为null时从最新的贡献开始
+     * @param limit 每页数量
+     * @return 分页结果
+     */
+    public ContributionPage getPageAfter(ContributionCursor after, int limit) {
+        NavigableSet<ContributionCursor> range = after == null ? order : order.tailSet(after, false);
+        List<Contribution> page = collect(range, limit);
+        return toPage(page);
+    }
+
+    /**
+     * 获取游标之前（更新）的一页贡献
+     * @param before 下一页第一条贡献的游标
+     * @param limit 每页数量
+     * @return 分页结果，仍按从新到旧排列
+     */
+    public ContributionPage getPageBefore(ContributionCursor before, int limit) {
+        List<Contribution> page = collect(order.headSet(before, false).descendingSet(), limit);
+        Collections.reverse(page);
+        return toPage(page);
+    }
+
+    /**
+     * 按页码获取贡献
+     * 有序索引不支持按位置定位，页码跳转需要从头跳过前面的条目，开销随页码线性增长，
+     * 因此只作为靠前页码的后备方式，跳过的条目数不超过 {@link #MAX_PAGE_SKIP}；
+     * 连续翻页应使用 {@link #getPageAfter} 和 {@link #getPageBefore}，开销与页码无关
+     * @param pageNumber 从1开始的页码
+     * @param limit 每页数量
+     * @return 分页结果
+     * @throws IllegalArgumentException 如果需要跳过的条目数超过 {@link #MAX_PAGE_SKIP}
+     */
+    public ContributionPage getPage(int pageNumber, int limit) {
+        ContributionCursor after = null;
+        long skip = (long) (pageNumber - 1) * limit;
+        if (skip > MAX_PAGE_SKIP) {
+            throw new IllegalArgumentException("页码跳转最多跳过 " + MAX_PAGE_SKIP + " 条贡献，更靠后的页请使用游标翻页");
+        }
+        Iterator<ContributionCursor> iterator = order.iterator();
+        while (skip > 0 && iterator.hasNext()) {
+            after = iterator.next();
+            skip--;
+        }
+        if (skip > 0) {
+            return new ContributionPage(new ArrayList<>(), false, false);
+        }
+        return getPageAfter(after, limit);
+    }
+
+    private List<Contribution> collect(NavigableSet<ContributionCursor> range, int limit) {
+        List<Contribution> result = new ArrayList<>(limit);
+        for (ContributionCursor cursor : range) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Contribution contribution = contributions.get(cursor.getId());
+            if (contribution != null) {
+                result.add(contribution.copy());
+            }
+        }
+        return result;
+    }
+
+    private ContributionPage toPage(List<Contribution> page) {
+        if (page.isEmpty()) {
+            return new ContributionPage(page, false, false);
+        }
+        boolean hasPrevious = order.lower(ContributionCursor.of(page.get(0))) != null;
+        boolean hasNext = order.higher(ContributionCursor.of(page.get(page.size() - 1))) != null;
+        return new ContributionPage(page, hasPrevious, hasNext);
+    }
+
+    /**
+     * 获取指定创建者的所有贡献，按创建时间倒序排列
+     * @param creatorUuid 创建者UUID
+     * @return 贡献副本列表
+     */
+    public List<Contribution> getByCreator(UUID creatorUuid) {
+        List<Contribution> result = new ArrayList<>();
+        for (Contribution contribution : contributions.values()) {
+            if (creatorUuid.equals(contribution.getCreatorUuid())) {
+                result.add(contribution.copy());
+            }
+        }
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+
+    /**
+     * 根据名称查找贡献
+     * @param name 贡献名称
+     * @return 第一个名称完全匹配的贡献副本，不存在则返回null
+     */
+    public Contribution findByName(String name) {
+        Contribution match = null;
+        for (Contribution contribution : contributions.values()) {
+            if (name.equals(contribution.getName()) && (match == null || contribution.getId() < match.getId())) {
+                match = contribution;
+            }
+        }
+        return match != null ? match.copy() : null;
+    }
+
+    /**
+     * 查找同一世界中坐标落在给定范围内（包含边界）的贡献
+     * 坐标比较都在列式快照上完成，只有命中的贡献才会复制；
+     * 范围较小时通过空间索引只检查与范围相交的单元，范围覆盖了大部分单元时直接顺序扫描全部列
+     * @return 按ID升序排列的贡献副本列表
+     */
+    public List<Contribution> findInBox(String world, double minX, double minY, double minZ,
+                                        double maxX, double maxY, double maxZ) {
+        int[] ids = spatialIndex.isWideRange(world, minX, minZ, maxX, maxZ)
+            ? columns.findInBox(world, minX, minY, minZ, maxX, maxY, maxZ)
+            : columns.filterInBox(spatialIndex.candidates(world, minX, minZ, maxX, maxZ),
+                minX, minY, minZ, maxX, maxY, maxZ);
+        List<Contribution> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Contribution contribution = contributions.get(id);
+            if (contribution != null) {
+                result.add(contribution.copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 统计贡献总数、各类型和各世界的数量，只扫描列式快照，不访问贡献对象
+     */
+    public ContributionStats getStats() {
+        return columns.stats();
+    }
+
+    /**
+     * 获取贡献中的某个贡献者
+     * @return 贡献者信息副本，不存在则返回null
+     */
+    public ContributorInfo getContributor(int contributionId, UUID playerUuid) {
+        Contribution contribution = contributions.get(contributionId);
+        if (contribution == null) {
+            return null;
+        }
+        for (ContributorInfo info : contribution.getContributorList()) {
+            if (playerUuid.equals(info.getPlayerUuid())) {
+                return info.copy();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取贡献的所有贡献者，按级别和名称排序
+     */
+    public List<ContributorInfo> getContributors(int contributionId) {
+        List<ContributorInfo> result = new ArrayList<>();
+        Contribution contribution = contributions.get(contributionId);
+        if (contribution != null) {
+            for (ContributorInfo info : contribution.getContributorList()) {
+                result.add(info.copy());
+            }
+        }
+        return result;
+    }
+
+    public int getContributorCount(int contributionId) {
+        Contribution contribution = contributions.get(contributionId);
+        return contribution != null ? contribution.getContributorList().size() : 0;
+    }
+
+    /**
+     * 在指定贡献中根据玩家名称查找UUID
+     */
+    public UUID findPlayerUuid(int contributionId, String playerName) {
+        Contribution contribution = contributions.get(contributionId);
+        if (contribution == null) {
+            return null;
+        }
+        for (ContributorInfo info : contribution.getContributorList()) {
+            if (playerName.equals(info.getPlayerName())) {
+                return info.getPlayerUuid();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在所有贡献者中查找名称包含指定字符串的玩家（忽略大小写，与SQLite的LIKE行为一致）
+     * 通过玩家名称索引查找，名称完全相同的排在最前
+     * @return 每个玩家只出现一次的列表，只包含UUID和名称
+     */
+    public List<ContributorInfo> findPlayersByName(String playerName) {
+        return playerNames.findContaining(playerName);
+    }
+
+    /**
+     * 在所有贡献者中查找名称与指定字符串相似的玩家
+     * @param limit 最多返回的数量
+     * @return 按相似度排列、每个玩家只出现一次的列表，只包含UUID和名称
+     */
+    public List<ContributorInfo> findSimilarPlayers(String playerName, int limit) {
+        return playerNames.findSimilar(playerName, limit);
+    }
+
+    /**
+     * 计算新贡献者的级别：没有邀请者为一级，否则为邀请者级别加一；
+     * 邀请者不在贡献中时为0，与原先SQL子查询返回NULL时读出的值一致
+     */
+    public int computeLevel(int contributionId, UUID inviterUuid) {
+        if (inviterUuid == null) {
+            return 1;
+        }
+        ContributorInfo inviter = getContributor(contributionId, inviterUuid);
+        return inviter != null ? inviter.getLevel() + 1 : 0;
+    }
+
+    /**
+     * 放入新贡献或替换已有贡献
+     */
+    public synchronized void putContribution(Contribution contribution) {
+        Contribution stored = contribution.copy();
+        sortAndDerive(stored);
+        Contribution previous = contributions.put(stored.getId(), stored);
+        if (previous != null) {
+            spatialIndex.remove(previous.getWorld(), previous.getX(), previous.getZ(), previous.getId());
+            removePlayerNames(previous);
+            order.remove(ContributionCursor.of(previous));
+        }
+        spatialIndex.add(stored.getWorld(), stored.getX(), stored.getZ(), stored.getId());
+        addPlayerNames(stored);
+        columns.put(stored);
+        order.add(ContributionCursor.of(stored));
+    }
+
+    public synchronized void removeContribution(int contributionId) {
+        Contribution removed = contributions.remove(contributionId);
+        if (removed != null) {
+            spatialIndex.remove(removed.getWorld(), removed.getX(), removed.getZ(), removed.getId());
+            removePlayerNames(removed);
+            columns.remove(removed.getId());
+            order.remove(ContributionCursor.of(removed));
+        }
+    }
+
+    /**
+     * 添加或替换贡献中的某个贡献者
+     */
+    public synchronized void putContributor(int contributionId, ContributorInfo contributor) {
+        Contribution current = contributions.get(contributionId);
+        if (current == null) {
+            return;
+        }
+        Contribution updated = current.copy();
+        ContributorInfo added = contributor.copy();
+        added.setContributionId(contributionId);
+        updated.getContributorList().removeIf(info -> {
+            if (added.getPlayerUuid().equals(info.getPlayerUuid())) {
+                playerNames.remove(info.getPlayerUuid(), info.getPlayerName());
+                return true;
+            }
+            return false;
+        });
+        updated.getContributorList().add(added);
+        playerNames.add(added.getPlayerUuid(), added.getPlayerName());
+        sortAndDerive(updated);
+        contributions.put(contributionId, updated);
+    }
+
+    public synchronized void removeContributor(int contributionId, UUID playerUuid) {
+        Contribution current = contributions.get(contributionId);
+        if (current == null) {
+            return;
+        }
+        Contribution updated = current.copy();
+        if (updated.getContributorList().removeIf(info -> {
+            if (playerUuid.equals(info.getPlayerUuid())) {
+                playerNames.remove(info.getPlayerUuid(), info.getPlayerName());
+                return true;
+            }
+            return false;
+        })) {
+            sortAndDerive(updated);
+            contributions.put(contributionId, updated);
+        }
+    }
+
+    private void addPlayerNames(Contribution contribution) {
+        for (ContributorInfo info : contribution.getContributorList()) {
+            playerNames.add(info.getPlayerUuid(), info.getPlayerName());
+        }
+    }
+
+    private void removePlayerNames(Contribution contribution) {
+        for (ContributorInfo info : contribution.getContributorList()) {
+            playerNames.remove(info.getPlayerUuid(), info.getPlayerName());
+        }
+    }
+
+    /**
+     * 排序贡献者列表，并重新计算由贡献者派生出的字段（贡献者名称串和创建者名称）
+     */
+    static void sortAndDerive(Contribution contribution) {
+        List<ContributorInfo> contributors = contribution.getContributorList();
+        if (contributors == null) {
+            contributors = new ArrayList<>();
+            contribution.setContributorList(contributors);
+        }
+        contributors.sort(CONTRIBUTOR_ORDER);
+
+        StringBuilder names = new StringBuilder();
+        String creatorName = null;
+        for (ContributorInfo info : contributors) {
+            info.setContributionId(contribution.getId());
+            if (names.length() > 0) {
+                names.append(',');
+            }
+            names.append(info.getPlayerName());
+            if (info.getPlayerUuid() != null && info.getPlayerUuid().equals(contribution.getCreatorUuid())) {
+                creatorName = info.getPlayerName();
+            }
+        }
+        contribution.setContributors(names.length() > 0 ? names.toString() : null);
+        contribution.setCreatorName(creatorName);
+    }
+}
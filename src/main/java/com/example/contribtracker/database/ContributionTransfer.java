@@ -0,0 +1,571 @@
+package com.example.contribtracker.database;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 贡献的批量导入和导出
+ * 支持两种格式，都可以逐条读写，不需要把整个文件或全部贡献放在内存中：
+ * - JSONL：每行一个JSON对象，包含贡献的所有字段和 contributors 数组
+ * - CSV：每个贡献者一行，贡献的字段在该贡献的每一行中重复；没有贡献者的贡献占一行，贡献者字段为空。
+ *   同一贡献的各行必须相邻，便于在表格软件中编辑
+ *
+ * 导入时贡献使用新的ID，文件中的ID只用于区分CSV中属于不同贡献的行；创建时间和邀请关系保持不变。
+ */
+public final class ContributionTransfer {
+    /** 导出时每次从存储读取的贡献数 */
+    static final int EXPORT_PAGE_SIZE = 500;
+
+    static final String[] CSV_HEADER = {
+        "contribution_id", "name", "type", "game_id", "x", "y", "z", "world", "creator_uuid", "created_at",
+        "player_uuid", "player_name", "level", "inviter_uuid"
+    };
+
+    /**
+     * 导入导出文件格式，由文件扩展名决定
+     */
+    public enum Format {
+        JSONL("jsonl"),
+        CSV("csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * 按文件扩展名判断格式
+         * @return 格式，扩展名不受支持时返回null
+         */
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (lower.endsWith("." + format.extension)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    private ContributionTransfer() {
+    }
+
+    /**
+     * 按游标逐页导出全部贡献，从新到旧排列，每次只读取一页
+     * @param repository 贡献存储
+     * @param writer 导出文件
+     * @return 导出的贡献数
+     * @throws SQLException 如果读取贡献失败
+     * @throws IOException 如果写入文件失败
+     */
+    public static int export(ContributionRepository repository, ContributionWriter writer) throws SQLException, IOException {
+        int count = 0;
+        ContributionCursor cursor = null;
+        ContributionPage page;
+        do {
+            page = repository.getContributionsAfter(cursor, EXPORT_PAGE_SIZE);
+            for (Contribution contribution : page.getContributions()) {
+                writer.write(contribution);
+                count++;
+            }
+            cursor = page.getLastCursor();
+        } while (page.hasNext() && cursor != null);
+        return count;
+    }
+
+    public static ContributionWriter newWriter(Format format, Writer out) {
+        return format == Format.CSV ? new CsvWriter(out) : new JsonlWriter(out);
+    }
+
+    public static ContributionReader newReader(Format format, BufferedReader in) {
+        return format == Format.CSV ? new CsvReader(in) : new JsonlReader(in);
+    }
+
+    /**
+     * 列出目录中可以导入的文件，按名称排序
+     */
+    public static List<String> listFiles(File directory) {
+        List<String> names = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return names;
+        }
+        for (File file : files) {
+            if (file.isFile() && Format.fromFileName(file.getName()) != null) {
+                names.add(file.getName());
+            }
+        }
+        names.sort(Comparator.naturalOrder());
+        return names;
+    }
+
+    /**
+     * 按名称查找要导入的文件，只接受 {@link #listFiles} 返回的名称
+     * @throws SQLException 如果文件不存在或格式不受支持
+     */
+    public static File resolve(File directory, String name) throws SQLException {
+        if (!listFiles(directory).contains(name)) {
+            throw new SQLException("找不到导入文件：" + name);
+        }
+        return new File(directory, name);
+    }
+
+    /**
+     * 读取下一条贡献，把读取错误转换为SQLException，供导入实现使用
+     */
+    static Contribution next(ContributionReader reader) throws SQLException {
+        try {
+            return reader.next();
+        } catch (IOException e) {
+            throw new SQLException("读取导入文件失败：" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 贡献者的写入顺序：邀请者总是先于被邀请者，不依赖文件中的级别是否正确
+     * 邀请者不在该贡献中的贡献者可以直接写入；存在循环邀请时剩余的贡献者按原顺序放在最后
+     */
+    static List<ContributorInfo> insertionOrder(Contribution contribution) {
+        List<ContributorInfo> remaining = new ArrayList<>();
+        if (contribution.getContributorList() != null) {
+            remaining.addAll(contribution.getContributorList());
+        }
+        Set<UUID> present = new HashSet<>();
+        for (ContributorInfo contributor : remaining) {
+            present.add(contributor.getPlayerUuid());
+        }
+
+        List<ContributorInfo> ordered = new ArrayList<>(remaining.size());
+        Set<UUID> placed = new HashSet<>();
+        boolean progress = true;
+        while (!remaining.isEmpty() && progress) {
+            progress = false;
+            Iterator<ContributorInfo> iterator = remaining.iterator();
+            while (iterator.hasNext()) {
+                ContributorInfo contributor = iterator.next();
+                UUID inviterUuid = contributor.getInviterUuid();
+                if (inviterUuid == null || !present.contains(inviterUuid) || placed.contains(inviterUuid)) {
+                    ordered.add(contributor);
+                    placed.add(contributor.getPlayerUuid());
+                    iterator.remove();
+                    progress = true;
+                }
+            }
+        }
+        ordered.addAll(remaining);
+        return ordered;
+    }
+
+    // ==================== JSONL ====================
+
+    private static final class JsonlWriter implements ContributionWriter {
+        private final Writer out;
+
+        private JsonlWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(Contribution contribution) throws IOException {
+            // 每行是一个独立的JSON文档，JsonWriter不缓冲，不需要关闭
+            JsonWriter json = new JsonWriter(out);
+            json.beginObject();
+            json.name("id").value(contribution.getId());
+            json.name("name").value(contribution.getName());
+            json.name("type").value(contribution.getType());
+            json.name("gameId").value(contribution.getGameId());
+            json.name("x").value(contribution.getX());
+            json.name("y").value(contribution.getY());
+            json.name("z").value(contribution.getZ());
+            json.name("world").value(contribution.getWorld());
+            json.name("creatorUuid").value(toString(contribution.getCreatorUuid()));
+            json.name("createdAt").value(contribution.getCreatedAt());
+            json.name("contributors").beginArray();
+            if (contribution.getContributorList() != null) {
+                for (ContributorInfo contributor : contribution.getContributorList()) {
+                    json.beginObject();
+                    json.name("playerUuid").value(toString(contributor.getPlayerUuid()));
+                    json.name("playerName").value(contributor.getPlayerName());
+                    json.name("level").value(contributor.getLevel());
+                    json.name("inviterUuid").value(toString(contributor.getInviterUuid()));
+                    json.endObject();
+                }
+            }
+            json.endArray();
+            json.endObject();
+            out.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private static String toString(UUID uuid) {
+            return uuid == null ? null : uuid.toString();
+        }
+    }
+
+    private static final class JsonlReader implements ContributionReader {
+        private final BufferedReader in;
+        private int lineNumber = 0;
+
+        private JsonlReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Contribution next() throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    try {
+                        return parse(JsonParser.parseString(line).getAsJsonObject());
+                    } catch (RuntimeException e) {
+                        throw new IOException("第 " + lineNumber + " 行格式错误：" + e.getMessage(), e);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static Contribution parse(JsonObject json) {
+            Contribution contribution = new Contribution();
+            contribution.setId(json.get("id").getAsInt());
+            contribution.setName(requireString(json, "name"));
+            contribution.setType(requireString(json, "type"));
+            contribution.setGameId(optionalString(json, "gameId"));
+            contribution.setX(json.get("x").getAsDouble());
+            contribution.setY(json.get("y").getAsDouble());
+            contribution.setZ(json.get("z").getAsDouble());
+            contribution.setWorld(requireString(json, "world"));
+            contribution.setCreatorUuid(UUID.fromString(requireString(json, "creatorUuid")));
+            JsonElement createdAt = json.get("createdAt");
+            contribution.setCreatedAt(createdAt == null || createdAt.isJsonNull() ? 0 : createdAt.getAsLong());
+
+            List<ContributorInfo> contributors = new ArrayList<>();
+            JsonElement array = json.get("contributors");
+            if (array != null && !array.isJsonNull()) {
+                for (JsonElement element : array.getAsJsonArray()) {
+                    JsonObject item = element.getAsJsonObject();
+                    ContributorInfo contributor = new ContributorInfo();
+                    contributor.setPlayerUuid(UUID.fromString(requireString(item, "playerUuid")));
+                    contributor.setPlayerName(requireString(item, "playerName"));
+                    JsonElement level = item.get("level");
+                    contributor.setLevel(level == null || level.isJsonNull() ? 1 : level.getAsInt());
+                    String inviter = optionalString(item, "inviterUuid");
+                    contributor.setInviterUuid(inviter == null ? null : UUID.fromString(inviter));
+                    contributors.add(contributor);
+                }
+            }
+            contribution.setContributorList(contributors);
+            return contribution;
+        }
+
+        private static String requireString(JsonObject json, String key) {
+            String value = optionalString(json, key);
+            if (value == null) {
+                throw new IllegalArgumentException("缺少 " + key);
+            }
+            return value;
+        }
+
+        private static String optionalString(JsonObject json, String key) {
+            JsonElement value = json.get(key);
+            return value == null || value.isJsonNull() ? null : value.getAsString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // ==================== CSV ====================
+
+    private static final class CsvWriter implements ContributionWriter {
+        private final Writer out;
+        private final String[] row = new String[CSV_HEADER.length];
+        private boolean headerWritten = false;
+
+        private CsvWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(Contribution contribution) throws IOException {
+            writeHeader();
+            row[0] = String.valueOf(contribution.getId());
+            row[1] = contribution.getName();
+            row[2] = contribution.getType();
+            row[3] = contribution.getGameId();
+            row[4] = String.valueOf(contribution.getX());
+            row[5] = String.valueOf(contribution.getY());
+            row[6] = String.valueOf(contribution.getZ());
+            row[7] = contribution.getWorld();
+            row[8] = toString(contribution.getCreatorUuid());
+            row[9] = Instant.ofEpochMilli(contribution.getCreatedAt()).toString();
+
+            List<ContributorInfo> contributors = contribution.getContributorList();
+            if (contributors == null || contributors.isEmpty()) {
+                for (int i = 10; i < row.length; i++) {
+                    row[i] = null;
+                }
+                writeRow(row);
+                return;
+            }
+            for (ContributorInfo contributor : contributors) {
+                row[10] = toString(contributor.getPlayerUuid());
+                row[11] = contributor.getPlayerName();
+                row[12] = String.valueOf(contributor.getLevel());
+                row[13] = toString(contributor.getInviterUuid());
+                writeRow(row);
+            }
+        }
+
+        private void writeRow(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                        || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    out.write('"');
+                    out.write(value.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(value);
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void writeHeader() throws IOException {
+            if (!headerWritten) {
+                headerWritten = true;
+                writeRow(CSV_HEADER);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            // 没有任何贡献时也写出表头
+            writeHeader();
+            out.close();
+        }
+
+        private static String toString(UUID uuid) {
+            return uuid == null ? null : uuid.toString();
+        }
+    }
+
+    private static final class CsvReader implements ContributionReader {
+        private final BufferedReader in;
+        private final StringBuilder field = new StringBuilder();
+        private int lineNumber = 0;
+        private boolean headerRead = false;
+        /** 已读取但属于下一条贡献的行 */
+        private List<String> pending;
+        private int pendingLine;
+
+        private CsvReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Contribution next() throws IOException {
+            if (!headerRead) {
+                headerRead = true;
+                List<String> header = readRow();
+                if (header == null) {
+                    return null;
+                }
+                if (header.isEmpty() || !CSV_HEADER[0].equals(stripBom(header.get(0)))) {
+                    throw new IOException("第 1 行应为表头 " + String.join(",", CSV_HEADER));
+                }
+            }
+
+            List<String> first = pending != null ? pending : readRow();
+            int firstLine = pending != null ? pendingLine : lineNumber;
+            pending = null;
+            if (first == null) {
+                return null;
+            }
+
+            Contribution contribution;
+            try {
+                contribution = parseContribution(first);
+                List<ContributorInfo> contributors = new ArrayList<>();
+                addContributor(contributors, first);
+                contribution.setContributorList(contributors);
+            } catch (RuntimeException e) {
+                throw new IOException("第 " + firstLine + " 行格式错误：" + e.getMessage(), e);
+            }
+
+            // 同一贡献的后续行只读取贡献者字段
+            List<String> row;
+            while ((row = readRow()) != null) {
+                if (!String.valueOf(contribution.getId()).equals(row.get(0).trim())) {
+                    pending = row;
+                    pendingLine = lineNumber;
+                    break;
+                }
+                try {
+                    addContributor(contribution.getContributorList(), row);
+                } catch (RuntimeException e) {
+                    throw new IOException("第 " + lineNumber + " 行格式错误：" + e.getMessage(), e);
+                }
+            }
+            return contribution;
+        }
+
+        private static Contribution parseContribution(List<String> row) {
+            if (row.size() < CSV_HEADER.length) {
+                throw new IllegalArgumentException("应有 " + CSV_HEADER.length + " 列，实际为 " + row.size() + " 列");
+            }
+            Contribution contribution = new Contribution();
+            contribution.setId(Integer.parseInt(row.get(0).trim()));
+            contribution.setName(require(row, 1));
+            contribution.setType(require(row, 2));
+            contribution.setGameId(optional(row, 3));
+            contribution.setX(Double.parseDouble(require(row, 4)));
+            contribution.setY(Double.parseDouble(require(row, 5)));
+            contribution.setZ(Double.parseDouble(require(row, 6)));
+            contribution.setWorld(require(row, 7));
+            contribution.setCreatorUuid(UUID.fromString(require(row, 8).trim()));
+            String createdAt = optional(row, 9);
+            try {
+                contribution.setCreatedAt(createdAt == null ? 0 : Instant.parse(createdAt.trim()).toEpochMilli());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("created_at 应为ISO-8601时间，例如 2024-01-01T00:00:00Z");
+            }
+            return contribution;
+        }
+
+        private static void addContributor(List<ContributorInfo> contributors, List<String> row) {
+            if (row.size() < CSV_HEADER.length) {
+                throw new IllegalArgumentException("应有 " + CSV_HEADER.length + " 列，实际为 " + row.size() + " 列");
+            }
+            String playerUuid = optional(row, 10);
+            if (playerUuid == null) {
+                return;
+            }
+            ContributorInfo contributor = new ContributorInfo();
+            contributor.setPlayerUuid(UUID.fromString(playerUuid.trim()));
+            contributor.setPlayerName(require(row, 11));
+            String level = optional(row, 12);
+            contributor.setLevel(level == null ? 1 : Integer.parseInt(level.trim()));
+            String inviterUuid = optional(row, 13);
+            contributor.setInviterUuid(inviterUuid == null ? null : UUID.fromString(inviterUuid.trim()));
+            contributors.add(contributor);
+        }
+
+        private static String require(List<String> row, int column) {
+            String value = optional(row, column);
+            if (value == null) {
+                throw new IllegalArgumentException("缺少 " + CSV_HEADER[column]);
+            }
+            return value;
+        }
+
+        private static String optional(List<String> row, int column) {
+            String value = row.get(column);
+            return value.isEmpty() ? null : value;
+        }
+
+        private static String stripBom(String value) {
+            return value.startsWith("\uFEFF") ? value.substring(1) : value;
+        }
+
+        /**
+         * 读取一行记录，带引号的字段中可以包含逗号、引号和换行
+         * @return 字段列表，文件结束时返回null；空行被跳过
+         */
+        private List<String> readRow() throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+            } while (line.isEmpty());
+
+            List<String> fields = new ArrayList<>(CSV_HEADER.length);
+            field.setLength(0);
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // 带引号的字段跨行
+                    line = in.readLine();
+                    if (line == null) {
+                        throw new IOException("第 " + lineNumber + " 行的引号没有闭合");
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.contribtracker.database;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 逐条写出贡献到导出文件
+ * 格式见 {@link ContributionTransfer}。
+ */
+public interface ContributionWriter extends Closeable {
+    /**
+     * 写出一条贡献及其贡献者
+     * @throws IOException 如果写入失败
+     */
+    void write(Contribution contribution) throws IOException;
+}
@@ -0,0 +1,97 @@
+package com.example.contribtracker.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 邀请关系查询
+ * 基于 contributor_closure 闭包表，祖先判断、下级列表和层级查询都是一次索引查找，
+ * 不需要沿 inviter_uuid 逐级递归。闭包表由触发器维护，见 {@link SchemaMigrations}。
+ */
+public final class ContributorHierarchy {
+    static final String IS_ANCESTOR_SQL = """
+        SELECT 1 FROM contributor_closure
+        WHERE contribution_id = ? AND ancestor_uuid = ? AND descendant_uuid = ? AND depth > 0
+    """;
+
+    static final String DESCENDANTS_SQL = """
+        SELECT descendant_uuid, depth FROM contributor_closure
+        WHERE contribution_id = ? AND ancestor_uuid = ? AND depth > 0
+        ORDER BY depth
+    """;
+
+    static final String DEPTH_SQL = """
+        SELECT MAX(depth) FROM contributor_closure
+        WHERE contribution_id = ? AND descendant_uuid = ?
+    """;
+
+    private ContributorHierarchy() {
+    }
+
+    /**
+     * 检查一个贡献者是否是另一个贡献者的上级（直接或间接邀请了对方）
+     * @param contributionId 贡献ID
+     * @param ancestorUuid 可能的上级
+     * @param descendantUuid 可能的下级
+     * @return 如果ancestorUuid是descendantUuid的上级则返回true，同一玩家返回false
+     * @throws SQLException 如果查询失败
+     */
+    public static boolean isAncestor(Connection conn, int contributionId, UUID ancestorUuid, UUID descendantUuid)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(IS_ANCESTOR_SQL)) {
+            pstmt.setInt(1, contributionId);
+            UuidCodec.bind(pstmt, 2, ancestorUuid);
+            UuidCodec.bind(pstmt, 3, descendantUuid);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * 获取一个贡献者直接和间接邀请的所有下级
+     * @param contributionId 贡献ID
+     * @param ancestorUuid 上级的UUID
+     * @return 下级UUID列表，按与上级相隔的层数从近到远排列
+     * @throws SQLException 如果查询失败
+     */
+    public static List<UUID> getDescendants(Connection conn, int contributionId, UUID ancestorUuid) throws SQLException {
+        List<UUID> descendants = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(DESCENDANTS_SQL)) {
+            pstmt.setInt(1, contributionId);
+            UuidCodec.bind(pstmt, 2, ancestorUuid);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    descendants.add(UuidCodec.read(rs, "descendant_uuid"));
+                }
+            }
+        }
+        return descendants;
+    }
+
+    /**
+     * 获取贡献者在邀请树中的深度
+     * @param contributionId 贡献ID
+     * @param playerUuid 玩家UUID
+     * @return 没有上级的贡献者为0，每多一级上级加一；不是贡献者时返回-1
+     * @throws SQLException 如果查询失败
+     */
+    public static int getDepth(Connection conn, int contributionId, UUID playerUuid) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DEPTH_SQL)) {
+            pstmt.setInt(1, contributionId);
+            UuidCodec.bind(pstmt, 2, playerUuid);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int depth = rs.getInt(1);
+                    return rs.wasNull() ? -1 : depth;
+                }
+                return -1;
+            }
+        }
+    }
+}
@@ -22,6 +22,20 @@ public class ContributorInfo {
     @SerializedName("contributionId")
     private int contributionId;
 
+    /**
+     * 创建当前贡献者信息的副本
+     * @return 当前对象的副本
+     */
+    public ContributorInfo copy() {
+        ContributorInfo copy = new ContributorInfo();
+        copy.playerUuid = this.playerUuid;
+        copy.playerName = this.playerName;
+        copy.level = this.level;
+        copy.inviterUuid = this.inviterUuid;
+        copy.contributionId = this.contributionId;
+        return copy;
+    }
+
     public UUID getPlayerUuid() {
         return playerUuid;
     }
@@ -35,7 +49,7 @@ public class ContributorInfo {
     }
 
     public void setPlayerName(String playerName) {
-        this.playerName = playerName;
+        this.playerName = StringPool.PLAYER_NAMES.intern(playerName);
     }
 
     public int getLevel() {
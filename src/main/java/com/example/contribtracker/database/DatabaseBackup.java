@@ -0,0 +1,171 @@
+package com.example.contribtracker.database;
+
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 基于 SQLite 在线备份接口的数据库备份和恢复
+ * 备份每一步只复制固定数量的页，在一个只读事务中完成：WAL模式下读事务不会阻塞写入连接，
+ * 备份期间的写入也不会使备份重新开始，得到的是备份开始时刻的一致快照。
+ * 备份先写入临时文件，完成后再改名，备份目录中不会出现不完整的备份。
+ */
+public final class DatabaseBackup {
+    static final String FILE_PREFIX = "contributions-";
+    static final String FILE_SUFFIX = ".db";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    /** 遇到锁时每次等待的时间和最多等待的次数 */
+    private static final int BUSY_SLEEP_MILLIS = 100;
+    private static final int BUSY_RETRIES = 50;
+
+    private DatabaseBackup() {
+    }
+
+    /**
+     * 把数据库备份为一个新的备份文件
+     * @param conn 源数据库连接，需处于自动提交模式，备份期间在其上保持一个读事务
+     * @param backupDir 备份目录
+     * @param pagesPerStep 每一步复制的页数
+     * @param stepPauseMillis 每一步之后的停顿
+     * @return 备份文件
+     * @throws SQLException 如果备份失败
+     */
+    public static File backup(Connection conn, File backupDir, int pagesPerStep, int stepPauseMillis) throws SQLException {
+        if (!backupDir.exists() && !backupDir.mkdirs()) {
+            throw new SQLException("无法创建备份目录：" + backupDir.getAbsolutePath());
+        }
+
+        String name = FILE_PREFIX + LocalDateTime.now().format(NAME_FORMAT) + FILE_SUFFIX;
+        File target = new File(backupDir, name);
+        File temp = new File(backupDir, name + TEMP_SUFFIX);
+        if (temp.exists() && !temp.delete()) {
+            throw new SQLException("无法删除残留的临时备份文件：" + temp.getAbsolutePath());
+        }
+
+        conn.setAutoCommit(false);
+        try {
+            // 先读取一次，使读事务在复制第一页之前就已开始
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM sqlite_master")) {
+                rs.next();
+            }
+            DB db = conn.unwrap(SQLiteConnection.class).getDatabase();
+            int rc = db.backup("main", temp.getAbsolutePath(), pauseBetweenSteps(stepPauseMillis),
+                BUSY_SLEEP_MILLIS, BUSY_RETRIES, pagesPerStep);
+            if (rc != 0) {
+                throw new SQLException("备份数据库失败，错误码 " + rc);
+            }
+        } catch (SQLException e) {
+            temp.delete();
+            throw e;
+        } finally {
+            conn.rollback();
+            conn.setAutoCommit(true);
+        }
+
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            temp.delete();
+            throw new SQLException("保存备份文件失败：" + target.getAbsolutePath(), e);
+        }
+        return target;
+    }
+
+    /**
+     * 用备份文件覆盖数据库，恢复在目标数据库的一个写事务中完成，其他连接只会看到恢复前或恢复后的数据
+     * @param conn 目标数据库的写入连接，需处于自动提交模式且没有其他写入
+     * @param source 备份文件
+     * @param pagesPerStep 每一步复制的页数
+     * @throws SQLException 如果恢复失败
+     */
+    public static void restore(Connection conn, File source, int pagesPerStep) throws SQLException {
+        DB db = conn.unwrap(SQLiteConnection.class).getDatabase();
+        int rc = db.restore("main", source.getAbsolutePath(), null, BUSY_SLEEP_MILLIS, BUSY_RETRIES, pagesPerStep);
+        if (rc != 0) {
+            throw new SQLException("从备份恢复数据库失败，错误码 " + rc);
+        }
+    }
+
+    /**
+     * 列出备份目录中的所有备份
+     * @return 备份文件名，从新到旧排列
+     */
+    public static List<String> list(File backupDir) {
+        List<String> names = new ArrayList<>();
+        File[] files = backupDir.listFiles();
+        if (files == null) {
+            return names;
+        }
+        for (File file : files) {
+            if (isBackupName(file.getName()) && file.isFile()) {
+                names.add(file.getName());
+            }
+        }
+        // 文件名中的时间按位数固定，字符串顺序即时间顺序
+        names.sort(Comparator.reverseOrder());
+        return names;
+    }
+
+    /**
+     * 按名称查找备份文件，只接受 {@link #list} 返回的名称
+     * @throws SQLException 如果备份不存在
+     */
+    public static File resolve(File backupDir, String name) throws SQLException {
+        if (!list(backupDir).contains(name)) {
+            throw new SQLException("找不到备份：" + name);
+        }
+        return new File(backupDir, name);
+    }
+
+    /**
+     * 删除超出保留数量的旧备份
+     * @param generations 保留的备份数量
+     * @return 删除的备份数
+     */
+    public static int rotate(File backupDir, int generations) {
+        List<String> names = list(backupDir);
+        int deleted = 0;
+        for (int i = generations; i < names.size(); i++) {
+            if (new File(backupDir, names.get(i)).delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean isBackupName(String name) {
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+
+    /**
+     * 每复制一步后停顿一下，让出磁盘给写入连接；读事务在停顿期间仍然保持
+     */
+    private static DB.ProgressObserver pauseBetweenSteps(int stepPauseMillis) {
+        return (remaining, pageCount) -> {
+            if (stepPauseMillis <= 0 || remaining <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(stepPauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.contribtracker.database;
+
+import java.sql.SQLException;
+
+/**
+ * 在数据库线程中执行的操作，可以组合多个同步查询
+ */
+@FunctionalInterface
+public interface DatabaseCall<T> {
+    T call() throws SQLException;
+}
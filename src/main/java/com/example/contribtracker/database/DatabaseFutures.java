@@ -0,0 +1,31 @@
+package com.example.contribtracker.database;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 同步方法等待异步写入的共用实现
+ */
+final class DatabaseFutures {
+    private DatabaseFutures() {
+    }
+
+    /**
+     * 等待写入完成，供同步方法使用
+     * @throws SQLException 如果写入失败，写入本身抛出的SQLException原样抛出
+     */
+    static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("等待数据库写入时被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("数据库写入失败", e.getCause());
+        }
+    }
+}
@@ -1,36 +1,56 @@
 package com.example.contribtracker.database;
 
 import com.example.contribtracker.ContribTrackerMod;
+import com.example.contribtracker.config.BackupConfig;
 import net.fabricmc.loader.api.FabricLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.sql.*;
-import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import org.sqlite.SQLiteConfig;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class DatabaseManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
     private static File dbFile;
-    private static HikariDataSource dataSource;
+    private static File backupDir;
+    // 只读连接池，所有查询使用；WAL模式下读取与写入互不阻塞
+    private static HikariDataSource readDataSource;
+    // 唯一的写入连接，只由写入线程和结构迁移使用
+    private static HikariDataSource writeDataSource;
     private static String connectionUrl;
     
-    // 查询缓存系统
-    private static final Map<String, List<Contribution>> contributionCache = new ConcurrentHashMap<>();
-    private static final Map<Integer, Contribution> contributionByIdCache = new ConcurrentHashMap<>(); 
-    private static final Map<String, Long> lastCacheUpdateTime = new ConcurrentHashMap<>();
-    private static final long CACHE_EXPIRE_TIME = 5000; // 缓存过期时间：5秒
+    // 内存数据模型，所有读取都从这里返回，所有修改写入数据库后同步到这里
+    private static final ContributionStore store = new ContributionStore();
+    // 所有修改都交给唯一的写入线程，合并成批量事务提交
+    private static volatile DatabaseWriter writer;
+    // 异步查询使用的线程池，避免在服务器主线程上等待数据库
+    private static volatile ExecutorService queryExecutor;
+    // 内存数据已同步到的变更日志序号，只在修改提交并同步内存后推进
+    private static final AtomicLong committedChangeSeq = new AtomicLong();
+    // 上次压缩后新增的变更记录数，达到间隔后再压缩一次
+    private static final AtomicInteger changesSinceCompaction = new AtomicInteger();
+    private static final int CHANGE_LOG_COMPACT_INTERVAL = 1000;
+    // 批量导入时每个写入任务包含的行数（贡献和贡献者合计）
+    private static final int IMPORT_BATCH_ROWS = 20_000;
+    // 同一时间只进行一次备份或恢复
+    private static final AtomicBoolean backupRunning = new AtomicBoolean(false);
     // 状态追踪
     private static final AtomicBoolean isInitialized = new AtomicBoolean(false);
 
@@ -45,33 +65,25 @@ public class DatabaseManager {
             // 设置数据库文件
             dbFile = new File(configDir, "contributions.db");
             connectionUrl = "jdbc:sqlite:" + dbFile.getAbsolutePath();
+            backupDir = new File(configDir, "backups");
             
-            // 配置连接池
-            HikariConfig config = new HikariConfig();
-            config.setJdbcUrl(connectionUrl);
-            config.setDriverClassName("org.sqlite.JDBC");
-            
-            // 配置连接池参数
-            config.setMaximumPoolSize(5); // 最大连接数
-            config.setMinimumIdle(1); // 最小空闲连接数
-            config.setIdleTimeout(TimeUnit.MINUTES.toMillis(10)); // 空闲连接超时
-            config.setMaxLifetime(TimeUnit.MINUTES.toMillis(30)); // 连接最大生命周期
-            config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(30)); // 连接超时
+            // 先打开写入连接并完成建表和迁移，只读连接要求数据库文件已存在
+            writeDataSource = new HikariDataSource(createWriteConfig());
+            try (Connection conn = getWriteConnection()) {
+                createTables(conn);
+            }
             
-            // SQLite 特定配置
-            SQLiteConfig sqLiteConfig = new SQLiteConfig();
-            sqLiteConfig.enforceForeignKeys(true); // 启用外键约束
-            sqLiteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL); // 使用WAL模式提高性能
+            readDataSource = new HikariDataSource(createReadConfig());
             
-            // 添加SQLite配置属性
-            Properties props = sqLiteConfig.toProperties();
-            props.forEach((k, v) -> config.addDataSourceProperty(k.toString(), v));
+            // 一次性加载全部数据到内存
+            reloadStore();
             
-            // 初始化连接池
-            dataSource = new HikariDataSource(config);
+            // 启动写入线程和异步查询线程池
+            writer = new DatabaseWriter(DatabaseManager::getWriteConnection);
+            queryExecutor = createQueryExecutor();
             
-            // 创建表
-            createTables();
+            // 启动时压缩一次变更日志，清理服务器停止期间过期的记录
+            compactChangeLogAsync();
             
             isInitialized.set(true);
         } catch (Exception e) {
@@ -79,178 +91,144 @@ public class DatabaseManager {
         }
     }
 
+    private static ExecutorService createQueryExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r);
+            thread.setName("ContribTracker-Database-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 写入连接配置：只有一个连接，使用WAL模式并启用外键约束
+     */
+    private static HikariConfig createWriteConfig() {
+        HikariConfig config = createBaseConfig("ContribTracker-Write");
+        config.setMaximumPoolSize(1);
+        config.setMinimumIdle(1);
+        
+        // SQLite 特定配置
+        SQLiteConfig sqLiteConfig = new SQLiteConfig();
+        sqLiteConfig.enforceForeignKeys(true); // 启用外键约束
+        sqLiteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL); // 使用WAL模式，读取不会被写入阻塞
+        sqLiteConfig.setBusyTimeout((int) TimeUnit.SECONDS.toMillis(5)); // 外部进程持有写锁时等待
+        addSqliteProperties(config, sqLiteConfig);
+        return config;
+    }
+
+    /**
+     * 只读连接配置：连接数与CPU核心数一致，以只读方式打开并禁止任何修改
+     * 日志模式由写入连接设置并保存在数据库文件中，只读连接不能再修改
+     */
+    private static HikariConfig createReadConfig() {
+        HikariConfig config = createBaseConfig("ContribTracker-Read");
+        config.setMaximumPoolSize(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        config.setMinimumIdle(1);
+        config.setConnectionInitSql("PRAGMA query_only = true");
+        
+        SQLiteConfig sqLiteConfig = new SQLiteConfig();
+        sqLiteConfig.setReadOnly(true);
+        addSqliteProperties(config, sqLiteConfig);
+        return config;
+    }
+
+    private static HikariConfig createBaseConfig(String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(connectionUrl);
+        config.setDriverClassName("org.sqlite.JDBC");
+        
+        // 配置连接池参数
+        config.setIdleTimeout(TimeUnit.MINUTES.toMillis(10)); // 空闲连接超时
+        config.setMaxLifetime(TimeUnit.MINUTES.toMillis(30)); // 连接最大生命周期
+        config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(30)); // 连接超时
+        return config;
+    }
+
+    private static void addSqliteProperties(HikariConfig config, SQLiteConfig sqLiteConfig) {
+        Properties props = sqLiteConfig.toProperties();
+        props.forEach((k, v) -> config.addDataSourceProperty(k.toString(), v));
+    }
+
     /**
      * 检查数据库连接池是否已经初始化
      * @return 如果数据库连接池已初始化则返回true
      */
     public static boolean isInitialized() {
-        return isInitialized.get() && dataSource != null && !dataSource.isClosed();
-    }
-
-    private static void createTables() throws SQLException {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            // 创建贡献表
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS contributions (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    name TEXT NOT NULL,
-                    type TEXT NOT NULL,
-                    game_id TEXT,
-                    x REAL NOT NULL,
-                    y REAL NOT NULL,
-                    z REAL NOT NULL,
-                    world TEXT NOT NULL,
-                    creator_uuid TEXT NOT NULL,
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-                )
-            """);
-
-            // 创建贡献者表 - 修复外键约束
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS contributors (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    contribution_id INTEGER NOT NULL,
-                    player_uuid TEXT NOT NULL,
-                    player_name TEXT NOT NULL,
-                    note TEXT,
-                    inviter_uuid TEXT,
-                    level INTEGER DEFAULT 1,
-                    FOREIGN KEY (contribution_id) REFERENCES contributions(id) ON DELETE CASCADE,
-                    UNIQUE (contribution_id, player_uuid)
-                )
-            """);
-            
-            // 检查表结构是否需要升级
-            upgradeTablesIfNeeded(conn);
-        }
+        return isInitialized.get()
+            && readDataSource != null && !readDataSource.isClosed()
+            && writeDataSource != null && !writeDataSource.isClosed();
     }
 
     /**
-     * 检查并升级表结构
+     * 创建表结构并在需要时升级，只执行尚未应用的迁移
      * @param conn 数据库连接
-     * @throws SQLException 如果升级失败
+     * @throws SQLException 如果建表或迁移失败
      */
-    private static void upgradeTablesIfNeeded(Connection conn) throws SQLException {
-        try {
-            boolean needsUpgrade = false;
-            
-            // 检查外键约束问题
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_list(contributors)")) {
-                while (rs.next()) {
-                    String table = rs.getString("table");
-                    if ("contributors".equals(table)) {
-                        needsUpgrade = true;
-                        break;
-                    }
-                }
-            }
-            
-            if (needsUpgrade) {
-                // 获取当前所有数据
-                List<Contribution> allContributions = new ArrayList<>();
-                List<ContributorInfo> allContributors = new ArrayList<>();
-                
-                // 获取所有贡献和贡献者
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT * FROM contributions")) {
-                    while (rs.next()) {
-                        Contribution c = new Contribution();
-                        c.setId(rs.getInt("id"));
-                        c.setName(rs.getString("name"));
-                        c.setType(rs.getString("type"));
-                        c.setGameId(rs.getString("game_id"));
-                        c.setX(rs.getDouble("x"));
-                        c.setY(rs.getDouble("y"));
-                        c.setZ(rs.getDouble("z"));
-                        c.setWorld(rs.getString("world"));
-                        c.setCreatorUuid(UUID.fromString(rs.getString("creator_uuid")));
-                        c.setCreatedAt(rs.getTimestamp("created_at").getTime());
-                        allContributions.add(c);
-                    }
-                }
-                
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT * FROM contributors")) {
-                    while (rs.next()) {
-                        ContributorInfo ci = new ContributorInfo();
-                        ci.setContributionId(rs.getInt("contribution_id"));
-                        ci.setPlayerUuid(UUID.fromString(rs.getString("player_uuid")));
-                        ci.setPlayerName(rs.getString("player_name"));
-                        ci.setLevel(rs.getInt("level"));
-                        String inviterUuid = rs.getString("inviter_uuid");
-                        if (inviterUuid != null) {
-                            ci.setInviterUuid(UUID.fromString(inviterUuid));
-                        }
-                        allContributors.add(ci);
-                    }
-                }
-                
-                // 关闭外键约束
-                try (Statement stmt = conn.createStatement()) {
-                    stmt.execute("PRAGMA foreign_keys = OFF");
-                }
-                
-                // 删除旧表并创建新表
-                try (Statement stmt = conn.createStatement()) {
-                    stmt.execute("DROP TABLE IF EXISTS contributors");
-                    stmt.execute("""
-                        CREATE TABLE contributors (
-                            id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            contribution_id INTEGER NOT NULL,
-                            player_uuid TEXT NOT NULL,
-                            player_name TEXT NOT NULL,
-                            note TEXT,
-                            inviter_uuid TEXT,
-                            level INTEGER DEFAULT 1,
-                            FOREIGN KEY (contribution_id) REFERENCES contributions(id) ON DELETE CASCADE,
-                            UNIQUE (contribution_id, player_uuid)
-                        )
-                    """);
-                }
-                
-                // 重新插入数据
-                String insertSQL = """
-                    INSERT INTO contributors 
-                    (contribution_id, player_uuid, player_name, note, inviter_uuid, level)
-                    VALUES (?, ?, ?, ?, ?, ?)
-                """;
-                
-                try (PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
-                    for (ContributorInfo ci : allContributors) {
-                        pstmt.setInt(1, ci.getContributionId());
-                        pstmt.setString(2, ci.getPlayerUuid().toString());
-                        pstmt.setString(3, ci.getPlayerName());
-                        pstmt.setString(4, null); // note
-                        if (ci.getInviterUuid() != null) {
-                            pstmt.setString(5, ci.getInviterUuid().toString());
-                        } else {
-                            pstmt.setNull(5, Types.VARCHAR);
-                        }
-                        pstmt.setInt(6, ci.getLevel());
-                        pstmt.addBatch();
-                    }
-                    pstmt.executeBatch();
-                }
-                
-                // 重新启用外键约束
-                try (Statement stmt = conn.createStatement()) {
-                    stmt.execute("PRAGMA foreign_keys = ON");
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.error("升级数据库表结构失败", e);
-            throw new SQLException("升级数据库结构失败", e);
-        }
+    static void createTables(Connection conn) throws SQLException {
+        SchemaMigrations.migrate(conn);
     }
 
+    /**
+     * 获取只读连接，用于所有查询
+     */
     private static Connection getConnection() throws SQLException {
-        if (dataSource == null) {
+        if (readDataSource == null) {
+            throw new SQLException("数据库连接池未初始化");
+        }
+        
+        return readDataSource.getConnection();
+    }
+
+    /**
+     * 获取写入连接，只应由写入线程和结构迁移使用
+     */
+    private static Connection getWriteConnection() throws SQLException {
+        if (writeDataSource == null) {
             throw new SQLException("数据库连接池未初始化");
         }
         
-        return dataSource.getConnection();
+        return writeDataSource.getConnection();
+    }
+
+    /**
+     * 把写入任务交给写入线程
+     * @param task 在写入线程的事务中执行的数据库操作
+     * @param onCommit 事务提交成功后同步内存数据的回调
+     */
+    private static <T> CompletableFuture<T> submitWrite(DatabaseWriter.WriteTask<T> task, Consumer<T> onCommit) {
+        if (writer == null) {
+            return CompletableFuture.failedFuture(new SQLException("数据库连接池未初始化"));
+        }
+        return writer.submit(task, onCommit);
+    }
+
+    /**
+     * 获取已加载的内存数据模型
+     * @throws SQLException 如果数据尚未从数据库加载
+     */
+    private static ContributionStore requireStore() throws SQLException {
+        if (!store.isLoaded()) {
+            throw new SQLException("数据库尚未初始化");
+        }
+        return store;
+    }
+
+    /**
+     * 从数据库重新加载全部贡献到内存
+     * @throws SQLException 如果读取数据库失败
+     */
+    public static void reloadStore() throws SQLException {
+        try (Connection conn = getConnection()) {
+            // 先读取变更日志位置再加载数据，加载的数据至少包含该位置之前的所有修改
+            long changeSeq = ContributionChangeLog.getLatestSeq(conn);
+            List<Contribution> contributions = ContributionLoader.loadAll(conn);
+            committedChangeSeq.set(changeSeq);
+            store.load(contributions);
+            LOGGER.debug("已加载{}条贡献到内存", contributions.size());
+        }
     }
 
     /**
@@ -269,30 +247,68 @@ public class DatabaseManager {
     public static int addContribution(String name, String type, String gameId, 
                                      double x, double y, double z, String world,
                                      UUID creatorUuid) throws SQLException {
+        return DatabaseFutures.await(addContributionAsync(name, type, gameId, x, y, z, world, creatorUuid)).getId();
+    }
+
+    /**
+     * 异步添加新贡献，由写入线程与其他修改合并提交
+     * @return 提交完成后返回新创建的贡献（包含ID和创建时间）
+     */
+    public static CompletableFuture<Contribution> addContributionAsync(String name, String type, String gameId,
+                                                                       double x, double y, double z, String world,
+                                                                       UUID creatorUuid) {
         String sql = """
             INSERT INTO contributions (name, type, game_id, x, y, z, world, creator_uuid)
             VALUES (?, ?, ?, ?, ?, ?, ?, ?)
         """;
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, name);
-            pstmt.setString(2, type);
-            pstmt.setString(3, gameId);
-            pstmt.setDouble(4, x);
-            pstmt.setDouble(5, y);
-            pstmt.setDouble(6, z);
-            pstmt.setString(7, world);
-            pstmt.setString(8, creatorUuid.toString());
-            pstmt.executeUpdate();
+        AtomicLong changeSeq = new AtomicLong();
+        return submitWrite(conn -> {
+            int id;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, name);
+                pstmt.setString(2, type);
+                pstmt.setString(3, gameId);
+                pstmt.setDouble(4, x);
+                pstmt.setDouble(5, y);
+                pstmt.setDouble(6, z);
+                pstmt.setString(7, world);
+                UuidCodec.bind(pstmt, 8, creatorUuid);
+                pstmt.executeUpdate();
+                
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    if (!rs.next()) {
+                        throw new SQLException("创建贡献失败，无法获取ID");
+                    }
+                    id = rs.getInt(1);
+                }
+            }
+            changeSeq.set(ContributionChangeLog.append(conn, id, ContributionChange.Type.CONTRIBUTION_ADDED, creatorUuid));
             
-            try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
-        }
-    }
-        }
-        throw new SQLException("创建贡献失败，无法获取ID");
+            // created_at 由数据库生成，读回后再放入内存
+            Contribution contribution = new Contribution();
+            contribution.setId(id);
+            contribution.setName(name);
+            contribution.setType(type);
+            contribution.setGameId(gameId);
+            contribution.setX(x);
+            contribution.setY(y);
+            contribution.setZ(z);
+            contribution.setWorld(world);
+            contribution.setCreatorUuid(creatorUuid);
+            try (PreparedStatement query = conn.prepareStatement("SELECT created_at FROM contributions WHERE id = ?")) {
+                query.setInt(1, id);
+                try (ResultSet rs = query.executeQuery()) {
+                    if (rs.next()) {
+                        contribution.setCreatedAt(rs.getTimestamp("created_at").getTime());
+                    }
+                }
+            }
+            return contribution;
+        }, contribution -> {
+            store.putContribution(contribution);
+            markChangeCommitted(changeSeq.get());
+        });
     }
     
     /**
@@ -325,28 +341,61 @@ public class DatabaseManager {
      */
     public static void addContributor(int contributionId, UUID playerUuid, String playerName, String note, UUID inviterUuid) 
             throws SQLException {
+        DatabaseFutures.await(addContributorAsync(contributionId, playerUuid, playerName, note, inviterUuid));
+    }
+
+    /**
+     * 异步添加贡献者，由写入线程与其他修改合并提交
+     * 级别在事务中按邀请者的当前行计算：同一批次中先写入的邀请者尚未同步到内存数据，
+     * 先执行的移除也尚未反映到内存中，只有数据库中的行是准确的。
+     * 没有邀请者为一级，邀请者不在贡献中时为0，与 {@link ContributionStore#computeLevel} 一致
+     * @return 提交完成后返回写入的贡献者信息
+     */
+    public static CompletableFuture<ContributorInfo> addContributorAsync(int contributionId, UUID playerUuid,
+                                                                         String playerName, String note, UUID inviterUuid) {
         String sql = """
             INSERT INTO contributors (contribution_id, player_uuid, player_name, note, inviter_uuid, level)
-            VALUES (?, ?, ?, ?, ?, 
-                CASE 
+            VALUES (?, ?, ?, ?, ?,
+                CASE
                     WHEN ? IS NULL THEN 1
-                    ELSE (SELECT level + 1 FROM contributors WHERE contribution_id = ? AND player_uuid = ?)
+                    ELSE COALESCE((SELECT level + 1 FROM contributors WHERE contribution_id = ? AND player_uuid = ?), 0)
                 END
             )
+            RETURNING level
         """;
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            pstmt.setString(2, playerUuid.toString());
-            pstmt.setString(3, playerName);
-            pstmt.setString(4, note);
-            pstmt.setString(5, inviterUuid != null ? inviterUuid.toString() : null);
-            pstmt.setString(6, inviterUuid != null ? inviterUuid.toString() : null);
-            pstmt.setInt(7, contributionId);
-            pstmt.setString(8, inviterUuid != null ? inviterUuid.toString() : null);
-            pstmt.executeUpdate();
-        }
+        AtomicLong changeSeq = new AtomicLong();
+        return submitWrite(conn -> {
+            int level;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, contributionId);
+                UuidCodec.bind(pstmt, 2, playerUuid);
+                pstmt.setString(3, playerName);
+                pstmt.setString(4, note);
+                UuidCodec.bind(pstmt, 5, inviterUuid);
+                UuidCodec.bind(pstmt, 6, inviterUuid);
+                pstmt.setInt(7, contributionId);
+                UuidCodec.bind(pstmt, 8, inviterUuid);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("写入贡献者后没有返回级别");
+                    }
+                    level = rs.getInt(1);
+                }
+            }
+            changeSeq.set(ContributionChangeLog.append(conn, contributionId, ContributionChange.Type.CONTRIBUTOR_ADDED, playerUuid));
+            
+            ContributorInfo info = new ContributorInfo();
+            info.setContributionId(contributionId);
+            info.setPlayerUuid(playerUuid);
+            info.setPlayerName(playerName);
+            info.setInviterUuid(inviterUuid);
+            info.setLevel(level);
+            return info;
+        }, info -> {
+            store.putContributor(contributionId, info);
+            markChangeCommitted(changeSeq.get());
+        });
     }
     
     /**
@@ -365,45 +414,48 @@ public class DatabaseManager {
         );
     }
 
-    public static List<Contribution> getNearbyContributions(double x, double y, double z, double radius) 
+    /**
+     * 获取同一世界中指定坐标附近的贡献
+     * @param world 世界名称
+     * @param x X坐标
+     * @param y Y坐标
+     * @param z Z坐标
+     * @param radius 搜索半径（各轴分别计算）
+     * @return 范围内的贡献列表
+     * @throws SQLException 如果查询失败
+     */
+    public static List<Contribution> getNearbyContributions(String world, double x, double y, double z, double radius) 
             throws SQLException {
-        List<Contribution> contributions = new ArrayList<>();
-        String sql = """
-            SELECT c.*, GROUP_CONCAT(ct.player_name) as contributors,
-                   (SELECT player_name FROM contributors WHERE contribution_id = c.id AND player_uuid = c.creator_uuid) as creator_name
-            FROM contributions c
-            LEFT JOIN contributors ct ON c.id = ct.contribution_id
-            WHERE ABS(c.x - ?) <= ? AND ABS(c.y - ?) <= ? AND ABS(c.z - ?) <= ?
-            GROUP BY c.id
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setDouble(1, x);
-            pstmt.setDouble(2, radius);
-            pstmt.setDouble(3, y);
-            pstmt.setDouble(4, radius);
-            pstmt.setDouble(5, z);
-            pstmt.setDouble(6, radius);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Contribution contribution = new Contribution();
-                    setContributionFromResultSet(contribution, rs);
-                    contributions.add(contribution);
-                }
-            }
+        return getContributionsInBox(world, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+    }
+
+    /**
+     * 获取指定世界中坐标落在给定范围内（包含边界）的贡献
+     * 内存数据已加载时使用内存中的空间索引，否则通过R*Tree虚拟表在数据库中查询
+     * @param world 世界名称
+     * @return 按ID升序排列的贡献列表
+     * @throws SQLException 如果查询失败
+     */
+    public static List<Contribution> getContributionsInBox(String world, double minX, double minY, double minZ,
+                                                           double maxX, double maxY, double maxZ) throws SQLException {
+        if (store.isLoaded()) {
+            return store.findInBox(world, minX, minY, minZ, maxX, maxY, maxZ);
+        }
+        try (Connection conn = getConnection()) {
+            return ContributionLoader.loadInBox(conn, world, minX, minY, minZ, maxX, maxY, maxZ);
         }
-        
-        return contributions;
     }
 
     public static void deleteContribution(int contributionId) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = getConnection();
-            conn.setAutoCommit(false);  // 开始事务
-            
+        DatabaseFutures.await(deleteContributionAsync(contributionId));
+    }
+
+    /**
+     * 异步删除贡献及其所有贡献者，由写入线程与其他修改合并提交
+     */
+    public static CompletableFuture<Void> deleteContributionAsync(int contributionId) {
+        AtomicLong changeSeq = new AtomicLong();
+        return submitWrite(conn -> {
             // 先删除关联的贡献者记录
             String deleteContributorsSQL = "DELETE FROM contributors WHERE contribution_id = ?";
             try (PreparedStatement pstmt = conn.prepareStatement(deleteContributorsSQL)) {
@@ -415,155 +467,297 @@ public class DatabaseManager {
             // 再删除贡献
             String deleteContributionSQL = "DELETE FROM contributions WHERE id = ?";
             try (PreparedStatement pstmt = conn.prepareStatement(deleteContributionSQL)) {
-            pstmt.setInt(1, contributionId);
+                pstmt.setInt(1, contributionId);
                 int result = pstmt.executeUpdate();
                 
+                LOGGER.debug("删除贡献, ID={}, 影响{}行", contributionId, result);
                 if (result > 0) {
-                    // 清除相关缓存
-                    contributionByIdCache.remove(contributionId);
-                    contributionCache.clear();
-                    lastCacheUpdateTime.clear();
-                    LOGGER.debug("删除贡献并清除缓存, ID={}", contributionId);
+                    changeSeq.set(ContributionChangeLog.append(conn, contributionId, ContributionChange.Type.CONTRIBUTION_DELETED, null));
                 }
             }
-            
-            // 提交事务
-            conn.commit();
-        } catch (SQLException e) {
-            // 发生错误时回滚事务
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    LOGGER.error("回滚事务失败", ex);
+            return null;
+        }, ignored -> {
+            store.removeContribution(contributionId);
+            markChangeCommitted(changeSeq.get());
+        });
+    }
+
+    public static void deleteContributor(int contributionId, UUID playerUuid) throws SQLException {
+        DatabaseFutures.await(deleteContributorAsync(contributionId, playerUuid));
+    }
+
+    /**
+     * 异步删除贡献者，由写入线程与其他修改合并提交
+     */
+    public static CompletableFuture<Void> deleteContributorAsync(int contributionId, UUID playerUuid) {
+        String sql = "DELETE FROM contributors WHERE contribution_id = ? AND player_uuid = ?";
+        AtomicLong changeSeq = new AtomicLong();
+        return submitWrite(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, contributionId);
+                UuidCodec.bind(pstmt, 2, playerUuid);
+                if (pstmt.executeUpdate() > 0) {
+                    changeSeq.set(ContributionChangeLog.append(conn, contributionId, ContributionChange.Type.CONTRIBUTOR_REMOVED, playerUuid));
                 }
             }
-            throw e;
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);  // 恢复自动提交
-                    conn.close();
-                } catch (SQLException e) {
-                    LOGGER.error("关闭连接失败", e);
-                }
+            return null;
+        }, ignored -> {
+            store.removeContributor(contributionId, playerUuid);
+            markChangeCommitted(changeSeq.get());
+        });
+    }
+
+    /**
+     * 在修改提交并同步内存数据后推进变更日志位置，变更累计到一定数量后安排一次压缩
+     * @param seq 本次修改写入的变更序号，没有写入变更时为0
+     */
+    private static void markChangeCommitted(long seq) {
+        if (seq <= 0) {
+            return;
+        }
+        committedChangeSeq.accumulateAndGet(seq, Math::max);
+        if (changesSinceCompaction.incrementAndGet() >= CHANGE_LOG_COMPACT_INTERVAL) {
+            changesSinceCompaction.set(0);
+            compactChangeLogAsync();
+        }
+    }
+
+    /**
+     * 获取内存数据已同步到的变更日志位置
+     * 增量同步的使用者应先读取该位置再读取完整数据，之后从该位置开始读取变更，
+     * 这样不会遗漏读取完整数据期间发生的修改（重复收到的变更按贡献ID重新读取即可）
+     * @return 变更序号，从未发生过修改时为0
+     */
+    public static long getChangeLogPosition() {
+        return committedChangeSeq.get();
+    }
+
+    /**
+     * 读取指定序号之后的变更，只返回内存数据已经同步的部分
+     * @param afterSeq 使用者已读取到的序号
+     * @param limit 最多返回的记录数
+     * @return 变更列表；afterSeq 早于日志保留范围时标记为需要重新读取完整数据
+     * @throws SQLException 如果查询失败
+     */
+    public static ContributionChanges getChangesSince(long afterSeq, int limit) throws SQLException {
+        long upToSeq = committedChangeSeq.get();
+        try (Connection conn = getConnection()) {
+            return ContributionChangeLog.readSince(conn, afterSeq, upToSeq, limit);
+        }
+    }
+
+    /**
+     * 压缩变更日志：同一贡献只保留最近的记录，并清理超过保留时间或行数上限的记录
+     * @return 提交完成后返回删除的记录数
+     */
+    public static CompletableFuture<Integer> compactChangeLogAsync() {
+        CompletableFuture<Integer> future = submitWrite(conn -> ContributionChangeLog.compact(conn, System.currentTimeMillis()), null);
+        future.whenComplete((deleted, error) -> {
+            if (error != null) {
+                LOGGER.warn("压缩变更日志失败", error);
+            } else if (deleted > 0) {
+                LOGGER.debug("压缩变更日志，删除了{}条记录", deleted);
             }
+        });
+        return future;
+    }
+
+    /**
+     * 批量导入贡献及其贡献者
+     * 边读取边按批提交给写入线程，每批在一个事务中用批量语句写入，提交后再读取下一批，
+     * 内存中只保留一批数据。导入期间其他修改可以在批次之间执行。
+     * 读取或写入失败时停止导入，已提交的批次保留。不应在服务器主线程上调用
+     * @param reader 导入文件
+     * @return 导入的贡献数
+     * @throws SQLException 如果文件内容有误或写入失败
+     */
+    public static int importContributions(ContributionReader reader) throws SQLException {
+        int imported = 0;
+        int rows = 0;
+        List<Contribution> batch = new ArrayList<>();
+        Contribution contribution;
+        while ((contribution = ContributionTransfer.next(reader)) != null) {
+            batch.add(contribution);
+            rows += 1 + contribution.getContributorList().size();
+            if (rows >= IMPORT_BATCH_ROWS) {
+                imported += importBatch(batch);
+                batch = new ArrayList<>();
+                rows = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += importBatch(batch);
         }
+        LOGGER.info("已导入{}条贡献", imported);
+        return imported;
     }
 
-    public static void deleteContributor(int contributionId, UUID playerUuid) throws SQLException {
-        String sql = "DELETE FROM contributors WHERE contribution_id = ? AND player_uuid = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            pstmt.setString(2, playerUuid.toString());
-            pstmt.executeUpdate();
+    private static int importBatch(List<Contribution> batch) throws SQLException {
+        AtomicLong changeSeq = new AtomicLong();
+        List<Contribution> inserted = DatabaseFutures.await(submitWrite(conn -> {
+            List<Contribution> loaded = ContributionImporter.insertBatch(conn, batch);
+            changeSeq.set(ContributionChangeLog.getLatestSeq(conn));
+            return loaded;
+        }, loaded -> {
+            for (Contribution contribution : loaded) {
+                store.putContribution(contribution);
+            }
+            markChangeCommitted(changeSeq.get());
+        }));
+        return inserted.size();
+    }
+
+    /**
+     * 在线备份数据库并删除超出保留数量的旧备份
+     * 备份使用只读连接逐步复制，不阻塞写入线程，耗时取决于数据库大小，不应在服务器主线程上调用
+     * @return 新的备份文件
+     * @throws SQLException 如果已有备份或恢复正在进行，或备份失败
+     */
+    public static File backup() throws SQLException {
+        if (!backupRunning.compareAndSet(false, true)) {
+            throw new SQLException("已有备份或恢复正在进行");
+        }
+        try {
+            File file = createBackup();
+            DatabaseBackup.rotate(backupDir, BackupConfig.getGenerations());
+            return file;
+        } finally {
+            backupRunning.set(false);
         }
     }
 
-    public static Contribution getContributionById(int id) throws SQLException {
-        // 检查缓存
-        Contribution cachedContribution = contributionByIdCache.get(id);
-        String cacheKey = "contribution_" + id;
-        Long lastUpdate = lastCacheUpdateTime.get(cacheKey);
-        long now = System.currentTimeMillis();
-        
-        if (cachedContribution != null && lastUpdate != null && now - lastUpdate < CACHE_EXPIRE_TIME) {
-            LOGGER.debug("使用缓存获取贡献ID={}", id);
-            return cachedContribution.copy();
+    private static File createBackup() throws SQLException {
+        try (Connection conn = getConnection()) {
+            File file = DatabaseBackup.backup(conn, backupDir, BackupConfig.getPagesPerStep(), BackupConfig.getStepPauseMillis());
+            LOGGER.info("数据库已备份到{}", file.getName());
+            return file;
         }
-        
-        String sql = """
-            SELECT c.*, 
-                   (SELECT player_name FROM contributors WHERE contribution_id = c.id AND player_uuid = c.creator_uuid) as creator_name,
-                   GROUP_CONCAT(ct.player_name) as contributors
-            FROM contributions c
-            LEFT JOIN contributors ct ON c.id = ct.contribution_id
-            WHERE c.id = ?
-            GROUP BY c.id
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    Contribution contribution = new Contribution();
-                    setContributionFromResultSet(contribution, rs);
-                    
-                    // 获取贡献者列表
-                    String sql2 = """
-                        SELECT player_uuid, player_name, level, inviter_uuid
-                        FROM contributors
-                        WHERE contribution_id = ?
-                        ORDER BY level ASC, player_name ASC
-                    """;
-                    
-                    try (PreparedStatement pstmt2 = conn.prepareStatement(sql2)) {
-                        pstmt2.setInt(1, id);
-                        try (ResultSet rs2 = pstmt2.executeQuery()) {
-                            List<ContributorInfo> contributorList = new ArrayList<>();
-                            while (rs2.next()) {
-                                ContributorInfo info = new ContributorInfo();
-                                info.setPlayerUuid(UUID.fromString(rs2.getString("player_uuid")));
-                                info.setPlayerName(rs2.getString("player_name"));
-                                info.setLevel(rs2.getInt("level"));
-                                String inviterUuid = rs2.getString("inviter_uuid");
-                                if (inviterUuid != null) {
-                                    info.setInviterUuid(UUID.fromString(inviterUuid));
-                                }
-                                contributorList.add(info);
-                            }
-                            contribution.setContributorList(contributorList);
-                        }
-                    }
-                    
-                    // 更新缓存
-                    contributionByIdCache.put(id, contribution.copy());
-                    lastCacheUpdateTime.put(cacheKey, System.currentTimeMillis());
-                    
-                    return contribution;
+    }
+
+    /**
+     * 列出所有备份
+     * @return 备份名称，从新到旧排列
+     */
+    public static List<String> listBackups() {
+        return backupDir == null ? new ArrayList<>() : DatabaseBackup.list(backupDir);
+    }
+
+    /**
+     * 从备份恢复数据库
+     * 恢复前先备份当前数据；恢复期间写入线程暂停，新的修改直接失败，查询仍使用恢复前的内存数据，
+     * 恢复完成后升级结构版本并重新加载内存数据。不应在服务器主线程上调用
+     * @param backupName {@link #listBackups} 返回的备份名称
+     * @throws SQLException 如果备份不存在、已有备份或恢复正在进行，或恢复失败
+     */
+    public static void restore(String backupName) throws SQLException {
+        File source = DatabaseBackup.resolve(backupDir, backupName);
+        if (!backupRunning.compareAndSet(false, true)) {
+            throw new SQLException("已有备份或恢复正在进行");
+        }
+        try {
+            // 恢复有误时还可以恢复回来；先不清理旧备份，避免删掉正要恢复的备份
+            createBackup();
+
+            DatabaseWriter current = writer;
+            writer = null;
+            if (current != null) {
+                current.shutdown();
+            }
+            try {
+                try (Connection conn = getWriteConnection()) {
+                    long previousSeq = ContributionChangeLog.getLatestSeq(conn);
+                    DatabaseBackup.restore(conn, source, BackupConfig.getPagesPerStep());
+                    SchemaMigrations.migrate(conn);
+                    ContributionChangeLog.markRestored(conn, previousSeq);
                 }
+                reloadStore();
+                LOGGER.info("数据库已从备份{}恢复", backupName);
+            } finally {
+                writer = new DatabaseWriter(DatabaseManager::getWriteConnection);
             }
+            DatabaseBackup.rotate(backupDir, BackupConfig.getGenerations());
+        } finally {
+            backupRunning.set(false);
         }
-        return null;
+    }
+
+    public static Contribution getContributionById(int id) throws SQLException {
+        return requireStore().get(id);
     }
 
     public static int getLastInsertId() throws SQLException {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            try (ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+        // last_insert_rowid 属于写入连接，需要在写入线程上读取
+        return DatabaseFutures.await(submitWrite(conn -> {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
                 if (rs.next()) {
                     return rs.getInt(1);
                 }
             }
-        }
-        throw new SQLException("无法获取最后插入的ID");
+            throw new SQLException("无法获取最后插入的ID");
+        }, null));
     }
 
+    /**
+     * 检查管理者是否可以管理目标贡献者
+     * @param contributionId 贡献ID
+     * @param managerUuid 管理者UUID
+     * @param targetUuid 目标贡献者UUID
+     * @return true如果两人都是该贡献的贡献者，且管理者的级别小于目标的级别
+     */
     public static boolean canManageContributor(int contributionId, UUID managerUuid, UUID targetUuid) throws SQLException {
-        String sql = """
-            SELECT c1.level as manager_level, c2.level as target_level
-            FROM contributors c1
-            JOIN contributors c2 ON c1.contribution_id = c2.contribution_id
-            WHERE c1.contribution_id = ? AND c1.player_uuid = ? AND c2.player_uuid = ?
-        """;
+        ContributionStore current = requireStore();
+        ContributorInfo manager = current.getContributor(contributionId, managerUuid);
+        ContributorInfo target = current.getContributor(contributionId, targetUuid);
+        return manager != null && target != null && manager.getLevel() < target.getLevel();
+    }
+
+    /**
+     * 检查一个贡献者是否是另一个贡献者的上级（直接或间接邀请了对方），通过闭包表一次索引查找完成
+     * @param contributionId 贡献ID
+     * @param ancestorUuid 可能的上级
+     * @param descendantUuid 可能的下级
+     * @return true如果ancestorUuid是descendantUuid的上级
+     */
+    public static boolean isAncestor(int contributionId, UUID ancestorUuid, UUID descendantUuid) throws SQLException {
+        try (Connection conn = getConnection()) {
+            return ContributorHierarchy.isAncestor(conn, contributionId, ancestorUuid, descendantUuid);
+        }
+    }
+
+    /**
+     * 获取一个贡献者直接和间接邀请的所有下级
+     * @param contributionId 贡献ID
+     * @param playerUuid 上级的UUID
+     * @return 下级贡献者信息列表，按与上级相隔的层数从近到远排列
+     */
+    public static List<ContributorInfo> getSubordinates(int contributionId, UUID playerUuid) throws SQLException {
+        ContributionStore current = requireStore();
+        List<UUID> descendants;
+        try (Connection conn = getConnection()) {
+            descendants = ContributorHierarchy.getDescendants(conn, contributionId, playerUuid);
+        }
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            pstmt.setString(2, managerUuid.toString());
-            pstmt.setString(3, targetUuid.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    int managerLevel = rs.getInt("manager_level");
-                    int targetLevel = rs.getInt("target_level");
-                    return managerLevel < targetLevel;
-                }
+        List<ContributorInfo> result = new ArrayList<>(descendants.size());
+        for (UUID descendant : descendants) {
+            ContributorInfo info = current.getContributor(contributionId, descendant);
+            if (info != null) {
+                result.add(info);
             }
         }
-        return false;
+        return result;
+    }
+
+    /**
+     * 获取贡献者在邀请树中的深度
+     * @param contributionId 贡献ID
+     * @param playerUuid 玩家UUID
+     * @return 没有上级的贡献者为0，每多一级上级加一；不是贡献者时返回-1
+     */
+    public static int getContributorDepth(int contributionId, UUID playerUuid) throws SQLException {
+        try (Connection conn = getConnection()) {
+            return ContributorHierarchy.getDepth(conn, contributionId, playerUuid);
+        }
     }
 
     /**
@@ -573,25 +767,8 @@ public class DatabaseManager {
      * @return true如果玩家是一级贡献者
      */
     public static boolean isLevelOneContributor(int contributionId, UUID playerUuid) throws SQLException {
-        String sql = """
-            SELECT level
-            FROM contributors
-            WHERE contribution_id = ? AND player_uuid = ?
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            pstmt.setString(2, playerUuid.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    int level = rs.getInt("level");
-                    return level == 1;
-                }
-            }
-        }
-        return false;
+        ContributorInfo info = requireStore().getContributor(contributionId, playerUuid);
+        return info != null && info.getLevel() == 1;
     }
 
     /**
@@ -601,33 +778,12 @@ public class DatabaseManager {
      * @return 上级贡献者的信息，如果没有上级则返回null
      */
     public static ContributorInfo getContributorSuperior(int contributionId, UUID playerUuid) throws SQLException {
-        String sql = """
-            SELECT c.player_uuid, c.player_name, c.level
-            FROM contributors c
-            WHERE c.contribution_id = ? AND c.player_uuid = (
-                SELECT inviter_uuid 
-                FROM contributors 
-                WHERE contribution_id = ? AND player_uuid = ?
-            )
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            pstmt.setInt(2, contributionId);
-            pstmt.setString(3, playerUuid.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    ContributorInfo superior = new ContributorInfo();
-                    superior.setPlayerUuid(UUID.fromString(rs.getString("player_uuid")));
-                    superior.setPlayerName(rs.getString("player_name"));
-                    superior.setLevel(rs.getInt("level"));
-                    return superior;
-                }
-            }
+        ContributionStore current = requireStore();
+        ContributorInfo info = current.getContributor(contributionId, playerUuid);
+        if (info == null || info.getInviterUuid() == null) {
+            return null;
         }
-        return null;
+        return current.getContributor(contributionId, info.getInviterUuid());
     }
 
     /**
@@ -637,32 +793,7 @@ public class DatabaseManager {
      * @return 如果是贡献者，返回贡献者信息；否则返回null
      */
     public static ContributorInfo getContributorInfo(int contributionId, UUID playerUuid) throws SQLException {
-        String sql = """
-            SELECT player_uuid, player_name, level, inviter_uuid
-            FROM contributors
-            WHERE contribution_id = ? AND player_uuid = ?
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            pstmt.setString(2, playerUuid.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    ContributorInfo info = new ContributorInfo();
-                    info.setPlayerUuid(UUID.fromString(rs.getString("player_uuid")));
-                    info.setPlayerName(rs.getString("player_name"));
-                    info.setLevel(rs.getInt("level"));
-                    String inviterUuid = rs.getString("inviter_uuid");
-                    if (inviterUuid != null) {
-                        info.setInviterUuid(UUID.fromString(inviterUuid));
-                    }
-                    return info;
-                }
-            }
-        }
-        return null;
+        return requireStore().getContributor(contributionId, playerUuid);
     }
 
     /**
@@ -671,34 +802,7 @@ public class DatabaseManager {
      * @return 贡献者信息列表
      */
     public static List<ContributorInfo> getContributorsByContributionId(int contributionId) throws SQLException {
-        List<ContributorInfo> contributors = new ArrayList<>();
-        String sql = """
-            SELECT player_uuid, player_name, level, inviter_uuid
-            FROM contributors
-            WHERE contribution_id = ?
-            ORDER BY level ASC, player_name ASC
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    ContributorInfo info = new ContributorInfo();
-                    info.setPlayerUuid(UUID.fromString(rs.getString("player_uuid")));
-                    info.setPlayerName(rs.getString("player_name"));
-                    info.setLevel(rs.getInt("level"));
-                    String inviterUuid = rs.getString("inviter_uuid");
-                    if (inviterUuid != null) {
-                        info.setInviterUuid(UUID.fromString(inviterUuid));
-                    }
-                    contributors.add(info);
-                }
-            }
-        }
-        
-        return contributors;
+        return requireStore().getContributors(contributionId);
     }
 
     /**
@@ -706,74 +810,52 @@ public class DatabaseManager {
      * @return 贡献列表
      */
     public static List<Contribution> getAllContributions() throws SQLException {
-        // 检查缓存
-        String cacheKey = "all_contributions";
-        Long lastUpdate = lastCacheUpdateTime.get(cacheKey);
-        long now = System.currentTimeMillis();
-        
-        if (lastUpdate != null && now - lastUpdate < CACHE_EXPIRE_TIME) {
-            List<Contribution> cachedList = contributionCache.get(cacheKey);
-            if (cachedList != null) {
-                LOGGER.debug("使用缓存获取所有贡献，共{}条", cachedList.size());
-                return new ArrayList<>(cachedList);
-            }
-        }
-        
-        List<Contribution> contributions = new ArrayList<>();
-        String sql = """
-            SELECT c.*, 
-                   (SELECT player_name FROM contributors WHERE contribution_id = c.id AND player_uuid = c.creator_uuid) as creator_name,
-                   GROUP_CONCAT(ct.player_name) as contributors
-            FROM contributions c
-            LEFT JOIN contributors ct ON c.id = ct.contribution_id
-            GROUP BY c.id
-            ORDER BY c.created_at DESC
-        """;
-        
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Contribution contribution = new Contribution();
-                setContributionFromResultSet(contribution, rs);
-                
-                // 获取贡献者列表
-                String sql2 = """
-                    SELECT player_uuid, player_name, level, inviter_uuid
-                    FROM contributors
-                    WHERE contribution_id = ?
-                    ORDER BY level ASC, player_name ASC
-                """;
-                
-                try (PreparedStatement pstmt2 = conn.prepareStatement(sql2)) {
-                    pstmt2.setInt(1, contribution.getId());
-                    try (ResultSet rs2 = pstmt2.executeQuery()) {
-                        List<ContributorInfo> contributorList = new ArrayList<>();
-                        while (rs2.next()) {
-                            ContributorInfo info = new ContributorInfo();
-                            info.setPlayerUuid(UUID.fromString(rs2.getString("player_uuid")));
-                            info.setPlayerName(rs2.getString("player_name"));
-                            info.setLevel(rs2.getInt("level"));
-                            String inviterUuid = rs2.getString("inviter_uuid");
-                            if (inviterUuid != null) {
-                                info.setInviterUuid(UUID.fromString(inviterUuid));
-                            }
-                            contributorList.add(info);
-                        }
-                        contribution.setContributorList(contributorList);
-                    }
-                }
-                
-                contributions.add(contribution);
-            }
-        }
-        
-        // 更新缓存
-        contributionCache.put(cacheKey, new ArrayList<>(contributions));
-        lastCacheUpdateTime.put(cacheKey, System.currentTimeMillis());
-        
-        LOGGER.debug("从数据库获取所有贡献，共{}条", contributions.size());
-        return contributions;
+        return requireStore().getAll();
+    }
+
+    /**
+     * 获取游标之后的一页贡献（按创建时间倒序）
+     * 使用 (created_at, id) 键集游标翻页，每页的开销与总数据量无关
+     * @param after 上一页最后一条贡献的游标，为null时返回第一页
+     * @param limit 每页数量
+     * @return 分页结果
+     */
+    public static ContributionPage getContributionsAfter(ContributionCursor after, int limit) throws SQLException {
+        return requireStore().getPageAfter(after, limit);
+    }
+
+    /**
+     * 获取游标之前的一页贡献（按创建时间倒序）
+     * @param before 下一页第一条贡献的游标
+     * @param limit 每页数量
+     * @return 分页结果
+     */
+    public static ContributionPage getContributionsBefore(ContributionCursor before, int limit) throws SQLException {
+        return requireStore().getPageBefore(before, limit);
+    }
+
+    /**
+     * 按页码获取贡献（按创建时间倒序），页码越大需要跳过的记录越多
+     * @param pageNumber 从1开始的页码
+     * @param limit 每页数量
+     * @return 分页结果
+     */
+    public static ContributionPage getContributionPage(int pageNumber, int limit) throws SQLException {
+        return requireStore().getPage(pageNumber, limit);
+    }
+
+    /**
+     * 获取贡献总数
+     */
+    public static int getContributionCount() throws SQLException {
+        return requireStore().size();
+    }
+
+    /**
+     * 获取贡献总数以及各类型和各世界的贡献数量
+     */
+    public static ContributionStats getContributionStats() throws SQLException {
+        return requireStore().getStats();
     }
 
     /**
@@ -782,20 +864,7 @@ public class DatabaseManager {
      * @return 贡献者数量
      */
     public static int getContributorCount(int contributionId) throws SQLException {
-        String sql = "SELECT COUNT(*) as count FROM contributors WHERE contribution_id = ?";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("count");
-                }
-            }
-        }
-        
-        return 0;
+        return requireStore().getContributorCount(contributionId);
     }
 
     /**
@@ -803,8 +872,20 @@ public class DatabaseManager {
      * @throws SQLException 如果关闭连接时发生错误
      */
     public static void close() throws SQLException {
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
+        // 先写完队列中剩余的修改再关闭连接池
+        if (writer != null) {
+            writer.shutdown();
+            writer = null;
+        }
+        if (queryExecutor != null) {
+            queryExecutor.shutdown();
+            queryExecutor = null;
+        }
+        if (readDataSource != null && !readDataSource.isClosed()) {
+            readDataSource.close();
+        }
+        if (writeDataSource != null && !writeDataSource.isClosed()) {
+            writeDataSource.close();
         }
         clearAllCaches();
     }
@@ -816,20 +897,7 @@ public class DatabaseManager {
      * @return true如果玩家是该贡献的贡献者
      */
     public static boolean isContributor(int contributionId, UUID playerUuid) {
-        try {
-            String sql = "SELECT 1 FROM contributors WHERE contribution_id = ? AND player_uuid = ?";
-            try (Connection conn = getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, contributionId);
-                pstmt.setString(2, playerUuid.toString());
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    return rs.next(); // 如果有结果，则是贡献者
-                }
-            }
-        } catch (SQLException e) {
-            LOGGER.error("检查贡献者失败", e);
-            return false;
-        }
+        return store.getContributor(contributionId, playerUuid) != null;
     }
 
     /**
@@ -838,45 +906,31 @@ public class DatabaseManager {
      * @return 贡献对象，不存在则返回null
      */
     public static Contribution getContributionByName(String name) {
-        try {
-            String sql = """
-                SELECT c.*, GROUP_CONCAT(ct.player_name) as contributors,
-                       (SELECT player_name FROM contributors WHERE contribution_id = c.id AND player_uuid = c.creator_uuid) as creator_name
-                FROM contributions c
-                LEFT JOIN contributors ct ON c.id = ct.contribution_id
-                WHERE c.name = ?
-                GROUP BY c.id
-            """;
-            try (Connection conn = getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, name);
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    if (rs.next()) {
-                        Contribution contribution = new Contribution();
-                        setContributionFromResultSet(contribution, rs);
-                        return contribution;
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            LOGGER.error("获取贡献失败", e);
-        }
-        return null;
+        return store.findByName(name);
     }
 
-    private static void setContributionFromResultSet(Contribution contribution, ResultSet rs) throws SQLException {
-        contribution.setId(rs.getInt("id"));
-        contribution.setName(rs.getString("name"));
-        contribution.setType(rs.getString("type"));
-        contribution.setGameId(rs.getString("game_id"));
-        contribution.setX(rs.getDouble("x"));
-        contribution.setY(rs.getDouble("y"));
-        contribution.setZ(rs.getDouble("z"));
-        contribution.setWorld(rs.getString("world"));
-        contribution.setCreatedAt(rs.getTimestamp("created_at").getTime());
-        contribution.setContributors(rs.getString("contributors"));
-        contribution.setCreatorUuid(UUID.fromString(rs.getString("creator_uuid")));
-        contribution.setCreatorName(rs.getString("creator_name"));
+    /**
+     * 按名称和类型全文搜索贡献，短于 {@link ContributionSearch#MIN_TERM_LENGTH} 个字符的词通过 LIKE 匹配
+     * @param query 搜索文本，按空白拆分为多个词，所有词都需匹配
+     * @param limit 最多返回的结果数
+     * @return 按相关度排序的贡献列表
+     * @throws SQLException 如果查询失败
+     */
+    public static List<Contribution> searchContributions(String query, int limit) throws SQLException {
+        ContributionStore current = requireStore();
+        List<Integer> ids;
+        try (Connection conn = getConnection()) {
+            ids = ContributionSearch.search(conn, query, limit);
+        }
+        
+        List<Contribution> results = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            Contribution contribution = current.get(id);
+            if (contribution != null) {
+                results.add(contribution);
+            }
+        }
+        return results;
     }
 
     /**
@@ -885,31 +939,7 @@ public class DatabaseManager {
      * @return 贡献列表
      */
     public static List<Contribution> getAllContributionsByCreator(UUID creatorUuid) throws SQLException {
-        List<Contribution> contributions = new ArrayList<>();
-        String sql = """
-            SELECT c.*, GROUP_CONCAT(ct.player_name) as contributors,
-                   (SELECT player_name FROM contributors WHERE contribution_id = c.id AND player_uuid = c.creator_uuid) as creator_name
-            FROM contributions c
-            LEFT JOIN contributors ct ON c.id = ct.contribution_id
-            WHERE c.creator_uuid = ?
-            GROUP BY c.id
-            ORDER BY c.created_at DESC
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, creatorUuid.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Contribution contribution = new Contribution();
-                    setContributionFromResultSet(contribution, rs);
-                    contributions.add(contribution);
-                }
-            }
-        }
-        
-        return contributions;
+        return requireStore().getByCreator(creatorUuid);
     }
 
     /**
@@ -919,21 +949,8 @@ public class DatabaseManager {
      * @return true如果玩家是贡献的创建者，否则返回false
      */
     public static boolean isContributionCreator(int contributionId, UUID playerUuid) throws SQLException {
-        String sql = """
-            SELECT 1
-            FROM contributions
-            WHERE id = ? AND creator_uuid = ?
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            pstmt.setString(2, playerUuid.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                return rs.next(); // 如果有记录，则玩家是创建者
-            }
-        }
+        Contribution contribution = requireStore().get(contributionId);
+        return contribution != null && playerUuid.equals(contribution.getCreatorUuid());
     }
 
     /**
@@ -943,35 +960,15 @@ public class DatabaseManager {
      * @return 如果找到，返回玩家UUID，否则返回null
      */
     public static UUID getPlayerUuidByName(String playerName, int contributionId) throws SQLException {
-        String sql = """
-            SELECT player_uuid
-            FROM contributors
-            WHERE contribution_id = ? AND player_name = ?
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, contributionId);
-            pstmt.setString(2, playerName);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    String uuidStr = rs.getString("player_uuid");
-                    return UUID.fromString(uuidStr);
-                }
-            }
-        }
-        return null;
+        return requireStore().findPlayerUuid(contributionId, playerName);
     }
 
     /**
-     * 清除所有缓存
+     * 清除内存中的所有数据
      */
     public static void clearAllCaches() {
-        contributionCache.clear();
-        contributionByIdCache.clear();
-        lastCacheUpdateTime.clear();
-        LOGGER.debug("已清除所有数据库查询缓存");
+        store.clear();
+        LOGGER.debug("已清除内存中的贡献数据");
     }
     
     /**
@@ -981,27 +978,58 @@ public class DatabaseManager {
      * @throws SQLException 如果查询过程中发生SQL错误
      */
     public static List<ContributorInfo> findPlayerByName(String playerName) throws SQLException {
-        List<ContributorInfo> result = new ArrayList<>();
-        String sql = """
-            SELECT DISTINCT player_uuid, player_name
-            FROM contributors
-            WHERE player_name LIKE ?
-        """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, "%" + playerName + "%");
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    ContributorInfo info = new ContributorInfo();
-                    info.setPlayerUuid(UUID.fromString(rs.getString("player_uuid")));
-                    info.setPlayerName(rs.getString("player_name"));
-                    result.add(info);
+        return requireStore().findPlayersByName(playerName);
+    }
+
+    /**
+     * 查找名称与输入相似的玩家，用于输入的名称找不到时给出提示
+     * @param playerName 输入的玩家名称
+     * @param limit 最多返回的数量
+     * @return 按相似度排列的玩家信息列表
+     * @throws SQLException 如果数据尚未加载
+     */
+    public static List<ContributorInfo> findSimilarPlayers(String playerName, int limit) throws SQLException {
+        return requireStore().findSimilarPlayers(playerName, limit);
+    }
+
+    // ==================== 异步执行 ====================
+    // 以下方法在数据库线程池中执行，返回的Future以SQLException异常完成表示失败。
+    // 调用方应在回调中通过 server.execute 回到服务器主线程再操作游戏对象。
+
+    /**
+     * 在数据库线程池中执行任意查询，可以组合多个同步查询
+     * @param call 要执行的查询
+     * @return 查询完成后完成的Future
+     */
+    public static <T> CompletableFuture<T> supplyAsync(DatabaseCall<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ExecutorService executor = queryExecutor;
+        if (executor == null) {
+            future.completeExceptionally(new SQLException("数据库连接池未初始化"));
+            return future;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(call.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
                 }
-            }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new SQLException("数据库线程池已关闭", e));
         }
-        
-        return result;
+        return future;
+    }
+
+    public static CompletableFuture<File> backupAsync() {
+        return supplyAsync(DatabaseManager::backup);
+    }
+
+    public static CompletableFuture<Void> restoreAsync(String backupName) {
+        return supplyAsync(() -> {
+            restore(backupName);
+            return null;
+        });
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,210 @@
+package com.example.contribtracker.database;
+
+import com.example.contribtracker.ContribTrackerMod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 单线程数据库写入器
+ * SQLite同一时间只允许一个写事务，所有修改都通过队列交给唯一的写入线程执行。
+ * 写入线程每次取出队列中积压的所有任务（最多 {@value #MAX_BATCH_SIZE} 个），放在同一个事务里提交，
+ * 多个玩家同时操作时只需一次提交（一次fsync），也不会因为多个连接争抢写锁而出现 SQLITE_BUSY。
+ *
+ * 每个任务在自己的保存点中执行，单个任务失败只回滚该任务，不影响同一批中的其他任务。
+ * 事务提交成功后才执行任务的提交回调（用于同步内存数据）并完成对应的Future。
+ */
+public class DatabaseWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
+
+    /** 每个事务最多包含的任务数 */
+    static final int MAX_BATCH_SIZE = 64;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    /**
+     * 在写入线程上执行的数据库操作
+     */
+    @FunctionalInterface
+    public interface WriteTask<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    /**
+     * 提供写入连接
+     */
+    @FunctionalInterface
+    public interface ConnectionProvider {
+        Connection getConnection() throws SQLException;
+    }
+
+    private static class PendingWrite<T> {
+        private final WriteTask<T> task;
+        private final Consumer<T> onCommit;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private SQLException error;
+
+        private PendingWrite(WriteTask<T> task, Consumer<T> onCommit) {
+            this.task = task;
+            this.onCommit = onCommit;
+        }
+
+        private void execute(Connection conn) throws SQLException {
+            result = task.execute(conn);
+        }
+
+        private void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
+            }
+            try {
+                if (onCommit != null) {
+                    onCommit.accept(result);
+                }
+                future.complete(result);
+            } catch (RuntimeException e) {
+                LOGGER.error("同步写入结果失败", e);
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private final ConnectionProvider connectionProvider;
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public DatabaseWriter(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+        this.thread = new Thread(this::run, "ContribTracker-DatabaseWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 提交一个写入任务
+     * @param task 在写入线程上执行的数据库操作
+     * @param onCommit 事务提交成功后执行的回调，可以为null
+     * @return 事务提交并执行回调后完成的Future，任务或提交失败时以SQLException异常完成
+     */
+    public <T> CompletableFuture<T> submit(WriteTask<T> task, Consumer<T> onCommit) {
+        PendingWrite<T> write = new PendingWrite<>(task, onCommit);
+        if (!running) {
+            write.future.completeExceptionally(new SQLException("数据库写入线程已关闭"));
+            return write.future;
+        }
+        queue.add(write);
+        return write.future;
+    }
+
+    /**
+     * 停止接收新任务，等待队列中剩余的任务写入完成
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            LOGGER.warn("数据库写入线程未能在{}秒内完成剩余任务", SHUTDOWN_TIMEOUT_SECONDS);
+        }
+        // 关闭后仍未处理的任务直接失败，避免调用方一直等待
+        PendingWrite<?> write;
+        while ((write = queue.poll()) != null) {
+            write.future.completeExceptionally(new SQLException("数据库写入线程已关闭"));
+        }
+    }
+
+    private void run() {
+        List<PendingWrite<?>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 取出前一个事务提交期间积压的任务，一起提交
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 在一个事务中执行一批任务
+     */
+    private void writeBatch(List<PendingWrite<?>> batch) {
+        try (Connection conn = connectionProvider.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (PendingWrite<?> write : batch) {
+                    executeInSavepoint(conn, write);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                rollback(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            LOGGER.debug("已在一个事务中提交{}个写入任务", batch.size());
+        } catch (SQLException e) {
+            LOGGER.error("提交数据库事务失败", e);
+            for (PendingWrite<?> write : batch) {
+                write.error = e;
+            }
+        }
+
+        for (PendingWrite<?> write : batch) {
+            write.complete();
+        }
+    }
+
+    /**
+     * 在保存点中执行单个任务，失败时只回滚该任务
+     */
+    private void executeInSavepoint(Connection conn, PendingWrite<?> write) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SAVEPOINT write_task");
+            try {
+                write.execute(conn);
+                stmt.execute("RELEASE write_task");
+            } catch (SQLException e) {
+                stmt.execute("ROLLBACK TO write_task");
+                stmt.execute("RELEASE write_task");
+                write.error = e;
+            } catch (RuntimeException e) {
+                stmt.execute("ROLLBACK TO write_task");
+                stmt.execute("RELEASE write_task");
+                write.error = new SQLException("写入任务执行失败", e);
+            }
+        }
+    }
+
+    private static void rollback(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException ex) {
+            LOGGER.error("回滚事务失败", ex);
+        }
+    }
+}
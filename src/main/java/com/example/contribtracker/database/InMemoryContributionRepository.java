@@ -0,0 +1,466 @@
+package com.example.contribtracker.database;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 只保存在内存中的贡献存取实现，用于基准测试和测试
+ * 不依赖SQLite和Fabric，进程结束后数据即丢失。所有操作都在调用线程上立即完成，
+ * 返回的Future在返回时就已完成。约束与SQLite实现一致：贡献者必须属于已存在的贡献，同一贡献中不能重复添加。
+ */
+public class InMemoryContributionRepository implements ContributionRepository {
+    /** 邀请关系的最大层数，与闭包表回填时的限制一致，防止数据中存在环 */
+    private static final int MAX_DEPTH = 64;
+
+    private final ContributionStore store = new ContributionStore();
+    private final Deque<ContributionChange> changes = new ArrayDeque<>();
+    private int nextContributionId = 1;
+    private long latestSeq = 0;
+    private long horizon = 0;
+
+    public InMemoryContributionRepository() {
+        store.load(List.of());
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    // ==================== 贡献查询 ====================
+
+    @Override
+    public Contribution getContributionById(int id) {
+        return store.get(id);
+    }
+
+    @Override
+    public Contribution getContributionByName(String name) {
+        return store.findByName(name);
+    }
+
+    @Override
+    public List<Contribution> getAllContributions() {
+        return store.getAll();
+    }
+
+    @Override
+    public List<Contribution> getAllContributionsByCreator(UUID creatorUuid) {
+        return store.getByCreator(creatorUuid);
+    }
+
+    @Override
+    public ContributionPage getContributionsAfter(ContributionCursor after, int limit) {
+        return store.getPageAfter(after, limit);
+    }
+
+    @Override
+    public ContributionPage getContributionsBefore(ContributionCursor before, int limit) {
+        return store.getPageBefore(before, limit);
+    }
+
+    @Override
+    public ContributionPage getContributionPage(int pageNumber, int limit) {
+        return store.getPage(pageNumber, limit);
+    }
+
+    @Override
+    public int getContributionCount() {
+        return store.size();
+    }
+
+    @Override
+    public ContributionStats getContributionStats() {
+        return store.getStats();
+    }
+
+    @Override
+    public List<Contribution> getContributionsInBox(String world, double minX, double minY, double minZ,
+                                                    double maxX, double maxY, double maxZ) {
+        return store.findInBox(world, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * 逐条比较名称和类型：所有词都出现在名称或类型中的贡献才算匹配，
+     * 所有词都出现在名称中的排在前面，其余按创建时间倒序
+     */
+    @Override
+    public List<Contribution> searchContributions(String query, int limit) {
+        List<String> terms = new ArrayList<>();
+        for (String term : ContributionSearch.splitTerms(query)) {
+            terms.add(term.toLowerCase(Locale.ROOT));
+        }
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Contribution> nameMatches = new ArrayList<>();
+        List<Contribution> otherMatches = new ArrayList<>();
+        for (Contribution contribution : store.getAll()) {
+            String name = contribution.getName() != null ? contribution.getName().toLowerCase(Locale.ROOT) : "";
+            String type = contribution.getType() != null ? contribution.getType().toLowerCase(Locale.ROOT) : "";
+            boolean allInName = true;
+            boolean allFound = true;
+            for (String term : terms) {
+                boolean inName = name.contains(term);
+                allInName &= inName;
+                allFound &= inName || type.contains(term);
+            }
+            if (allInName) {
+                nameMatches.add(contribution);
+            } else if (allFound) {
+                otherMatches.add(contribution);
+            }
+        }
+
+        nameMatches.addAll(otherMatches);
+        int max = Math.max(1, Math.min(limit, ContributionSearch.MAX_RESULTS));
+        return new ArrayList<>(nameMatches.subList(0, Math.min(max, nameMatches.size())));
+    }
+
+    // ==================== 贡献者查询 ====================
+
+    @Override
+    public ContributorInfo getContributorInfo(int contributionId, UUID playerUuid) {
+        return store.getContributor(contributionId, playerUuid);
+    }
+
+    @Override
+    public List<ContributorInfo> getContributorsByContributionId(int contributionId) {
+        return store.getContributors(contributionId);
+    }
+
+    @Override
+    public int getContributorCount(int contributionId) {
+        return store.getContributorCount(contributionId);
+    }
+
+    /**
+     * 沿邀请者逐级向上查找
+     */
+    @Override
+    public boolean isAncestor(int contributionId, UUID ancestorUuid, UUID descendantUuid) {
+        ContributorInfo current = store.getContributor(contributionId, descendantUuid);
+        for (int depth = 0; current != null && current.getInviterUuid() != null && depth < MAX_DEPTH; depth++) {
+            if (current.getInviterUuid().equals(ancestorUuid)) {
+                return store.getContributor(contributionId, ancestorUuid) != null;
+            }
+            current = store.getContributor(contributionId, current.getInviterUuid());
+        }
+        return false;
+    }
+
+    /**
+     * 从上级开始按层展开邀请关系
+     */
+    @Override
+    public List<ContributorInfo> getSubordinates(int contributionId, UUID playerUuid) {
+        List<ContributorInfo> contributors = store.getContributors(contributionId);
+        List<ContributorInfo> result = new ArrayList<>();
+        if (store.getContributor(contributionId, playerUuid) == null) {
+            return result;
+        }
+
+        Set<UUID> visited = new HashSet<>();
+        visited.add(playerUuid);
+        List<UUID> level = List.of(playerUuid);
+        for (int depth = 0; !level.isEmpty() && depth < MAX_DEPTH; depth++) {
+            List<UUID> next = new ArrayList<>();
+            for (ContributorInfo info : contributors) {
+                if (info.getInviterUuid() != null && level.contains(info.getInviterUuid())
+                        && visited.add(info.getPlayerUuid())) {
+                    result.add(info);
+                    next.add(info.getPlayerUuid());
+                }
+            }
+            level = next;
+        }
+        return result;
+    }
+
+    @Override
+    public int getContributorDepth(int contributionId, UUID playerUuid) {
+        ContributorInfo current = store.getContributor(contributionId, playerUuid);
+        if (current == null) {
+            return -1;
+        }
+        int depth = 0;
+        while (current.getInviterUuid() != null && depth < MAX_DEPTH) {
+            ContributorInfo inviter = store.getContributor(contributionId, current.getInviterUuid());
+            if (inviter == null) {
+                break;
+            }
+            current = inviter;
+            depth++;
+        }
+        return depth;
+    }
+
+    // ==================== 玩家查询 ====================
+
+    @Override
+    public UUID getPlayerUuidByName(String playerName, int contributionId) {
+        return store.findPlayerUuid(contributionId, playerName);
+    }
+
+    @Override
+    public List<ContributorInfo> findPlayerByName(String playerName) {
+        return store.findPlayersByName(playerName);
+    }
+
+    @Override
+    public List<ContributorInfo> findSimilarPlayers(String playerName, int limit) {
+        return store.findSimilarPlayers(playerName, limit);
+    }
+
+    // ==================== 变更日志 ====================
+
+    @Override
+    public synchronized long getChangeLogPosition() {
+        return latestSeq;
+    }
+
+    @Override
+    public synchronized ContributionChanges getChangesSince(long afterSeq, int limit) {
+        if (afterSeq < horizon) {
+            return new ContributionChanges(List.of(), afterSeq, true);
+        }
+        int max = Math.max(1, Math.min(limit, ContributionChangeLog.MAX_READ));
+        List<ContributionChange> result = new ArrayList<>();
+        long position = afterSeq;
+        for (ContributionChange change : changes) {
+            if (result.size() >= max) {
+                break;
+            }
+            if (change.getSeq() > afterSeq) {
+                result.add(change);
+                position = change.getSeq();
+            }
+        }
+        return new ContributionChanges(result, position, false);
+    }
+
+    /**
+     * 追加一条变更，超出 {@link ContributionChangeLog#MAX_ROWS} 时丢弃最旧的记录并推进保留起点
+     */
+    private void appendChange(long seq, long changedAt, int contributionId, ContributionChange.Type type, UUID playerUuid) {
+        latestSeq = seq;
+        changes.addLast(new ContributionChange(seq, contributionId, type, playerUuid, changedAt));
+        while (changes.size() > ContributionChangeLog.MAX_ROWS) {
+            horizon = changes.removeFirst().getSeq();
+        }
+    }
+
+    // ==================== 修改 ====================
+    // 每个修改先检查约束，再调用对应的persist方法（子类在这里持久化），最后调用apply方法修改内存。
+    // 每个生效的修改恰好产生一条变更，变更序号同时作为修改的序号。
+
+    @Override
+    public synchronized CompletableFuture<Contribution> addContributionAsync(String name, String type, String gameId,
+                                                                             double x, double y, double z, String world,
+                                                                             UUID creatorUuid) {
+        long seq = latestSeq + 1;
+        Contribution contribution = new Contribution();
+        contribution.setId(nextContributionId);
+        contribution.setName(name);
+        contribution.setType(type);
+        contribution.setGameId(gameId);
+        contribution.setX(x);
+        contribution.setY(y);
+        contribution.setZ(z);
+        contribution.setWorld(world);
+        contribution.setCreatorUuid(creatorUuid);
+        contribution.setCreatedAt(System.currentTimeMillis());
+        try {
+            persistContribution(seq, contribution);
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        applyContribution(seq, contribution);
+        return CompletableFuture.completedFuture(contribution);
+    }
+
+    @Override
+    public synchronized CompletableFuture<ContributorInfo> addContributorAsync(int contributionId, UUID playerUuid,
+                                                                               String playerName, String note,
+                                                                               UUID inviterUuid) {
+        if (store.get(contributionId) == null) {
+            return CompletableFuture.failedFuture(new SQLException("找不到ID为 " + contributionId + " 的贡献"));
+        }
+        if (store.getContributor(contributionId, playerUuid) != null) {
+            return CompletableFuture.failedFuture(new SQLException("玩家已经是该贡献的贡献者"));
+        }
+
+        long seq = latestSeq + 1;
+        long changedAt = System.currentTimeMillis();
+        ContributorInfo info = new ContributorInfo();
+        info.setContributionId(contributionId);
+        info.setPlayerUuid(playerUuid);
+        info.setPlayerName(playerName);
+        info.setInviterUuid(inviterUuid);
+        info.setLevel(store.computeLevel(contributionId, inviterUuid));
+        try {
+            persistContributor(seq, changedAt, info);
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        applyContributor(seq, changedAt, info);
+        return CompletableFuture.completedFuture(info);
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> deleteContributionAsync(int contributionId) {
+        if (store.get(contributionId) != null) {
+            long seq = latestSeq + 1;
+            long changedAt = System.currentTimeMillis();
+            try {
+                persistContributionDeleted(seq, changedAt, contributionId);
+            } catch (SQLException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            applyContributionDeleted(seq, changedAt, contributionId);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> deleteContributorAsync(int contributionId, UUID playerUuid) {
+        if (store.getContributor(contributionId, playerUuid) != null) {
+            long seq = latestSeq + 1;
+            long changedAt = System.currentTimeMillis();
+            try {
+                persistContributorRemoved(seq, changedAt, contributionId, playerUuid);
+            } catch (SQLException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            applyContributorRemoved(seq, changedAt, contributionId, playerUuid);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public int importContributions(ContributionReader reader) throws SQLException {
+        int imported = 0;
+        Contribution source;
+        while ((source = ContributionTransfer.next(reader)) != null) {
+            importContribution(source);
+            imported++;
+        }
+        return imported;
+    }
+
+    /**
+     * 导入一条贡献，文件在锁外读取，其他修改可以在两条贡献之间执行
+     */
+    private synchronized void importContribution(Contribution source) throws SQLException {
+        long changedAt = System.currentTimeMillis();
+        Contribution contribution = new Contribution();
+        contribution.setId(nextContributionId);
+        contribution.setName(source.getName());
+        contribution.setType(source.getType());
+        contribution.setGameId(source.getGameId());
+        contribution.setX(source.getX());
+        contribution.setY(source.getY());
+        contribution.setZ(source.getZ());
+        contribution.setWorld(source.getWorld());
+        contribution.setCreatorUuid(source.getCreatorUuid());
+        contribution.setCreatedAt(source.getCreatedAt() > 0 ? source.getCreatedAt() : changedAt);
+        long seq = latestSeq + 1;
+        persistContribution(seq, contribution);
+        applyContribution(seq, contribution);
+
+        int contributionId = contribution.getId();
+        for (ContributorInfo imported : ContributionTransfer.insertionOrder(source)) {
+            if (store.getContributor(contributionId, imported.getPlayerUuid()) != null) {
+                continue;
+            }
+            ContributorInfo info = new ContributorInfo();
+            info.setContributionId(contributionId);
+            info.setPlayerUuid(imported.getPlayerUuid());
+            info.setPlayerName(imported.getPlayerName());
+            info.setInviterUuid(imported.getInviterUuid());
+            info.setLevel(store.computeLevel(contributionId, imported.getInviterUuid()));
+            seq = latestSeq + 1;
+            persistContributor(seq, changedAt, info);
+            applyContributor(seq, changedAt, info);
+        }
+    }
+
+    // ==================== 持久化扩展点 ====================
+    // persist方法在修改生效前调用，抛出异常时修改不会生效；内存实现不做任何事。
+    // apply方法只修改内存，子类从持久化数据恢复时按原顺序重新调用，需持有当前对象的锁。
+
+    protected void persistContribution(long seq, Contribution contribution) throws SQLException {
+    }
+
+    protected void persistContributor(long seq, long changedAt, ContributorInfo contributor) throws SQLException {
+    }
+
+    protected void persistContributionDeleted(long seq, long changedAt, int contributionId) throws SQLException {
+    }
+
+    protected void persistContributorRemoved(long seq, long changedAt, int contributionId, UUID playerUuid)
+            throws SQLException {
+    }
+
+    protected void applyContribution(long seq, Contribution contribution) {
+        store.putContribution(contribution);
+        nextContributionId = Math.max(nextContributionId, contribution.getId() + 1);
+        appendChange(seq, contribution.getCreatedAt(), contribution.getId(),
+            ContributionChange.Type.CONTRIBUTION_ADDED, contribution.getCreatorUuid());
+    }
+
+    protected void applyContributor(long seq, long changedAt, ContributorInfo contributor) {
+        store.putContributor(contributor.getContributionId(), contributor);
+        appendChange(seq, changedAt, contributor.getContributionId(),
+            ContributionChange.Type.CONTRIBUTOR_ADDED, contributor.getPlayerUuid());
+    }
+
+    protected void applyContributionDeleted(long seq, long changedAt, int contributionId) {
+        store.removeContribution(contributionId);
+        appendChange(seq, changedAt, contributionId, ContributionChange.Type.CONTRIBUTION_DELETED, null);
+    }
+
+    protected void applyContributorRemoved(long seq, long changedAt, int contributionId, UUID playerUuid) {
+        store.removeContributor(contributionId, playerUuid);
+        appendChange(seq, changedAt, contributionId, ContributionChange.Type.CONTRIBUTOR_REMOVED, playerUuid);
+    }
+
+    /**
+     * 用快照替换全部内存数据，快照之前的变更不再保留，之后从快照的序号继续
+     * @param contributions 所有贡献（包含贡献者列表）
+     * @param nextId 下一个贡献ID
+     * @param seq 快照对应的变更序号
+     */
+    protected void loadSnapshot(List<Contribution> contributions, int nextId, long seq) {
+        store.load(contributions);
+        nextContributionId = nextId;
+        latestSeq = seq;
+        horizon = seq;
+        changes.clear();
+    }
+
+    /**
+     * 下一个新贡献将使用的ID，写入快照时使用
+     */
+    protected int getNextContributionId() {
+        return nextContributionId;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> supplyAsync(DatabaseCall<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.call());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,540 @@
+package com.example.contribtracker.database;
+
+import com.example.contribtracker.ContribTrackerMod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 基于内存映射日志的贡献存取实现
+ * 全部数据保存在内存中，查询与 {@link InMemoryContributionRepository} 相同；每个修改在生效前
+ * 追加到 {@link MappedJournal}，写入只是一次内存复制，不经过SQL解析和B树维护。
+ *
+ * 所有查询和修改都在唯一的日志线程上执行，返回的Future在日志线程完成后完成，
+ * 调用方（通常是服务器主线程）不会等待追加、{@link MappedJournal#force()} 或快照。
+ *
+ * 日志超过设定大小时在后台线程写入快照：先在锁内复制当前数据并把追加切换到另一个日志文件，
+ * 之后的修改写入新的日志，快照写完后再清空旧的日志。启动时读取快照再按序号回放两个日志文件，
+ * 快照和日志中的记录都带有变更序号，回放时跳过快照已包含的记录，
+ * 因此写快照之后、清空日志之前崩溃也不会重复应用修改。
+ */
+public class JournalContributionRepository extends InMemoryContributionRepository {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
+
+    static final String JOURNAL_FILE = "contributions.journal";
+    /** 写快照期间追加使用的另一个日志文件，两个文件轮流使用 */
+    static final String SECOND_JOURNAL_FILE = "contributions.journal.1";
+    static final String SNAPSHOT_FILE = "contributions.snapshot";
+    /** "CTS1" */
+    private static final int SNAPSHOT_MAGIC = 0x43545331;
+
+    private static final byte ADD_CONTRIBUTION = 1;
+    private static final byte ADD_CONTRIBUTOR = 2;
+    private static final byte DELETE_CONTRIBUTION = 3;
+    private static final byte REMOVE_CONTRIBUTOR = 4;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final File directory;
+    private final boolean syncOnWrite;
+    private final long compactThresholdBytes;
+    /** 当前追加的日志 */
+    private MappedJournal journal;
+    /** 另一个日志，写快照期间保存快照之前的记录，快照写完后清空 */
+    private MappedJournal standby;
+    /** 是否正在后台写快照，需持有当前对象的锁 */
+    private boolean compacting = false;
+    private volatile boolean ready = false;
+
+    private volatile ExecutorService writer;
+    private volatile Thread writerThread;
+    private ExecutorService compactor;
+
+    /**
+     * @param directory 存放日志和快照的目录
+     * @param syncOnWrite 每次修改后是否强制写回磁盘
+     * @param compactThresholdBytes 日志超过这个大小时写入快照
+     */
+    public JournalContributionRepository(File directory, boolean syncOnWrite, long compactThresholdBytes) {
+        this.directory = directory;
+        this.syncOnWrite = syncOnWrite;
+        this.compactThresholdBytes = compactThresholdBytes;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 读取快照并回放日志，回放了记录时立即写入新快照
+     * @throws SQLException 如果文件无法读取
+     */
+    @Override
+    public synchronized void initialize() throws SQLException {
+        if (ready) {
+            return;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new SQLException("无法创建存储目录：" + directory.getAbsolutePath());
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            long snapshotSeq = readSnapshot(new File(directory, SNAPSHOT_FILE));
+            journal = new MappedJournal(new File(directory, JOURNAL_FILE));
+            standby = new MappedJournal(new File(directory, SECOND_JOURNAL_FILE));
+            int replayed = replayJournals(snapshotSeq);
+            if (replayed > 0) {
+                writeSnapshot();
+            }
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "ContribTracker-Journal");
+                thread.setDaemon(true);
+                writerThread = thread;
+                return thread;
+            });
+            compactor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "ContribTracker-Journal-Snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ready = true;
+            LOGGER.info("日志存储已加载 {} 条贡献，回放 {} 条日志记录，耗时 {}ms",
+                getContributionCount(), replayed, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            throw new SQLException("加载日志存储失败：" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 等待已提交的操作和后台快照完成，写入快照后关闭日志，下次启动时不需要回放
+     * @throws SQLException 如果快照写入失败
+     */
+    @Override
+    public void close() throws SQLException {
+        // 日志线程上的任务需要当前对象的锁，先在锁外等待它们执行完
+        ExecutorService executor = writer;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    LOGGER.warn("等待日志线程结束超时");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (this) {
+            if (journal == null) {
+                return;
+            }
+            ready = false;
+            try {
+                awaitSnapshot();
+                if (!journal.isEmpty() || !standby.isEmpty()) {
+                    writeSnapshot();
+                }
+                journal.close();
+                standby.close();
+            } catch (IOException e) {
+                throw new SQLException("关闭日志存储失败：" + e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("等待快照写入时被中断", e);
+            } finally {
+                journal = null;
+                standby = null;
+                writer = null;
+                writerThread = null;
+                compactor.shutdown();
+                compactor = null;
+            }
+        }
+    }
+
+    /**
+     * 等待进行中的后台快照完成
+     */
+    synchronized void awaitSnapshot() throws InterruptedException {
+        while (compacting) {
+            wait();
+        }
+    }
+
+    // ==================== 日志线程 ====================
+
+    @Override
+    public <T> CompletableFuture<T> supplyAsync(DatabaseCall<T> call) {
+        return onWriter(() -> super.supplyAsync(call));
+    }
+
+    @Override
+    public CompletableFuture<Contribution> addContributionAsync(String name, String type, String gameId,
+                                                                double x, double y, double z, String world,
+                                                                UUID creatorUuid) {
+        return onWriter(() -> super.addContributionAsync(name, type, gameId, x, y, z, world, creatorUuid));
+    }
+
+    @Override
+    public CompletableFuture<ContributorInfo> addContributorAsync(int contributionId, UUID playerUuid,
+                                                                  String playerName, String note, UUID inviterUuid) {
+        return onWriter(() -> super.addContributorAsync(contributionId, playerUuid, playerName, note, inviterUuid));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteContributionAsync(int contributionId) {
+        return onWriter(() -> super.deleteContributionAsync(contributionId));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteContributorAsync(int contributionId, UUID playerUuid) {
+        return onWriter(() -> super.deleteContributorAsync(contributionId, playerUuid));
+    }
+
+    /**
+     * 在日志线程上执行操作，已经在日志线程上时直接执行，避免同步方法在日志线程上等待自己
+     */
+    private <T> CompletableFuture<T> onWriter(Supplier<CompletableFuture<T>> task) {
+        if (Thread.currentThread() == writerThread) {
+            return task.get();
+        }
+        ExecutorService executor = writer;
+        if (executor == null) {
+            return CompletableFuture.failedFuture(new SQLException("日志存储尚未初始化"));
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, executor).thenCompose(Function.identity());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new SQLException("日志存储已关闭", e));
+        }
+    }
+
+    // ==================== 写入日志 ====================
+
+    @Override
+    protected void persistContribution(long seq, Contribution contribution) throws SQLException {
+        append(out -> {
+            out.writeByte(ADD_CONTRIBUTION);
+            out.writeLong(seq);
+            writeContribution(out, contribution);
+        });
+    }
+
+    @Override
+    protected void persistContributor(long seq, long changedAt, ContributorInfo contributor) throws SQLException {
+        append(out -> {
+            out.writeByte(ADD_CONTRIBUTOR);
+            out.writeLong(seq);
+            out.writeLong(changedAt);
+            out.writeInt(contributor.getContributionId());
+            writeContributor(out, contributor);
+        });
+    }
+
+    @Override
+    protected void persistContributionDeleted(long seq, long changedAt, int contributionId) throws SQLException {
+        append(out -> {
+            out.writeByte(DELETE_CONTRIBUTION);
+            out.writeLong(seq);
+            out.writeLong(changedAt);
+            out.writeInt(contributionId);
+        });
+    }
+
+    @Override
+    protected void persistContributorRemoved(long seq, long changedAt, int contributionId, UUID playerUuid)
+            throws SQLException {
+        append(out -> {
+            out.writeByte(REMOVE_CONTRIBUTOR);
+            out.writeLong(seq);
+            out.writeLong(changedAt);
+            out.writeInt(contributionId);
+            writeUuid(out, playerUuid);
+        });
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    /**
+     * 追加一条日志记录，日志过大时在后台写入快照，本次修改不等待快照
+     * 调用方持有当前对象的锁
+     */
+    private void append(RecordWriter writer) throws SQLException {
+        if (journal == null) {
+            throw new SQLException("日志存储尚未初始化");
+        }
+        if (!compacting && journal.size() >= compactThresholdBytes) {
+            compacting = true;
+            compactor.execute(this::compact);
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            writer.write(new DataOutputStream(bytes));
+            journal.append(bytes.toByteArray());
+            if (syncOnWrite) {
+                journal.force();
+            }
+        } catch (IOException e) {
+            throw new SQLException("写入日志失败：" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 读取两个日志文件中的记录，按变更序号合并后回放
+     * 写快照失败时旧日志不会被清空，之后两个文件中的记录可能交错，因此不能按文件顺序回放
+     * @return 日志中的记录数，包括快照已包含而跳过的记录
+     */
+    private int replayJournals(long snapshotSeq) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        journal.replay(records::add);
+        standby.replay(records::add);
+        records.sort(Comparator.comparingLong(JournalContributionRepository::seqOf));
+        for (byte[] payload : records) {
+            replay(payload, snapshotSeq);
+        }
+        return records.size();
+    }
+
+    /**
+     * 记录的变更序号，位于类型字节之后
+     */
+    private static long seqOf(byte[] payload) {
+        return ByteBuffer.wrap(payload, 1, Long.BYTES).getLong();
+    }
+
+    private void replay(byte[] payload, long snapshotSeq) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        long seq = in.readLong();
+        if (seq <= snapshotSeq) {
+            return;
+        }
+        switch (type) {
+            case ADD_CONTRIBUTION -> applyContribution(seq, readContribution(in));
+            case ADD_CONTRIBUTOR -> {
+                long changedAt = in.readLong();
+                int contributionId = in.readInt();
+                ContributorInfo contributor = readContributor(in);
+                contributor.setContributionId(contributionId);
+                applyContributor(seq, changedAt, contributor);
+            }
+            case DELETE_CONTRIBUTION -> applyContributionDeleted(seq, in.readLong(), in.readInt());
+            case REMOVE_CONTRIBUTOR -> applyContributorRemoved(seq, in.readLong(), in.readInt(), readUuid(in));
+            default -> throw new IOException("未知的日志记录类型：" + type);
+        }
+    }
+
+    // ==================== 快照 ====================
+
+    /**
+     * 在后台写入快照：锁内复制数据并切换日志，锁外写文件，之后清空切换前的日志
+     * 写入失败时旧日志保留，其中的记录在下次启动时按序号回放
+     */
+    private void compact() {
+        List<Contribution> contributions;
+        long seq;
+        int nextId;
+        MappedJournal previous;
+        synchronized (this) {
+            if (journal == null) {
+                compacting = false;
+                notifyAll();
+                return;
+            }
+            contributions = getAllContributions();
+            seq = getChangeLogPosition();
+            nextId = getNextContributionId();
+            previous = journal;
+            journal = standby;
+            standby = previous;
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            writeSnapshotFile(contributions, seq, nextId);
+            previous.reset();
+            previous.force();
+            LOGGER.debug("日志存储快照已写入，{} 条贡献，耗时 {}ms", contributions.size(), System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            LOGGER.error("写入日志存储快照失败", e);
+        } finally {
+            synchronized (this) {
+                compacting = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 在当前线程写入快照并清空两个日志，调用方持有当前对象的锁且没有进行中的后台快照
+     */
+    private void writeSnapshot() throws IOException {
+        writeSnapshotFile(getAllContributions(), getChangeLogPosition(), getNextContributionId());
+        journal.reset();
+        journal.force();
+        standby.reset();
+        standby.force();
+    }
+
+    /**
+     * 把数据写入临时文件后替换快照
+     */
+    private void writeSnapshotFile(List<Contribution> contributions, long seq, int nextId) throws IOException {
+        File snapshot = new File(directory, SNAPSHOT_FILE);
+        File temp = new File(directory, SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(seq);
+            out.writeInt(nextId);
+            out.writeInt(contributions.size());
+            for (Contribution contribution : contributions) {
+                writeContribution(out, contribution);
+                List<ContributorInfo> contributors = contribution.getContributorList();
+                out.writeInt(contributors == null ? 0 : contributors.size());
+                if (contributors != null) {
+                    for (ContributorInfo contributor : contributors) {
+                        writeContributor(out, contributor);
+                    }
+                }
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp.toPath(), snapshot.toPath(),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return 快照对应的变更序号，没有快照时为0
+     */
+    private long readSnapshot(File snapshot) throws IOException {
+        if (!snapshot.exists()) {
+            loadSnapshot(new ArrayList<>(), 1, 0);
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot), 64 * 1024))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("不是有效的快照文件：" + snapshot.getAbsolutePath());
+            }
+            long seq = in.readLong();
+            int nextId = in.readInt();
+            int count = in.readInt();
+            List<Contribution> contributions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Contribution contribution = readContribution(in);
+                int contributorCount = in.readInt();
+                List<ContributorInfo> contributors = new ArrayList<>(contributorCount);
+                for (int j = 0; j < contributorCount; j++) {
+                    ContributorInfo contributor = readContributor(in);
+                    contributor.setContributionId(contribution.getId());
+                    contributors.add(contributor);
+                }
+                contribution.setContributorList(contributors);
+                contributions.add(contribution);
+            }
+            loadSnapshot(contributions, nextId, seq);
+            return seq;
+        }
+    }
+
+    // ==================== 编码 ====================
+
+    private static void writeContribution(DataOutput out, Contribution contribution) throws IOException {
+        out.writeInt(contribution.getId());
+        writeString(out, contribution.getName());
+        writeString(out, contribution.getType());
+        writeString(out, contribution.getGameId());
+        out.writeDouble(contribution.getX());
+        out.writeDouble(contribution.getY());
+        out.writeDouble(contribution.getZ());
+        writeString(out, contribution.getWorld());
+        writeUuid(out, contribution.getCreatorUuid());
+        out.writeLong(contribution.getCreatedAt());
+    }
+
+    private static Contribution readContribution(DataInput in) throws IOException {
+        Contribution contribution = new Contribution();
+        contribution.setId(in.readInt());
+        contribution.setName(readString(in));
+        contribution.setType(readString(in));
+        contribution.setGameId(readString(in));
+        contribution.setX(in.readDouble());
+        contribution.setY(in.readDouble());
+        contribution.setZ(in.readDouble());
+        contribution.setWorld(readString(in));
+        contribution.setCreatorUuid(readUuid(in));
+        contribution.setCreatedAt(in.readLong());
+        return contribution;
+    }
+
+    private static void writeContributor(DataOutput out, ContributorInfo contributor) throws IOException {
+        writeUuid(out, contributor.getPlayerUuid());
+        writeString(out, contributor.getPlayerName());
+        out.writeInt(contributor.getLevel());
+        writeUuid(out, contributor.getInviterUuid());
+    }
+
+    private static ContributorInfo readContributor(DataInput in) throws IOException {
+        ContributorInfo contributor = new ContributorInfo();
+        contributor.setPlayerUuid(readUuid(in));
+        contributor.setPlayerName(readString(in));
+        contributor.setLevel(in.readInt());
+        contributor.setInviterUuid(readUuid(in));
+        return contributor;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeUuid(DataOutput out, UUID uuid) throws IOException {
+        out.writeBoolean(uuid != null);
+        if (uuid != null) {
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInput in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+}
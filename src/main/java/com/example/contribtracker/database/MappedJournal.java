@@ -0,0 +1,163 @@
+package com.example.contribtracker.database;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 内存映射的只追加日志文件
+ * 文件头之后依次存放记录，每条记录为 [长度][内容][内容的CRC32]，长度为0表示日志结束。
+ * 追加一条记录只是一次顺序的内存写入，由操作系统负责写回磁盘；进程崩溃时已写入的记录不会丢失，
+ * 需要在断电时也不丢失时调用 {@link #force()}。
+ *
+ * 映射区域用完时按两倍扩大文件并重新映射。清空日志时把已用部分填零而不是截断文件，
+ * 因为在Windows上无法截断仍被映射的文件。
+ */
+public class MappedJournal implements Closeable {
+    /** "CTJ1" */
+    private static final int MAGIC = 0x43544A31;
+    private static final int HEADER_SIZE = 8;
+    private static final int VERSION = 1;
+    /** 长度和CRC各占4字节 */
+    private static final int RECORD_OVERHEAD = 8;
+    private static final long INITIAL_SIZE = 4L * 1024 * 1024;
+    private static final byte[] ZEROS = new byte[8192];
+
+    /**
+     * 回放时处理每条记录
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void handle(byte[] payload) throws IOException;
+    }
+
+    private final File file;
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer buffer;
+
+    /**
+     * 打开或创建日志文件，写入位置位于文件头之后，需要调用 {@link #replay} 读取已有记录
+     * @throws IOException 如果文件无法打开或不是日志文件
+     */
+    public MappedJournal(File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() < HEADER_SIZE;
+        map(Math.max(channel.size(), INITIAL_SIZE));
+        if (created) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("不是有效的日志文件：" + file.getAbsolutePath());
+        }
+        buffer.position(HEADER_SIZE);
+    }
+
+    /**
+     * 从头读取所有完整的记录，遇到未写完或损坏的记录时停止，之后从该位置继续追加
+     * @return 读取的记录数
+     * @throws IOException 如果处理记录时出错
+     */
+    public int replay(RecordHandler handler) throws IOException {
+        int position = HEADER_SIZE;
+        int count = 0;
+        while (position + RECORD_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - RECORD_OVERHEAD) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + 4, payload);
+            if (buffer.getInt(position + 4 + length) != checksum(payload)) {
+                // 写到一半时进程退出，丢弃这条记录和之后的内容
+                zero(position, buffer.capacity());
+                break;
+            }
+            handler.handle(payload);
+            position += length + RECORD_OVERHEAD;
+            count++;
+        }
+        buffer.position(position);
+        return count;
+    }
+
+    /**
+     * 追加一条记录
+     * @throws IOException 如果扩大日志文件失败
+     */
+    public void append(byte[] payload) throws IOException {
+        int needed = payload.length + RECORD_OVERHEAD;
+        if (buffer.remaining() < needed + 4) {
+            map(Math.max((long) buffer.capacity() * 2, (long) buffer.position() + needed + 4));
+        }
+        int position = buffer.position();
+        // 先写内容和校验和，最后写长度，长度可见时记录已完整
+        buffer.put(position + 4, payload);
+        buffer.putInt(position + 4 + payload.length, checksum(payload));
+        buffer.putInt(position, payload.length);
+        buffer.position(position + needed);
+    }
+
+    /**
+     * 已使用的字节数（包括文件头）
+     */
+    public long size() {
+        return buffer.position();
+    }
+
+    /**
+     * 是否没有任何记录
+     */
+    public boolean isEmpty() {
+        return buffer.position() == HEADER_SIZE;
+    }
+
+    /**
+     * 清空所有记录，通常在写入快照之后调用
+     */
+    public void reset() {
+        zero(HEADER_SIZE, buffer.position());
+        buffer.position(HEADER_SIZE);
+    }
+
+    /**
+     * 把已写入的记录强制写回磁盘
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void map(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("日志文件过大：" + file.getAbsolutePath());
+        }
+        int position = buffer != null ? buffer.position() : 0;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.position(position);
+    }
+
+    private void zero(int from, int to) {
+        for (int position = from; position < to; position += ZEROS.length) {
+            buffer.put(position, ZEROS, 0, Math.min(ZEROS.length, to - position));
+        }
+    }
+
+    private int checksum(byte[] payload) {
+        crc.reset();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
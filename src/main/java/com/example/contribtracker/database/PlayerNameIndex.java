@@ -0,0 +1,224 @@
+package com.example.contribtracker.database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 玩家名称的三元组（trigram）倒排索引
+ * 为所有贡献者中出现过的每个不同的（玩家UUID，名称）建立索引，按名称的小写形式切分为3个字符的片段，
+ * 每个片段指向包含它的名称。子串查询只需取查询串各片段对应名称集合的交集再逐个确认，
+ * 模糊查询按共有片段的比例打分，都不需要遍历所有贡献者。
+ *
+ * 同一玩家可能出现在多个贡献中，索引按出现次数计数，最后一次出现被移除时才从索引中删除。
+ * 修改方法由 {@link ContributionStore} 在持有锁时调用，查询方法无需加锁。
+ */
+public class PlayerNameIndex {
+    /** 片段长度 */
+    static final int GRAM_SIZE = 3;
+    /** 模糊查询时名称首尾补齐使用的字符，使短名称和首尾字符也能参与匹配 */
+    private static final char PADDING = '\u0000';
+    /** 模糊查询的最低相似度 */
+    private static final double MIN_SIMILARITY = 0.3;
+
+    /**
+     * 索引中的一个玩家名称
+     */
+    private static final class Entry {
+        private final UUID playerUuid;
+        private final String playerName;
+        private final String lowerName;
+        private int references;
+
+        private Entry(UUID playerUuid, String playerName) {
+            this.playerUuid = playerUuid;
+            this.playerName = playerName;
+            this.lowerName = playerName.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Entry>> grams = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次玩家名称的出现
+     */
+    public void add(UUID playerUuid, String playerName) {
+        if (playerUuid == null || playerName == null) {
+            return;
+        }
+        Entry entry = entries.computeIfAbsent(key(playerUuid, playerName), k -> {
+            Entry created = new Entry(playerUuid, playerName);
+            for (String gram : paddedGrams(created.lowerName)) {
+                grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(created);
+            }
+            return created;
+        });
+        entry.references++;
+    }
+
+    /**
+     * 移除一次玩家名称的出现
+     */
+    public void remove(UUID playerUuid, String playerName) {
+        if (playerUuid == null || playerName == null) {
+            return;
+        }
+        String key = key(playerUuid, playerName);
+        Entry entry = entries.get(key);
+        if (entry == null || --entry.references > 0) {
+            return;
+        }
+        entries.remove(key);
+        for (String gram : paddedGrams(entry.lowerName)) {
+            Set<Entry> posting = grams.get(gram);
+            if (posting != null) {
+                posting.remove(entry);
+                if (posting.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        grams.clear();
+    }
+
+    /**
+     * 查找名称包含指定字符串的玩家（忽略大小写）
+     * 名称完全相同的排在最前，其余按名称排序；同一玩家只返回一次
+     * @return 只包含UUID和名称的贡献者信息列表
+     */
+    public List<ContributorInfo> findContaining(String needle) {
+        String lowerNeedle = needle.toLowerCase(Locale.ROOT);
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : candidatesContaining(lowerNeedle)) {
+            if (entry.lowerName.contains(lowerNeedle)) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator
+            .comparing((Entry entry) -> !entry.lowerName.equals(lowerNeedle))
+            .thenComparing(entry -> entry.playerName));
+        return toInfos(matches, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 查找名称与指定字符串相似的玩家，用于输入有误时提示
+     * 相似度为两个名称共有片段数占全部不同片段数的比例
+     * @param name 输入的名称
+     * @param limit 最多返回的数量
+     * @return 按相似度从高到低排列的贡献者信息列表
+     */
+    public List<ContributorInfo> findSimilar(String name, int limit) {
+        List<String> queryGrams = paddedGrams(name.toLowerCase(Locale.ROOT));
+        Map<Entry, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<Entry> posting = grams.get(gram);
+            if (posting != null) {
+                for (Entry entry : posting) {
+                    shared.merge(entry, 1, Integer::sum);
+                }
+            }
+        }
+
+        Map<Entry, Double> scores = new HashMap<>();
+        for (Map.Entry<Entry, Integer> candidate : shared.entrySet()) {
+            int entryGrams = paddedGrams(candidate.getKey().lowerName).size();
+            double similarity = (double) candidate.getValue() / (queryGrams.size() + entryGrams - candidate.getValue());
+            if (similarity >= MIN_SIMILARITY) {
+                scores.put(candidate.getKey(), similarity);
+            }
+        }
+
+        List<Entry> matches = new ArrayList<>(scores.keySet());
+        matches.sort(Comparator
+            .comparing((Entry entry) -> scores.get(entry)).reversed()
+            .thenComparing(entry -> entry.playerName));
+        return toInfos(matches, limit);
+    }
+
+    /**
+     * 取包含查询串所有片段的名称，查询串短于片段长度时只能返回全部名称
+     */
+    private Iterable<Entry> candidatesContaining(String lowerNeedle) {
+        if (lowerNeedle.length() < GRAM_SIZE) {
+            return entries.values();
+        }
+
+        Set<Entry> smallest = null;
+        List<Set<Entry>> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM_SIZE <= lowerNeedle.length(); i++) {
+            Set<Entry> posting = grams.get(lowerNeedle.substring(i, i + GRAM_SIZE));
+            if (posting == null) {
+                return List.of();
+            }
+            postings.add(posting);
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : smallest) {
+            boolean inAll = true;
+            for (Set<Entry> posting : postings) {
+                if (posting != smallest && !posting.contains(entry)) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 同一UUID只保留第一个名称
+     */
+    private static List<ContributorInfo> toInfos(List<Entry> matches, int limit) {
+        Map<UUID, ContributorInfo> result = new LinkedHashMap<>();
+        for (Entry entry : matches) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.computeIfAbsent(entry.playerUuid, uuid -> {
+                ContributorInfo info = new ContributorInfo();
+                info.setPlayerUuid(entry.playerUuid);
+                info.setPlayerName(entry.playerName);
+                return info;
+            });
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * 名称首尾补齐后切分出的所有不同片段，补齐后的名称包含原名称，因此子串查询也可以使用这些片段
+     */
+    private static List<String> paddedGrams(String lowerName) {
+        String padded = "" + PADDING + PADDING + lowerName + PADDING;
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i + GRAM_SIZE <= padded.length(); i++) {
+            String gram = padded.substring(i, i + GRAM_SIZE);
+            if (!result.contains(gram)) {
+                result.add(gram);
+            }
+        }
+        return result;
+    }
+
+    private static String key(UUID playerUuid, String playerName) {
+        return playerUuid + "/" + playerName;
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.contribtracker.database;
+
+import com.example.contribtracker.ContribTrackerMod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * 数据库结构版本迁移
+ * 当前结构版本记录在 {@code PRAGMA user_version} 中，启动时只执行版本号更高的迁移，
+ * 每个迁移在独立事务中执行并同时更新版本号，已是最新版本时启动只需读取一次版本号。
+ *
+ * 新增迁移时在 {@link #MIGRATIONS} 末尾追加，不要修改已发布的迁移。
+ */
+public final class SchemaMigrations {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContribTrackerMod.MOD_ID);
+
+    /**
+     * 单个迁移步骤
+     */
+    @FunctionalInterface
+    interface Migration {
+        void apply(Statement stmt) throws SQLException;
+    }
+
+    private static final class Step {
+        private final String description;
+        private final Migration migration;
+
+        private Step(String description, Migration migration) {
+            this.description = description;
+            this.migration = migration;
+        }
+    }
+
+    /** 按顺序排列的迁移，第N个迁移执行后结构版本为N */
+    private static final List<Step> MIGRATIONS = List.of(
+        new Step("创建贡献表和贡献者表", SchemaMigrations::createBaseTables),
+        new Step("修复贡献者表的自引用外键", SchemaMigrations::fixLegacyContributorForeignKey),
+        new Step("创建贡献坐标R*Tree索引", SchemaMigrations::createSpatialIndex),
+        new Step("为玩家、创建者和坐标查询添加索引", SchemaMigrations::createLookupIndexes),
+        new Step("UUID改为16字节BLOB存储", SchemaMigrations::convertUuidsToBlob),
+        new Step("创建贡献名称和类型的全文索引", SchemaMigrations::createFullTextIndex),
+        new Step("创建邀请关系闭包表", SchemaMigrations::createContributorClosure),
+        new Step("创建贡献变更日志", SchemaMigrations::createChangeLog)
+    );
+
+    /** 当前代码对应的结构版本 */
+    public static final int CURRENT_VERSION = MIGRATIONS.size();
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * 把数据库结构升级到最新版本
+     * @param conn 数据库连接（需处于自动提交模式）
+     * @throws SQLException 如果迁移失败，失败的迁移会整体回滚
+     */
+    public static void migrate(Connection conn) throws SQLException {
+        int version = getVersion(conn);
+        if (version > CURRENT_VERSION) {
+            throw new SQLException("数据库结构版本 " + version + " 高于当前支持的版本 " + CURRENT_VERSION);
+        }
+        if (version == CURRENT_VERSION) {
+            return;
+        }
+
+        // 重建表时需要关闭外键约束，该设置在事务中无效，只能在事务外修改
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = OFF");
+        }
+        try {
+            for (int next = version + 1; next <= CURRENT_VERSION; next++) {
+                Step step = MIGRATIONS.get(next - 1);
+                applyStep(conn, next, step);
+                LOGGER.info("数据库结构已升级到版本{}：{}", next, step.description);
+            }
+        } finally {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA foreign_keys = ON");
+            }
+        }
+    }
+
+    /**
+     * 读取数据库当前的结构版本
+     */
+    public static int getVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void applyStep(Connection conn, int version, Step step) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            step.migration.apply(stmt);
+            // user_version 写在数据库头中，与迁移在同一事务里提交
+            stmt.execute("PRAGMA user_version = " + version);
+            conn.commit();
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                LOGGER.error("回滚事务失败", ex);
+            }
+            throw new SQLException("数据库结构迁移到版本 " + version + " 失败：" + step.description, e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * 版本1：创建基础表，已有数据库中的表保持不变
+     */
+    private static void createBaseTables(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS contributions (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL,
+                type TEXT NOT NULL,
+                game_id TEXT,
+                x REAL NOT NULL,
+                y REAL NOT NULL,
+                z REAL NOT NULL,
+                world TEXT NOT NULL,
+                creator_uuid TEXT NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+        """);
+
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS contributors (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                contribution_id INTEGER NOT NULL,
+                player_uuid TEXT NOT NULL,
+                player_name TEXT NOT NULL,
+                note TEXT,
+                inviter_uuid TEXT,
+                level INTEGER DEFAULT 1,
+                FOREIGN KEY (contribution_id) REFERENCES contributions(id) ON DELETE CASCADE,
+                UNIQUE (contribution_id, player_uuid)
+            )
+        """);
+    }
+
+    /**
+     * 版本2：早期版本的贡献者表带有引用自身的外键，按SQLite推荐的方式重建表，
+     * 数据在数据库内部用 INSERT ... SELECT 复制，不经过Java
+     */
+    private static void fixLegacyContributorForeignKey(Statement stmt) throws SQLException {
+        boolean selfReference = false;
+        try (ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_list(contributors)")) {
+            while (rs.next()) {
+                if ("contributors".equals(rs.getString("table"))) {
+                    selfReference = true;
+                    break;
+                }
+            }
+        }
+        if (!selfReference) {
+            return;
+        }
+
+        stmt.execute("""
+            CREATE TABLE contributors_new (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                contribution_id INTEGER NOT NULL,
+                player_uuid TEXT NOT NULL,
+                player_name TEXT NOT NULL,
+                note TEXT,
+                inviter_uuid TEXT,
+                level INTEGER DEFAULT 1,
+                FOREIGN KEY (contribution_id) REFERENCES contributions(id) ON DELETE CASCADE,
+                UNIQUE (contribution_id, player_uuid)
+            )
+        """);
+        stmt.execute("""
+            INSERT INTO contributors_new (id, contribution_id, player_uuid, player_name, note, inviter_uuid, level)
+            SELECT id, contribution_id, player_uuid, player_name, note, inviter_uuid, level FROM contributors
+        """);
+        stmt.execute("DROP TABLE contributors");
+        stmt.execute("ALTER TABLE contributors_new RENAME TO contributors");
+    }
+
+    /**
+     * 版本3：贡献坐标的R*Tree虚拟表，每条贡献以ID为键、以自身坐标为范围，
+     * 世界名称作为附加列用于过滤，并用触发器与贡献表保持同步
+     */
+    private static void createSpatialIndex(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS contributions_rtree USING rtree(
+                id,
+                min_x, max_x,
+                min_y, max_y,
+                min_z, max_z,
+                +world
+            )
+        """);
+
+        // 为已有数据建立索引（旧版本可能已创建过该表，用 REPLACE 避免重复）
+        stmt.execute("""
+            INSERT OR REPLACE INTO contributions_rtree (id, min_x, max_x, min_y, max_y, min_z, max_z, world)
+            SELECT id, x, x, y, y, z, z, world FROM contributions
+        """);
+
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS contributions_rtree_insert AFTER INSERT ON contributions
+            BEGIN
+                INSERT INTO contributions_rtree (id, min_x, max_x, min_y, max_y, min_z, max_z, world)
+                VALUES (NEW.id, NEW.x, NEW.x, NEW.y, NEW.y, NEW.z, NEW.z, NEW.world);
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS contributions_rtree_update AFTER UPDATE OF x, y, z, world ON contributions
+            BEGIN
+                UPDATE contributions_rtree
+                SET min_x = NEW.x, max_x = NEW.x, min_y = NEW.y, max_y = NEW.y,
+                    min_z = NEW.z, max_z = NEW.z, world = NEW.world
+                WHERE id = NEW.id;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS contributions_rtree_delete AFTER DELETE ON contributions
+            BEGIN
+                DELETE FROM contributions_rtree WHERE id = OLD.id;
+            END
+        """);
+    }
+
+    /**
+     * 版本4：按玩家查找贡献、按名称查找玩家、按创建者列出贡献以及按坐标查询时使用的索引
+     */
+    private static void createLookupIndexes(Statement stmt) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contributors_player_uuid ON contributors(player_uuid)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contributors_player_name ON contributors(player_name)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contributions_creator_uuid ON contributions(creator_uuid)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contributions_world_xz ON contributions(world, x, z)");
+    }
+
+    /**
+     * 版本5：把文本格式的UUID转换为16字节BLOB（见 {@link UuidCodec}），相关索引随之缩小。
+     * 无法解析的值保持原样，读取时仍按文本处理
+     */
+    private static void convertUuidsToBlob(Statement stmt) throws SQLException {
+        convertUuidColumn(stmt, "contributions", "creator_uuid");
+        convertUuidColumn(stmt, "contributors", "player_uuid");
+        convertUuidColumn(stmt, "contributors", "inviter_uuid");
+    }
+
+    private static void convertUuidColumn(Statement stmt, String table, String column) throws SQLException {
+        stmt.execute("""
+            UPDATE %1$s SET %2$s = unhex(replace(%2$s, '-', ''))
+            WHERE typeof(%2$s) = 'text' AND length(%2$s) = 36
+              AND unhex(replace(%2$s, '-', '')) IS NOT NULL
+        """.formatted(table, column));
+    }
+
+    /**
+     * 版本6：贡献名称和类型的FTS5全文索引。
+     * 使用外部内容表（内容仍存放在 contributions 中，索引只保存词元），由触发器保持同步；
+     * trigram 分词器按3个字符切分，中文和英文名称都可以按任意子串匹配
+     */
+    private static void createFullTextIndex(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS contributions_fts USING fts5(
+                name,
+                type,
+                content = 'contributions',
+                content_rowid = 'id',
+                tokenize = 'trigram'
+            )
+        """);
+
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS contributions_fts_insert AFTER INSERT ON contributions
+            BEGIN
+                INSERT INTO contributions_fts (rowid, name, type) VALUES (NEW.id, NEW.name, NEW.type);
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS contributions_fts_update AFTER UPDATE OF name, type ON contributions
+            BEGIN
+                INSERT INTO contributions_fts (contributions_fts, rowid, name, type)
+                VALUES ('delete', OLD.id, OLD.name, OLD.type);
+                INSERT INTO contributions_fts (rowid, name, type) VALUES (NEW.id, NEW.name, NEW.type);
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS contributions_fts_delete AFTER DELETE ON contributions
+            BEGIN
+                INSERT INTO contributions_fts (contributions_fts, rowid, name, type)
+                VALUES ('delete', OLD.id, OLD.name, OLD.type);
+            END
+        """);
+
+        // 为已有数据建立索引
+        stmt.execute("INSERT INTO contributions_fts (contributions_fts) VALUES ('rebuild')");
+    }
+
+    /**
+     * 版本7：邀请关系的闭包表。
+     * 每个贡献中，每对（祖先，后代）贡献者保存一行及其相隔的层数，每个贡献者与自身也有一行（层数为0）。
+     * 添加贡献者时由触发器复制邀请者的所有祖先行；移除贡献者时删除与其相关的行，
+     * 其下级仍保留与更上层祖先的关系。
+     */
+    private static void createContributorClosure(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS contributor_closure (
+                contribution_id INTEGER NOT NULL,
+                ancestor_uuid BLOB NOT NULL,
+                descendant_uuid BLOB NOT NULL,
+                depth INTEGER NOT NULL,
+                PRIMARY KEY (contribution_id, ancestor_uuid, descendant_uuid)
+            ) WITHOUT ROWID
+        """);
+        stmt.execute("""
+            CREATE INDEX IF NOT EXISTS idx_contributor_closure_descendant
+            ON contributor_closure(contribution_id, descendant_uuid, depth)
+        """);
+
+        // 按已有的邀请关系逐层展开，限制层数以防数据中存在环
+        stmt.execute("""
+            INSERT OR IGNORE INTO contributor_closure (contribution_id, ancestor_uuid, descendant_uuid, depth)
+            WITH RECURSIVE tree (contribution_id, ancestor_uuid, descendant_uuid, depth) AS (
+                SELECT contribution_id, player_uuid, player_uuid, 0 FROM contributors
+                UNION ALL
+                SELECT t.contribution_id, t.ancestor_uuid, c.player_uuid, t.depth + 1
+                FROM tree t
+                JOIN contributors c ON c.contribution_id = t.contribution_id AND c.inviter_uuid = t.descendant_uuid
+                WHERE t.depth < 64
+            )
+            SELECT contribution_id, ancestor_uuid, descendant_uuid, depth FROM tree
+        """);
+
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS contributor_closure_insert AFTER INSERT ON contributors
+            BEGIN
+                INSERT OR IGNORE INTO contributor_closure (contribution_id, ancestor_uuid, descendant_uuid, depth)
+                SELECT NEW.contribution_id, NEW.player_uuid, NEW.player_uuid, 0
+                UNION ALL
+                SELECT contribution_id, ancestor_uuid, NEW.player_uuid, depth + 1
+                FROM contributor_closure
+                WHERE contribution_id = NEW.contribution_id AND descendant_uuid = NEW.inviter_uuid;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS contributor_closure_delete AFTER DELETE ON contributors
+            BEGIN
+                DELETE FROM contributor_closure
+                WHERE contribution_id = OLD.contribution_id AND ancestor_uuid = OLD.player_uuid;
+                DELETE FROM contributor_closure
+                WHERE contribution_id = OLD.contribution_id AND descendant_uuid = OLD.player_uuid;
+            END
+        """);
+    }
+
+    /**
+     * 版本8：创建只追加的变更日志和记录保留起点的状态表，见 {@link ContributionChangeLog}
+     * 已有数据不生成变更记录，使用者首次同步时读取完整数据
+     */
+    private static void createChangeLog(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS contribution_changes (
+                seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                contribution_id INTEGER NOT NULL,
+                change_type TEXT NOT NULL,
+                player_uuid BLOB,
+                changed_at INTEGER NOT NULL
+            )
+        """);
+        stmt.execute("""
+            CREATE INDEX IF NOT EXISTS idx_contribution_changes_contribution
+            ON contribution_changes(contribution_id, seq)
+        """);
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS contribution_changes_meta (
+                key TEXT PRIMARY KEY,
+                value INTEGER NOT NULL
+            ) WITHOUT ROWID
+        """);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.contribtracker.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按世界划分的空间哈希索引
+ * 以区块（16x16格）为单元，把贡献ID挂在其X/Z坐标所在的单元上。
+ * 范围查询只需访问与查询范围相交的单元，耗时与附近单元数量成正比，与贡献总数无关。
+ *
+ * 世界按 {@link StringDictionary#WORLDS} 的编码区分，查询不存在的世界时不会向字典中添加新值。
+ *
+ * 修改方法由 {@link ContributionStore} 在持有锁时调用，查询方法无需加锁。
+ */
+public class SpatialIndex {
+    /** 单元边长，与区块大小一致 */
+    static final int CELL_SIZE = 16;
+
+    private final Map<Integer, Map<Long, Set<Integer>>> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * 把贡献加入索引
+     */
+    public void add(String world, double x, double z, int id) {
+        worlds.computeIfAbsent(StringDictionary.WORLDS.encode(world), k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(cellKey(cellOf(x), cellOf(z)), k -> ConcurrentHashMap.newKeySet())
+            .add(id);
+    }
+
+    /**
+     * 把贡献从索引中移除
+     */
+    public void remove(String world, double x, double z, int id) {
+        Map<Long, Set<Integer>> cells = worlds.get(StringDictionary.WORLDS.find(world));
+        if (cells == null) {
+            return;
+        }
+        long key = cellKey(cellOf(x), cellOf(z));
+        Set<Integer> ids = cells.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    public void clear() {
+        worlds.clear();
+    }
+
+    /**
+     * 查询与给定矩形范围相交的所有单元中的贡献ID
+     * 返回的是候选集合，调用方还需要按精确坐标过滤
+     * @param world 世界名称
+     * @return 候选贡献ID列表
+     */
+    public List<Integer> candidates(String world, double minX, double minZ, double maxX, double maxZ) {
+        Map<Long, Set<Integer>> cells = worlds.get(StringDictionary.WORLDS.find(world));
+        if (cells == null || cells.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int minCellX = cellOf(minX);
+        int maxCellX = cellOf(maxX);
+        int minCellZ = cellOf(minZ);
+        int maxCellZ = cellOf(maxZ);
+        long rangeCells = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+
+        List<Integer> result = new ArrayList<>();
+        if (rangeCells > cells.size()) {
+            // 范围比已占用的单元还多时，直接遍历已占用的单元
+            for (Map.Entry<Long, Set<Integer>> entry : cells.entrySet()) {
+                int cellX = (int) (entry.getKey() >> 32);
+                int cellZ = (int) (long) entry.getKey();
+                if (cellX >= minCellX && cellX <= maxCellX && cellZ >= minCellZ && cellZ <= maxCellZ) {
+                    result.addAll(entry.getValue());
+                }
+            }
+            return result;
+        }
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                Set<Integer> ids = cells.get(cellKey(cellX, cellZ));
+                if (ids != null) {
+                    result.addAll(ids);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 检查给定矩形范围覆盖的单元数是否超过该世界已占用的单元数
+     * 这种情况下索引也要遍历该世界的全部单元，直接顺序扫描列式快照更快
+     */
+    public boolean isWideRange(String world, double minX, double minZ, double maxX, double maxZ) {
+        Map<Long, Set<Integer>> cells = worlds.get(StringDictionary.WORLDS.find(world));
+        if (cells == null || cells.isEmpty()) {
+            return false;
+        }
+        long rangeCells = (long) (cellOf(maxX) - cellOf(minX) + 1) * (cellOf(maxZ) - cellOf(minZ) + 1);
+        return rangeCells > cells.size();
+    }
+
+    private static int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
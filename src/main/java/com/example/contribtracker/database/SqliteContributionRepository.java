@@ -0,0 +1,171 @@
+package com.example.contribtracker.database;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 基于SQLite的贡献存取实现
+ * 连接池、写入线程、结构迁移和备份由 {@link DatabaseManager} 管理，这里只把接口方法转发给它。
+ */
+public class SqliteContributionRepository implements ContributionRepository {
+    @Override
+    public boolean isReady() {
+        return DatabaseManager.isInitialized();
+    }
+
+    @Override
+    public void initialize() throws SQLException {
+        DatabaseManager.initialize();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        DatabaseManager.close();
+    }
+
+    @Override
+    public Contribution getContributionById(int id) throws SQLException {
+        return DatabaseManager.getContributionById(id);
+    }
+
+    @Override
+    public Contribution getContributionByName(String name) {
+        return DatabaseManager.getContributionByName(name);
+    }
+
+    @Override
+    public List<Contribution> getAllContributions() throws SQLException {
+        return DatabaseManager.getAllContributions();
+    }
+
+    @Override
+    public List<Contribution> getAllContributionsByCreator(UUID creatorUuid) throws SQLException {
+        return DatabaseManager.getAllContributionsByCreator(creatorUuid);
+    }
+
+    @Override
+    public ContributionPage getContributionsAfter(ContributionCursor after, int limit) throws SQLException {
+        return DatabaseManager.getContributionsAfter(after, limit);
+    }
+
+    @Override
+    public ContributionPage getContributionsBefore(ContributionCursor before, int limit) throws SQLException {
+        return DatabaseManager.getContributionsBefore(before, limit);
+    }
+
+    @Override
+    public ContributionPage getContributionPage(int pageNumber, int limit) throws SQLException {
+        return DatabaseManager.getContributionPage(pageNumber, limit);
+    }
+
+    @Override
+    public int getContributionCount() throws SQLException {
+        return DatabaseManager.getContributionCount();
+    }
+
+    @Override
+    public ContributionStats getContributionStats() throws SQLException {
+        return DatabaseManager.getContributionStats();
+    }
+
+    @Override
+    public List<Contribution> getContributionsInBox(String world, double minX, double minY, double minZ,
+                                                    double maxX, double maxY, double maxZ) throws SQLException {
+        return DatabaseManager.getContributionsInBox(world, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    @Override
+    public List<Contribution> searchContributions(String query, int limit) throws SQLException {
+        return DatabaseManager.searchContributions(query, limit);
+    }
+
+    @Override
+    public ContributorInfo getContributorInfo(int contributionId, UUID playerUuid) throws SQLException {
+        return DatabaseManager.getContributorInfo(contributionId, playerUuid);
+    }
+
+    @Override
+    public List<ContributorInfo> getContributorsByContributionId(int contributionId) throws SQLException {
+        return DatabaseManager.getContributorsByContributionId(contributionId);
+    }
+
+    @Override
+    public int getContributorCount(int contributionId) throws SQLException {
+        return DatabaseManager.getContributorCount(contributionId);
+    }
+
+    @Override
+    public boolean isAncestor(int contributionId, UUID ancestorUuid, UUID descendantUuid) throws SQLException {
+        return DatabaseManager.isAncestor(contributionId, ancestorUuid, descendantUuid);
+    }
+
+    @Override
+    public List<ContributorInfo> getSubordinates(int contributionId, UUID playerUuid) throws SQLException {
+        return DatabaseManager.getSubordinates(contributionId, playerUuid);
+    }
+
+    @Override
+    public int getContributorDepth(int contributionId, UUID playerUuid) throws SQLException {
+        return DatabaseManager.getContributorDepth(contributionId, playerUuid);
+    }
+
+    @Override
+    public UUID getPlayerUuidByName(String playerName, int contributionId) throws SQLException {
+        return DatabaseManager.getPlayerUuidByName(playerName, contributionId);
+    }
+
+    @Override
+    public List<ContributorInfo> findPlayerByName(String playerName) throws SQLException {
+        return DatabaseManager.findPlayerByName(playerName);
+    }
+
+    @Override
+    public List<ContributorInfo> findSimilarPlayers(String playerName, int limit) throws SQLException {
+        return DatabaseManager.findSimilarPlayers(playerName, limit);
+    }
+
+    @Override
+    public long getChangeLogPosition() {
+        return DatabaseManager.getChangeLogPosition();
+    }
+
+    @Override
+    public ContributionChanges getChangesSince(long afterSeq, int limit) throws SQLException {
+        return DatabaseManager.getChangesSince(afterSeq, limit);
+    }
+
+    @Override
+    public CompletableFuture<Contribution> addContributionAsync(String name, String type, String gameId,
+                                                                double x, double y, double z, String world,
+                                                                UUID creatorUuid) {
+        return DatabaseManager.addContributionAsync(name, type, gameId, x, y, z, world, creatorUuid);
+    }
+
+    @Override
+    public CompletableFuture<ContributorInfo> addContributorAsync(int contributionId, UUID playerUuid,
+                                                                  String playerName, String note, UUID inviterUuid) {
+        return DatabaseManager.addContributorAsync(contributionId, playerUuid, playerName, note, inviterUuid);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteContributionAsync(int contributionId) {
+        return DatabaseManager.deleteContributionAsync(contributionId);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteContributorAsync(int contributionId, UUID playerUuid) {
+        return DatabaseManager.deleteContributorAsync(contributionId, playerUuid);
+    }
+
+    @Override
+    public int importContributions(ContributionReader reader) throws SQLException {
+        return DatabaseManager.importContributions(reader);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> supplyAsync(DatabaseCall<T> call) {
+        return DatabaseManager.supplyAsync(call);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.contribtracker.database;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 取值很少的字符串字典
+ * 贡献类型和世界名称只有少数几种，每个不同的值只保存一份并分配一个从0开始的小整数编码。
+ * 模型对象中保存的是字典里的共享实例，而不是每行数据各自的副本；需要按值分组的索引可以直接使用编码。
+ *
+ * 字典只增不减，编码在进程生命周期内不变，但不同进程之间不保证相同，不能写入持久化数据。
+ */
+public final class StringDictionary {
+    /** 贡献类型 */
+    public static final StringDictionary TYPES = new StringDictionary();
+    /** 世界名称 */
+    public static final StringDictionary WORLDS = new StringDictionary();
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[0];
+
+    /**
+     * 获取值的编码，值第一次出现时分配新编码
+     * @param value 字符串，不能为null
+     * @return 编码
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    /**
+     * 查找已有值的编码，不会分配新编码，用于查询参数
+     * @return 编码，值从未出现过时返回-1
+     */
+    public int find(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * 获取编码对应的值
+     * @throws IndexOutOfBoundsException 如果编码不存在
+     */
+    public String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * 返回与参数相等的共享实例
+     * @return 共享实例，参数为null时返回null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        // 先取得编码再读取数组，编码可能是刚分配的，旧数组中还没有它
+        int code = encode(value);
+        return values[code];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        // 先发布新数组再发布编码，其他线程拿到编码时一定能解码
+        int code = values.length;
+        String[] grown = Arrays.copyOf(values, code + 1);
+        grown[code] = value;
+        values = grown;
+        codes.put(value, code);
+        return code;
+    }
+}
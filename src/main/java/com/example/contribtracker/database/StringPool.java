@@ -0,0 +1,34 @@
+package com.example.contribtracker.database;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 字符串享元池
+ * 同一个玩家出现在许多贡献中，加载时每一行都会得到一份新的名称副本；
+ * 放入模型前换成池中的共享实例，相同的名称在内存中只保存一份。
+ *
+ * 池只增不减，只应用于取值范围有限的字符串（如玩家名称），不要放入贡献名称这类几乎不重复的值。
+ */
+public final class StringPool {
+    /** 玩家名称，包括贡献者名称和创建者名称 */
+    public static final StringPool PLAYER_NAMES = new StringPool();
+
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+
+    /**
+     * 返回与参数相等的共享实例
+     * @return 共享实例，参数为null时返回null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = pool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+}
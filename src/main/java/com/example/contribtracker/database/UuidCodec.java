@@ -0,0 +1,73 @@
+package com.example.contribtracker.database;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * UUID的数据库存储编码
+ * UUID以16字节BLOB（高64位在前，大端序）存储，比36字符的文本少一半以上空间，
+ * 读取时直接从字节还原，不需要解析字符串。
+ *
+ * 读取时同时兼容旧版本写入的文本格式。
+ */
+public final class UuidCodec {
+    /** BLOB格式的字节数 */
+    public static final int BYTES = 16;
+
+    private UuidCodec() {
+    }
+
+    /**
+     * 把UUID编码为16字节
+     */
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(BYTES)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+
+    /**
+     * 从16字节还原UUID
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * 绑定UUID参数，为null时绑定NULL
+     */
+    public static void bind(PreparedStatement pstmt, int index, UUID uuid) throws SQLException {
+        if (uuid == null) {
+            pstmt.setNull(index, Types.BLOB);
+        } else {
+            pstmt.setBytes(index, toBytes(uuid));
+        }
+    }
+
+    /**
+     * 读取UUID列，列值为NULL时返回null
+     * @throws SQLException 如果列值既不是16字节BLOB也不是合法的UUID文本
+     */
+    public static UUID read(ResultSet rs, String column) throws SQLException {
+        byte[] bytes = rs.getBytes(column);
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length == BYTES) {
+            return fromBytes(bytes);
+        }
+        // 尚未迁移的文本格式
+        try {
+            return UUID.fromString(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("无效的UUID值: " + column, e);
+        }
+    }
+}
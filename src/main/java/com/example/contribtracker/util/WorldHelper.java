@@ -0,0 +1,29 @@
+package com.example.contribtracker.util;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.world.World;
+
+/**
+ * 世界相关工具类
+ */
+public class WorldHelper {
+    /**
+     * 获取保存到数据库中的世界名称
+     * 原版三个维度使用简短名称，其他维度使用完整的注册ID
+     * @param world 世界
+     * @return 世界名称
+     */
+    public static String getWorldName(World world) {
+        RegistryKey<World> key = world.getRegistryKey();
+        
+        if (key == World.OVERWORLD) {
+            return "overworld";
+        } else if (key == World.NETHER) {
+            return "the_nether";
+        } else if (key == World.END) {
+            return "the_end";
+        } else {
+            return key.getValue().toString();
+        }
+    }
+}
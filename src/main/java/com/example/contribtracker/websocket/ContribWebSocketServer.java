@@ -1,6 +1,8 @@
 package com.example.contribtracker.websocket;
 
 import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.IExtension;
 import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
 import org.slf4j.Logger;
@@ -9,6 +11,9 @@ import com.example.contribtracker.ContribTrackerMod;
 import com.example.contribtracker.util.LogHelper;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 
@@ -17,12 +22,19 @@ public abstract class ContribWebSocketServer extends WebSocketServer {
     private final Map<WebSocket, WebSocketSession> sessions = new ConcurrentHashMap<>();
 
     public ContribWebSocketServer(InetSocketAddress address) {
-        super(address);
+        this(address, null);
+    }
+
+    /**
+     * @param compression 客户端支持时使用的压缩扩展，不支持的客户端仍按未压缩的方式连接；为null时不压缩
+     */
+    public ContribWebSocketServer(InetSocketAddress address, IExtension compression) {
+        super(address, List.of(compression != null ? new Draft_6455(compression) : new Draft_6455()));
     }
 
     @Override
     public void onOpen(WebSocket conn, ClientHandshake handshake) {
-        WebSocketSession session = new WebSocketSession(conn);
+        WebSocketSession session = new WebSocketSession(conn, handshake.getResourceDescriptor());
         sessions.put(conn, session);
         onOpen(session);
     }
@@ -55,6 +67,50 @@ public abstract class ContribWebSocketServer extends WebSocketServer {
     public void onStart() {
     }
 
+    /**
+     * 向多个会话发送同一条文本消息
+     * 未协商压缩的连接共享同一组帧，帧只创建一次；协商了压缩的连接各自的压缩状态不同，
+     * 帧在发送时会被就地压缩，不能共享，只共享序列化结果，逐个发送
+     */
+    public void broadcastText(String payload, Collection<WebSocketSession> targets) {
+        List<WebSocket> shared = new ArrayList<>(targets.size());
+        for (WebSocketSession session : targets) {
+            if (!session.isCompressed()) {
+                shared.add(session.getConnection());
+                continue;
+            }
+            try {
+                session.send(payload);
+            } catch (Exception e) {
+                LOGGER.debug("向{}广播消息失败: {}", session.getRemoteAddress(), e.getMessage());
+            }
+        }
+        if (!shared.isEmpty()) {
+            broadcast(payload, shared);
+        }
+    }
+
+    /**
+     * 向多个会话发送同一条二进制消息，帧的共享方式与 {@link #broadcastText} 相同
+     */
+    public void broadcastBinary(byte[] payload, Collection<WebSocketSession> targets) {
+        List<WebSocket> shared = new ArrayList<>(targets.size());
+        for (WebSocketSession session : targets) {
+            if (!session.isCompressed()) {
+                shared.add(session.getConnection());
+                continue;
+            }
+            try {
+                session.send(payload);
+            } catch (Exception e) {
+                LOGGER.debug("向{}广播消息失败: {}", session.getRemoteAddress(), e.getMessage());
+            }
+        }
+        if (!shared.isEmpty()) {
+            broadcast(payload, shared);
+        }
+    }
+
     public abstract void onOpen(WebSocketSession session);
     public abstract void onClose(WebSocketSession session);
     public abstract void onMessage(WebSocketSession session, String message);
@@ -0,0 +1,211 @@
+package com.example.contribtracker.websocket;
+
+import com.example.contribtracker.database.Contribution;
+import com.example.contribtracker.database.ContributorInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * WebSocket二进制消息编码
+ * 所有多字节定长数值均为大端序；varint为无符号LEB128（每字节低7位为数据，最高位表示后面还有字节）。
+ *
+ * 消息结构：
+ * <pre>
+ * u8      格式版本，当前为1
+ * u8      消息类型：1=all_data，2=delta_data，3=update_data，4=search_result，5=snapshot_chunk
+ * 字符串表 varint 数量，之后每项为 varint UTF-8字节数 + UTF-8字节
+ * 头部    all_data: varint version；delta_data: varint fromVersion, varint version；
+ *         update_data: 无；search_result: varint 查询文本的字符串引用；
+ *         snapshot_chunk: varint version, varint 块序号（从0开始）
+ * 正文    all_data/update_data/search_result/snapshot_chunk: 一个贡献列表；
+ *         delta_data: added列表, changed列表, varint 删除数量 + 每个被删除的 varint 贡献ID
+ * </pre>
+ * 字符串引用为字符串表下标加一，0表示null；名称、类型、世界、玩家名称等重复出现的字符串只在表中保存一次。
+ *
+ * 贡献列表为 varint 数量，之后每个贡献为：
+ * <pre>
+ * varint  id
+ * varint  name, type, world, creatorName, gameId 的字符串引用
+ * f32     x, y, z
+ * varint  createdAt（毫秒）
+ * u8      标志：bit0 有creatorUuid
+ * 16字节  creatorUuid（仅当bit0置位）
+ * varint  贡献者数量，之后每个贡献者为：
+ *         u8 标志（bit0 有playerUuid，bit1 有inviterUuid），对应的16字节UUID，
+ *         varint playerName 的字符串引用，varint level
+ * </pre>
+ * 坐标按32位浮点数传输，绝对值超过约一千六百万时会损失小数以下的精度。
+ */
+public final class ContributionBinaryCodec {
+    public static final int FORMAT_VERSION = 1;
+
+    public static final int ALL_DATA = 1;
+    public static final int DELTA_DATA = 2;
+    public static final int UPDATE_DATA = 3;
+    public static final int SEARCH_RESULT = 4;
+    public static final int SNAPSHOT_CHUNK = 5;
+
+    private static final int HAS_CREATOR_UUID = 1;
+    private static final int HAS_PLAYER_UUID = 1;
+    private static final int HAS_INVITER_UUID = 2;
+
+    private ContributionBinaryCodec() {
+    }
+
+    public static byte[] encodeAllData(long version, List<Contribution> contributions) {
+        Encoder encoder = new Encoder();
+        encoder.body.writeVarLong(version);
+        encoder.writeContributions(contributions);
+        return encoder.finish(ALL_DATA);
+    }
+
+    public static byte[] encodeDeltaData(long fromVersion, long version, List<Contribution> added,
+                                         List<Contribution> changed, List<Integer> deleted) {
+        Encoder encoder = new Encoder();
+        encoder.body.writeVarLong(fromVersion);
+        encoder.body.writeVarLong(version);
+        encoder.writeContributions(added);
+        encoder.writeContributions(changed);
+        encoder.body.writeVarLong(deleted.size());
+        for (int id : deleted) {
+            encoder.body.writeVarLong(id);
+        }
+        return encoder.finish(DELTA_DATA);
+    }
+
+    public static byte[] encodeUpdateData(Contribution contribution) {
+        Encoder encoder = new Encoder();
+        encoder.writeContributions(List.of(contribution));
+        return encoder.finish(UPDATE_DATA);
+    }
+
+    public static byte[] encodeSearchResult(String query, List<Contribution> contributions) {
+        Encoder encoder = new Encoder();
+        encoder.writeString(query);
+        encoder.writeContributions(contributions);
+        return encoder.finish(SEARCH_RESULT);
+    }
+
+    public static byte[] encodeSnapshotChunk(long version, int index, List<Contribution> contributions) {
+        Encoder encoder = new Encoder();
+        encoder.body.writeVarLong(version);
+        encoder.body.writeVarLong(index);
+        encoder.writeContributions(contributions);
+        return encoder.finish(SNAPSHOT_CHUNK);
+    }
+
+    /**
+     * 正文先写入缓冲区，同时收集字符串表，最后按 版本、类型、字符串表、正文 的顺序拼接
+     */
+    private static final class Encoder {
+        private final Buffer body = new Buffer();
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Buffer table = new Buffer();
+
+        private void writeContributions(List<Contribution> contributions) {
+            body.writeVarLong(contributions.size());
+            for (Contribution contribution : contributions) {
+                body.writeVarLong(contribution.getId());
+                writeString(contribution.getName());
+                writeString(contribution.getType());
+                writeString(contribution.getWorld());
+                writeString(contribution.getCreatorName());
+                writeString(contribution.getGameId());
+                body.writeFloat((float) contribution.getX());
+                body.writeFloat((float) contribution.getY());
+                body.writeFloat((float) contribution.getZ());
+                body.writeVarLong(contribution.getCreatedAt());
+                body.write(contribution.getCreatorUuid() != null ? HAS_CREATOR_UUID : 0);
+                body.writeUuid(contribution.getCreatorUuid());
+
+                List<ContributorInfo> contributors = contribution.getContributorList();
+                if (contributors == null) {
+                    body.writeVarLong(0);
+                    continue;
+                }
+                body.writeVarLong(contributors.size());
+                for (ContributorInfo contributor : contributors) {
+                    body.write((contributor.getPlayerUuid() != null ? HAS_PLAYER_UUID : 0)
+                        | (contributor.getInviterUuid() != null ? HAS_INVITER_UUID : 0));
+                    body.writeUuid(contributor.getPlayerUuid());
+                    body.writeUuid(contributor.getInviterUuid());
+                    writeString(contributor.getPlayerName());
+                    body.writeVarLong(contributor.getLevel());
+                }
+            }
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                body.writeVarLong(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.put(value, index);
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                table.writeVarLong(bytes.length);
+                table.write(bytes, 0, bytes.length);
+            }
+            body.writeVarLong(index + 1);
+        }
+
+        private byte[] finish(int messageType) {
+            Buffer out = new Buffer();
+            out.write(FORMAT_VERSION);
+            out.write(messageType);
+            out.writeVarLong(strings.size());
+            table.writeTo(out);
+            body.writeTo(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static final class Buffer extends ByteArrayOutputStream {
+        private Buffer() {
+            super(256);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeFloat(float value) {
+            int bits = Float.floatToIntBits(value);
+            write(bits >>> 24);
+            write(bits >>> 16);
+            write(bits >>> 8);
+            write(bits);
+        }
+
+        private void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        /**
+         * 写入16字节UUID，为null时不写入，由标志位说明是否存在
+         */
+        private void writeUuid(UUID uuid) {
+            if (uuid != null) {
+                writeLong(uuid.getMostSignificantBits());
+                writeLong(uuid.getLeastSignificantBits());
+            }
+        }
+
+        private void writeTo(Buffer out) {
+            out.write(buf, 0, count);
+        }
+    }
+}
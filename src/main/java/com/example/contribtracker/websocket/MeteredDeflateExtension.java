@@ -0,0 +1,100 @@
+package com.example.contribtracker.websocket;
+
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.Framedata;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * 记录压缩前后字节数的 permessage-deflate 扩展
+ * 每个连接使用通过 {@link #copyInstance()} 复制的独立实例，统计数据由所有连接共享。
+ * 小于阈值的消息不压缩，按原样计入压缩前后的字节数。
+ * 父类在 server_no_context_takeover（默认开启）时每条消息结束后都会换上一个默认级别的新 {@link Deflater}，
+ * 因此每次发现 Deflater 被换掉后都重新装上配置级别的实例，而不是只在创建时设置一次。
+ * 不能改用 {@link Deflater#setLevel}：级别变化后的第一次 deflate 只应用参数并返回0，父类会把它当作压缩结束，发出空的负载。
+ */
+public class MeteredDeflateExtension extends PerMessageDeflateExtension {
+    private static final LongAdder framesSent = new LongAdder();
+    private static final LongAdder framesCompressed = new LongAdder();
+    private static final LongAdder bytesBefore = new LongAdder();
+    private static final LongAdder bytesAfter = new LongAdder();
+
+    private final int compressionLevel;
+    private Deflater deflater;
+
+    public MeteredDeflateExtension(int compressionLevel, int threshold) {
+        this.compressionLevel = compressionLevel;
+        installDeflater();
+        setThreshold(threshold);
+    }
+
+    @Override
+    public void encodeFrame(Framedata inputFrame) {
+        if (!(inputFrame instanceof DataFrame)) {
+            super.encodeFrame(inputFrame);
+            return;
+        }
+        int before = inputFrame.getPayloadData().remaining();
+        super.encodeFrame(inputFrame);
+        int after = inputFrame.getPayloadData().remaining();
+        if (getDeflater() != deflater) {
+            // 父类在消息结束后换上了默认级别的 Deflater
+            getDeflater().end();
+            installDeflater();
+        }
+
+        framesSent.increment();
+        if (inputFrame.isRSV1()) {
+            framesCompressed.increment();
+        }
+        bytesBefore.add(before);
+        bytesAfter.add(after);
+    }
+
+    /**
+     * 换上配置级别的 Deflater，参数nowrap与父类默认的实例一致
+     */
+    private void installDeflater() {
+        deflater = new Deflater(compressionLevel, true);
+        setDeflater(deflater);
+    }
+
+    @Override
+    public IExtension copyInstance() {
+        MeteredDeflateExtension copy = new MeteredDeflateExtension(compressionLevel, getThreshold());
+        copy.setServerNoContextTakeover(isServerNoContextTakeover());
+        copy.setClientNoContextTakeover(isClientNoContextTakeover());
+        return copy;
+    }
+
+    /**
+     * 已发送的数据帧数
+     */
+    public static long getFramesSent() {
+        return framesSent.sum();
+    }
+
+    /**
+     * 其中超过阈值并被压缩的数据帧数
+     */
+    public static long getFramesCompressed() {
+        return framesCompressed.sum();
+    }
+
+    /**
+     * 压缩前的负载字节数
+     */
+    public static long getBytesBefore() {
+        return bytesBefore.sum();
+    }
+
+    /**
+     * 压缩后实际发送的负载字节数
+     */
+    public static long getBytesAfter() {
+        return bytesAfter.sum();
+    }
+}
@@ -2,8 +2,12 @@ package com.example.contribtracker.websocket;
 
 import com.example.contribtracker.ContribTrackerMod;
 import com.example.contribtracker.config.WebSocketConfig;
-import com.example.contribtracker.database.DatabaseManager;
 import com.example.contribtracker.database.Contribution;
+import com.example.contribtracker.database.ContributionChange;
+import com.example.contribtracker.database.ContributionChangeLog;
+import com.example.contribtracker.database.ContributionChanges;
+import com.example.contribtracker.database.ContributionRepository;
+import com.example.contribtracker.database.ContributionSearch;
 import com.example.contribtracker.util.LogHelper;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
@@ -12,6 +16,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.Executors;
@@ -38,11 +47,94 @@ public class WebSocketHandler {
     private static final Map<String, Long> lastPongTimes = new ConcurrentHashMap<>();
     private static final long PING_INTERVAL = 30; // 30秒
     private static final long PONG_TIMEOUT = 60; // 60秒
-    // 缓存最后发送的数据，减少数据库访问
-    private static volatile List<Contribution> cachedContributions = Collections.emptyList();
-    private static volatile long cacheTimestamp = 0;
-    private static final long CACHE_EXPIRY = 5000; // 5秒缓存
+    private static volatile ContribWebSocketServer server;
+    // 缓存最后发送的数据及其编码结果，直到下一次修改
+    private static volatile Snapshot cachedSnapshot = Snapshot.EMPTY;
     private static final long DB_CHECK_INTERVAL = 1000; // 每秒检查数据库是否初始化
+    private static final int SEARCH_LIMIT = 20; // 搜索默认返回的结果数
+    private static final int SNAPSHOT_CHUNK_SIZE = 500; // 分块发送完整数据时每块的贡献数
+    private static final long SNAPSHOT_CHUNK_RETRY_MILLIS = 10; // 连接的发送队列未写完时，等待多久再发送下一块
+    private static final int DELTA_MAX_CHANGES = ContributionChangeLog.MAX_READ; // 落后超过这么多条变更时改为发送完整数据
+
+    /**
+     * 完整数据及其对应的变更日志位置
+     * 位置在读取数据之前获取，客户端从该位置开始增量同步不会遗漏读取期间发生的修改。
+     * all_data 消息的每种编码在第一次使用时编码一次，之后所有连接共享同一份编码结果；
+     * JSON缓存的是UTF-8字节，发送时不再为每个连接重新编码字符串
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), 0);
+
+        private final List<Contribution> contributions;
+        private final long version;
+        private byte[] jsonPayload;
+        private byte[] binaryPayload;
+        private byte[][] jsonChunks;
+        private byte[][] binaryChunks;
+
+        private Snapshot(List<Contribution> contributions, long version) {
+            this.contributions = contributions;
+            this.version = version;
+        }
+
+        private synchronized byte[] jsonPayload() {
+            if (jsonPayload == null) {
+                JsonObject message = new JsonObject();
+                message.addProperty("type", "all_data");
+                message.addProperty("version", version);
+                message.add("data", gson.toJsonTree(contributions));
+                jsonPayload = gson.toJson(message).getBytes(StandardCharsets.UTF_8);
+            }
+            return jsonPayload;
+        }
+
+        private synchronized byte[] binaryPayload() {
+            if (binaryPayload == null) {
+                binaryPayload = ContributionBinaryCodec.encodeAllData(version, contributions);
+            }
+            return binaryPayload;
+        }
+
+        private int chunkCount() {
+            return (contributions.size() + SNAPSHOT_CHUNK_SIZE - 1) / SNAPSHOT_CHUNK_SIZE;
+        }
+
+        private List<Contribution> chunk(int index) {
+            int from = index * SNAPSHOT_CHUNK_SIZE;
+            return contributions.subList(from, Math.min(from + SNAPSHOT_CHUNK_SIZE, contributions.size()));
+        }
+
+        private synchronized byte[] jsonChunk(int index) {
+            if (jsonChunks == null) {
+                jsonChunks = new byte[chunkCount()][];
+            }
+            if (jsonChunks[index] == null) {
+                JsonObject message = new JsonObject();
+                message.addProperty("type", "snapshot_chunk");
+                message.addProperty("version", version);
+                message.addProperty("index", index);
+                message.add("data", gson.toJsonTree(chunk(index)));
+                jsonChunks[index] = gson.toJson(message).getBytes(StandardCharsets.UTF_8);
+            }
+            return jsonChunks[index];
+        }
+
+        private synchronized byte[] binaryChunk(int index) {
+            if (binaryChunks == null) {
+                binaryChunks = new byte[chunkCount()][];
+            }
+            if (binaryChunks[index] == null) {
+                binaryChunks[index] = ContributionBinaryCodec.encodeSnapshotChunk(version, index, chunk(index));
+            }
+            return binaryChunks[index];
+        }
+
+        private static Snapshot read() throws SQLException {
+            ContributionRepository repository = ContribTrackerMod.getRepository();
+            long version = repository.getChangeLogPosition();
+            return new Snapshot(repository.getAllContributions(), version);
+        }
+    }
 
     public static void initialize() {
         if (isRunning.get()) {
@@ -102,13 +194,12 @@ public class WebSocketHandler {
     private static void refreshCache() {
         CompletableFuture.runAsync(() -> {
             try {
-                if (!DatabaseManager.isInitialized()) {
+                if (!ContribTrackerMod.getRepository().isReady()) {
                     LogHelper.debug("数据库尚未初始化，跳过缓存刷新");
                     return;
                 }
                 
-                cachedContributions = DatabaseManager.getAllContributions();
-                cacheTimestamp = System.currentTimeMillis();
+                cachedSnapshot = Snapshot.read();
             } catch (SQLException e) {
                 LogHelper.error("刷新数据缓存失败", e);
             }
@@ -118,13 +209,30 @@ public class WebSocketHandler {
     private static void startServer(int port) {
         try {
             // 创建WebSocket服务器
-            ContribWebSocketServer server = new ContribWebSocketServer(new InetSocketAddress(port)) {
+            InetSocketAddress address = new InetSocketAddress(port);
+            server = new ContribWebSocketServer(address, WebSocketConfig.isCompressionEnabled()
+                ? new MeteredDeflateExtension(WebSocketConfig.getCompressionLevel(), WebSocketConfig.getCompressionThreshold())
+                : null) {
                 @Override
                 public void onOpen(WebSocketSession session) {
                     sessions.add(session);
                     LogHelper.debug("新的WebSocket连接: {}", session.getRemoteAddress());
-                    // 异步发送所有数据
-                    ContribTrackerMod.WORKER_POOL.execute(() -> sendAllData(session));
+                    // 连接地址带有 format=binary 参数时使用二进制编码
+                    WireFormat format = WireFormat.parse(session.getQueryParameter("format"));
+                    if (format != null) {
+                        session.setFormat(format);
+                    }
+                    // 连接地址带有 chunked=true 参数时分块发送完整数据
+                    session.setChunkedSnapshot(Boolean.parseBoolean(session.getQueryParameter("chunked")));
+                    // 连接地址带有 version 参数时只发送该版本之后的变更，否则异步发送所有数据
+                    Long version = parseVersion(session.getQueryParameter("version"));
+                    ContribTrackerMod.WORKER_POOL.execute(() -> {
+                        if (version != null) {
+                            sendChangesSince(session, version);
+                        } else {
+                            sendAllData(session);
+                        }
+                    });
                 }
 
                 @Override
@@ -161,15 +269,23 @@ public class WebSocketHandler {
         }
     }
 
+    /**
+     * 发送完整数据
+     * 响应格式：{"type": "all_data", "version": 变更位置, "data": [贡献列表]}
+     */
     private static void sendAllData(WebSocketSession session) {
         try {
             // 检查缓存是否有效，无效则刷新
-            List<Contribution> contributions = getCachedContributions();
-            
-            JsonObject message = new JsonObject();
-            message.addProperty("type", "all_data");
-            message.add("data", gson.toJsonTree(contributions));
-            session.send(gson.toJson(message));
+            Snapshot snapshot = getCachedSnapshot();
+            if (session.isChunkedSnapshot()) {
+                streamSnapshot(session, snapshot);
+                return;
+            }
+            if (session.getFormat() == WireFormat.BINARY) {
+                session.send(snapshot.binaryPayload());
+            } else {
+                session.sendText(snapshot.jsonPayload());
+            }
             LogHelper.debug("已发送所有贡献数据到客户端: {}", session.getRemoteAddress());
         } catch (Exception e) {
             LogHelper.error("发送所有贡献数据失败", e);
@@ -177,30 +293,192 @@ public class WebSocketHandler {
         }
     }
     
-    private static List<Contribution> getCachedContributions() throws SQLException {
-        long now = System.currentTimeMillis();
-        if (now - cacheTimestamp > CACHE_EXPIRY) {
+    /**
+     * 分块发送完整数据
+     * 消息顺序：{"type": "snapshot_begin", "version": 变更位置, "total": 贡献总数, "chunks": 块数}，
+     * 每块 {"type": "snapshot_chunk", "version": 变更位置, "index": 块序号, "data": [最多500条贡献]}，
+     * 最后 {"type": "snapshot_end", "version": 变更位置}。
+     * 各块由所有连接共享，每个连接的发送队列中同时最多只有一块，其他消息可以插在块之间发送；
+     * 发送期间发生的修改在 snapshot_end 之后以 delta_data 补发
+     */
+    private static void streamSnapshot(WebSocketSession session, Snapshot snapshot) {
+        JsonObject begin = new JsonObject();
+        begin.addProperty("type", "snapshot_begin");
+        begin.addProperty("version", snapshot.version);
+        begin.addProperty("total", snapshot.contributions.size());
+        begin.addProperty("chunks", snapshot.chunkCount());
+        session.send(gson.toJson(begin));
+        sendSnapshotChunks(session, snapshot, 0);
+    }
+
+    /**
+     * 从指定的块开始继续发送，连接的发送队列未写完时稍后在工作线程中继续
+     */
+    private static void sendSnapshotChunks(WebSocketSession session, Snapshot snapshot, int index) {
+        try {
+            int next = index;
+            while (next < snapshot.chunkCount()) {
+                if (!session.isOpen()) {
+                    return;
+                }
+                if (session.hasBufferedData()) {
+                    int resumeAt = next;
+                    scheduler.schedule(() -> ContribTrackerMod.WORKER_POOL.execute(
+                        () -> sendSnapshotChunks(session, snapshot, resumeAt)),
+                        SNAPSHOT_CHUNK_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                if (session.getFormat() == WireFormat.BINARY) {
+                    session.send(snapshot.binaryChunk(next));
+                } else {
+                    session.sendText(snapshot.jsonChunk(next));
+                }
+                next++;
+            }
+
+            JsonObject end = new JsonObject();
+            end.addProperty("type", "snapshot_end");
+            end.addProperty("version", snapshot.version);
+            session.send(gson.toJson(end));
+            LogHelper.debug("已分块发送所有贡献数据到客户端: {}", session.getRemoteAddress());
+
+            if (ContribTrackerMod.getRepository().getChangeLogPosition() > snapshot.version) {
+                sendChangesSince(session, snapshot.version);
+            }
+        } catch (Exception e) {
+            LogHelper.error("分块发送贡献数据失败", e);
+            sendError(session, "获取贡献数据失败");
+        }
+    }
+
+    /**
+     * 获取缓存的完整数据，变更日志位置前进（发生了修改）后才重新读取和编码
+     */
+    private static Snapshot getCachedSnapshot() throws SQLException {
+        long position = ContribTrackerMod.getRepository().getChangeLogPosition();
+        Snapshot snapshot = cachedSnapshot;
+        if (snapshot == Snapshot.EMPTY || snapshot.version != position) {
             synchronized (WebSocketHandler.class) {
-                if (now - cacheTimestamp > CACHE_EXPIRY) {
-                    cachedContributions = DatabaseManager.getAllContributions();
-                    cacheTimestamp = now;
+                snapshot = cachedSnapshot;
+                if (snapshot == Snapshot.EMPTY || snapshot.version != position) {
+                    snapshot = Snapshot.read();
+                    cachedSnapshot = snapshot;
                 }
             }
         }
-        return cachedContributions;
+        return snapshot;
     }
 
+    /**
+     * 发送客户端已有版本之后新增、修改和删除的贡献
+     * 响应格式：{"type": "delta_data", "fromVersion": 客户端版本, "version": 新版本,
+     * "added": [贡献列表], "changed": [贡献列表], "deleted": [贡献ID]}
+     * 版本早于变更日志的保留范围、落后超过 {@link #DELTA_MAX_CHANGES} 条变更，
+     * 或者晚于服务器当前位置（数据库被恢复或更换过）时改为发送完整数据
+     */
+    private static void sendChangesSince(WebSocketSession session, long version) {
+        try {
+            ContributionRepository repository = ContribTrackerMod.getRepository();
+            long position = repository.getChangeLogPosition();
+            if (version > position) {
+                sendAllData(session);
+                return;
+            }
+
+            ContributionChanges changes = version == position
+                ? new ContributionChanges(List.of(), version, false)
+                : repository.getChangesSince(version, DELTA_MAX_CHANGES);
+            if (changes.isSnapshotRequired()
+                    || (changes.getChanges().size() >= DELTA_MAX_CHANGES && changes.getLatestSeq() < position)) {
+                sendAllData(session);
+                return;
+            }
+
+            // 同一贡献的多条变更只发送一次当前数据；变更日志会压缩，新增后又修改过的贡献可能出现在changed中
+            Set<Integer> ids = new LinkedHashSet<>();
+            Set<Integer> addedIds = new HashSet<>();
+            for (ContributionChange change : changes.getChanges()) {
+                ids.add(change.getContributionId());
+                if (change.getType() == ContributionChange.Type.CONTRIBUTION_ADDED) {
+                    addedIds.add(change.getContributionId());
+                }
+            }
+
+            List<Contribution> added = new ArrayList<>();
+            List<Contribution> changed = new ArrayList<>();
+            List<Integer> deleted = new ArrayList<>();
+            for (int id : ids) {
+                Contribution contribution = repository.getContributionById(id);
+                if (contribution == null) {
+                    deleted.add(id);
+                } else if (addedIds.contains(id)) {
+                    added.add(contribution);
+                } else {
+                    changed.add(contribution);
+                }
+            }
+
+            if (session.getFormat() == WireFormat.BINARY) {
+                session.send(ContributionBinaryCodec.encodeDeltaData(version, changes.getLatestSeq(), added, changed, deleted));
+            } else {
+                JsonObject message = new JsonObject();
+                message.addProperty("type", "delta_data");
+                message.addProperty("fromVersion", version);
+                message.addProperty("version", changes.getLatestSeq());
+                message.add("added", gson.toJsonTree(added));
+                message.add("changed", gson.toJsonTree(changed));
+                message.add("deleted", gson.toJsonTree(deleted));
+                session.send(gson.toJson(message));
+            }
+            LogHelper.debug("已发送{}条贡献变更到客户端: {}", ids.size(), session.getRemoteAddress());
+        } catch (Exception e) {
+            LogHelper.error("发送贡献变更失败", e);
+            sendError(session, "获取贡献变更失败");
+        }
+    }
+
+    /**
+     * 解析客户端提供的版本
+     * @return 版本，没有提供或格式错误时返回null
+     */
+    private static Long parseVersion(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            long version = Long.parseLong(value);
+            return version >= 0 ? version : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 广播贡献更新，每种编码只编码一次，分别发送给使用该编码的会话
+     */
     public static void broadcastContributionUpdate(Contribution contribution) {
         // 异步广播更新
         CompletableFuture.runAsync(() -> {
         try {
-                // 更新缓存
-                refreshCache();
-                
-            JsonObject message = new JsonObject();
-            message.addProperty("type", "update_data");
-            message.add("data", gson.toJsonTree(contribution));
-            broadcastUpdate(message);
+            ContribWebSocketServer current = server;
+            if (current == null) {
+                return;
+            }
+            List<WebSocketSession> jsonSessions = new ArrayList<>();
+            List<WebSocketSession> binarySessions = new ArrayList<>();
+            for (WebSocketSession session : sessions) {
+                (session.getFormat() == WireFormat.BINARY ? binarySessions : jsonSessions).add(session);
+            }
+
+            if (!jsonSessions.isEmpty()) {
+                JsonObject message = new JsonObject();
+                message.addProperty("type", "update_data");
+                message.add("data", gson.toJsonTree(contribution));
+                current.broadcastText(gson.toJson(message), jsonSessions);
+            }
+            if (!binarySessions.isEmpty()) {
+                current.broadcastBinary(ContributionBinaryCodec.encodeUpdateData(contribution), binarySessions);
+            }
                 LogHelper.debug("已广播贡献更新: {}", contribution.getId());
         } catch (Exception e) {
                 LogHelper.error("广播贡献更新失败", e);
@@ -228,6 +506,9 @@ public class WebSocketHandler {
                 // 分批次处理，避免大量会话时阻塞
                 int batchSize = 10;
                 int count = 0;
+                JsonObject pingMessage = new JsonObject();
+                pingMessage.addProperty("type", "ping");
+                String ping = gson.toJson(pingMessage);
                 
             for (WebSocketSession session : sessions) {
                 try {
@@ -237,9 +518,7 @@ public class WebSocketHandler {
                         }
                         
                         // 发送ping消息
-                    JsonObject pingMessage = new JsonObject();
-                    pingMessage.addProperty("type", "ping");
-                    session.send(gson.toJson(pingMessage));
+                    session.send(ping);
                 } catch (Exception e) {
                         LogHelper.error("发送ping消息失败", e);
                     sessions.remove(session);
@@ -272,7 +551,16 @@ public class WebSocketHandler {
                     handlePong(session);
                     break;
                 case "check_data":
-                    handleCheckData(session);
+                    handleCheckData(session, json);
+                    break;
+                case "search":
+                    handleSearch(session, json);
+                    break;
+                case "metrics":
+                    handleMetrics(session);
+                    break;
+                case "hello":
+                    handleHello(session, json);
                     break;
                 default:
                     LogHelper.warn("收到未知类型的消息: {}", type);
@@ -283,43 +571,118 @@ public class WebSocketHandler {
         }
     }
 
-    private static void handleCheckData(WebSocketSession session) {
+    /**
+     * 选择携带贡献的消息使用的编码和完整数据的发送方式
+     * 请求格式：{"type": "hello", "format": "binary", "chunked": true}，format可为json或binary，
+     * chunked为true时完整数据改为分块发送，两个字段都可省略
+     * 响应格式：{"type": "hello", "format": "binary", "formatVersion": 1, "chunked": true}
+     */
+    private static void handleHello(WebSocketSession session, JsonObject json) {
+        if (json.has("format")) {
+            WireFormat format = WireFormat.parse(json.get("format").getAsString());
+            if (format == null) {
+                sendError(session, "不支持的编码: " + json.get("format").getAsString());
+                return;
+            }
+            session.setFormat(format);
+        }
+        if (json.has("chunked")) {
+            session.setChunkedSnapshot(json.get("chunked").getAsBoolean());
+        }
+
+        JsonObject response = new JsonObject();
+        response.addProperty("type", "hello");
+        response.addProperty("format", session.getFormat().name().toLowerCase(Locale.ROOT));
+        response.addProperty("formatVersion", ContributionBinaryCodec.FORMAT_VERSION);
+        response.addProperty("chunked", session.isChunkedSnapshot());
+        session.send(gson.toJson(response));
+    }
+
+    /**
+     * 处理数据检查请求
+     * 请求格式：{"type": "check_data", "version": 42}，带有上次收到的版本时只返回之后的变更（delta_data），
+     * 省略version时返回完整数据（all_data）
+     */
+    private static void handleCheckData(WebSocketSession session, JsonObject json) {
+        Long version = json.has("version") && !json.get("version").isJsonNull()
+            ? parseVersion(json.get("version").getAsString())
+            : null;
         CompletableFuture.runAsync(() -> {
+            if (version != null) {
+                sendChangesSince(session, version);
+            } else {
+                sendAllData(session);
+            }
+        }, ContribTrackerMod.WORKER_POOL);
+    }
+
+    /**
+     * 处理搜索请求
+     * 请求格式：{"type": "search", "query": "搜索文本", "limit": 20}，limit可省略
+     * 响应格式：{"type": "search_result", "query": "搜索文本", "data": [贡献列表]}
+     */
+    private static void handleSearch(WebSocketSession session, JsonObject json) {
+        if (!json.has("query")) {
+            sendError(session, "搜索请求缺少query字段");
+            return;
+        }
+        String query = json.get("query").getAsString();
+        int limit = json.has("limit") ? json.get("limit").getAsInt() : SEARCH_LIMIT;
+        
+        if (!ContributionSearch.isSearchable(query)) {
+            sendError(session, "搜索词不能为空");
+            return;
+        }
+        
         try {
-                List<Contribution> contributions = getCachedContributions();
+            List<Contribution> contributions = ContribTrackerMod.getRepository().searchContributions(query, limit);
+            if (session.getFormat() == WireFormat.BINARY) {
+                session.send(ContributionBinaryCodec.encodeSearchResult(query, contributions));
+                return;
+            }
             JsonObject response = new JsonObject();
-            response.addProperty("type", "all_data");
+            response.addProperty("type", "search_result");
+            response.addProperty("query", query);
             response.add("data", gson.toJsonTree(contributions));
             session.send(gson.toJson(response));
-            } catch (Exception e) {
-                LogHelper.error("获取贡献数据失败", e);
-            sendError(session, "获取数据失败: " + e.getMessage());
+        } catch (Exception e) {
+            LogHelper.error("搜索贡献失败", e);
+            sendError(session, "搜索失败: " + e.getMessage());
         }
-        }, ContribTrackerMod.WORKER_POOL);
     }
 
+    /**
+     * 返回消息压缩的统计
+     * 响应格式：{"type": "metrics", "data": {"compression": true, "framesSent": 0, "framesCompressed": 0,
+     * "bytesBeforeCompression": 0, "bytesAfterCompression": 0}}，未启用压缩时各计数均为0
+     */
+    private static void handleMetrics(WebSocketSession session) {
+        JsonObject data = new JsonObject();
+        data.addProperty("compression", WebSocketConfig.isCompressionEnabled());
+        data.addProperty("framesSent", MeteredDeflateExtension.getFramesSent());
+        data.addProperty("framesCompressed", MeteredDeflateExtension.getFramesCompressed());
+        data.addProperty("bytesBeforeCompression", MeteredDeflateExtension.getBytesBefore());
+        data.addProperty("bytesAfterCompression", MeteredDeflateExtension.getBytesAfter());
+
+        JsonObject response = new JsonObject();
+        response.addProperty("type", "metrics");
+        response.add("data", data);
+        session.send(gson.toJson(response));
+    }
+
+    /**
+     * 向所有会话广播消息
+     * 消息只序列化一次，WebSocket帧也只创建一次，再由服务器写入每个连接的发送队列，不会阻塞调用线程
+     */
     public static void broadcastUpdate(JsonObject data) {
-        // 分批次广播，避免一次性处理过多会话
-        int batchSize = 10;
-        int count = 0;
-        
-        for (WebSocketSession session : sessions) {
-            CompletableFuture.runAsync(() -> {
-            try {
-                session.send(gson.toJson(data));
-            } catch (Exception e) {
-                    LogHelper.error("广播消息失败", e);
-                }
-            }, ContribTrackerMod.WORKER_POOL);
-            
-            // 控制批次
-            if (++count % batchSize == 0) {
-                try {
-                    Thread.sleep(50);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
+        ContribWebSocketServer current = server;
+        if (current == null || sessions.isEmpty()) {
+            return;
+        }
+        try {
+            current.broadcastText(gson.toJson(data), sessions);
+        } catch (Exception e) {
+            LogHelper.error("广播消息失败", e);
         }
     }
 
@@ -344,7 +707,12 @@ public class WebSocketHandler {
             
             sessions.clear();
             lastPongTimes.clear();
-            cachedContributions.clear();
+            server = null;
+            if (MeteredDeflateExtension.getFramesSent() > 0) {
+                LogHelper.info("WebSocket消息压缩统计: 压缩前{}字节，压缩后{}字节",
+                    MeteredDeflateExtension.getBytesBefore(), MeteredDeflateExtension.getBytesAfter());
+            }
+            cachedSnapshot = Snapshot.EMPTY;
             isRunning.set(false);
         } catch (Exception e) {
             LogHelper.error("关闭WebSocket服务器时出错", e);
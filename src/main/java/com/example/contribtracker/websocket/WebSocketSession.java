@@ -1,15 +1,51 @@
 package com.example.contribtracker.websocket;
 
 import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.TextFrame;
 import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 public class WebSocketSession {
     private final WebSocket connection;
     private final String id;
+    private final String resourceDescriptor;
+    private volatile WireFormat format = WireFormat.JSON;
+    private volatile boolean chunkedSnapshot = false;
 
-    public WebSocketSession(WebSocket connection) {
+    public WebSocketSession(WebSocket connection, String resourceDescriptor) {
         this.connection = connection;
         this.id = connection.getRemoteSocketAddress().toString();
+        this.resourceDescriptor = resourceDescriptor;
+    }
+
+    /**
+     * 获取连接地址中的查询参数，例如 ws://host:port/?version=42 中的 version
+     * @return 参数值，不存在时返回null
+     */
+    public String getQueryParameter(String name) {
+        if (resourceDescriptor == null) {
+            return null;
+        }
+        int query = resourceDescriptor.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+        for (String pair : resourceDescriptor.substring(query + 1).split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            if (key.equals(name)) {
+                return equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    WebSocket getConnection() {
+        return connection;
     }
 
     public String getId() {
@@ -20,10 +56,66 @@ public class WebSocketSession {
         return connection.getRemoteSocketAddress();
     }
 
+    /**
+     * 携带贡献的消息使用的编码方式，默认为JSON
+     */
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(WireFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * 完整数据是否分块发送（snapshot_begin/snapshot_chunk/snapshot_end），默认为一条 all_data 消息
+     */
+    public boolean isChunkedSnapshot() {
+        return chunkedSnapshot;
+    }
+
+    public void setChunkedSnapshot(boolean chunkedSnapshot) {
+        this.chunkedSnapshot = chunkedSnapshot;
+    }
+
+    /**
+     * 握手时是否协商了 permessage-deflate，协商了压缩的连接不能与其他连接共享帧
+     */
+    public boolean isCompressed() {
+        return connection.getDraft() instanceof Draft_6455 draft
+            && draft.getExtension() instanceof PerMessageDeflateExtension;
+    }
+
+    public boolean isOpen() {
+        return connection.isOpen();
+    }
+
+    /**
+     * 连接的发送队列中是否还有未写出的数据
+     */
+    public boolean hasBufferedData() {
+        return connection.hasBufferedData();
+    }
+
     public void send(String message) {
         connection.send(message);
     }
 
+    public void send(byte[] message) {
+        connection.send(message);
+    }
+
+    /**
+     * 发送已编码为UTF-8的文本消息，多个连接发送同一份缓存的字节时不必各自重新编码
+     * 每次发送创建新的帧，只引用而不修改字节数组：未协商压缩的连接直接写出这些字节，
+     * 协商了压缩的连接由压缩扩展读取后在新的帧中写入压缩结果
+     */
+    public void sendText(byte[] utf8) {
+        TextFrame frame = new TextFrame();
+        frame.setPayload(ByteBuffer.wrap(utf8));
+        connection.sendFrame(frame);
+    }
+
     public void close() {
         connection.close();
     }
@@ -0,0 +1,30 @@
+package com.example.contribtracker.websocket;
+
+import java.util.Locale;
+
+/**
+ * 客户端接收贡献数据的编码方式
+ * 控制消息（ping、error、metrics、hello、snapshot_begin、snapshot_end）始终使用JSON文本，
+ * 携带贡献的消息（all_data、delta_data、update_data、search_result、snapshot_chunk）按会话选择的编码发送
+ */
+public enum WireFormat {
+    /** JSON文本帧，默认值 */
+    JSON,
+    /** 二进制帧，格式见 {@link ContributionBinaryCodec} */
+    BINARY;
+
+    /**
+     * 按名称解析编码方式，忽略大小写
+     * @return 编码方式，无法识别时返回null
+     */
+    public static WireFormat parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.contribtracker.database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JournalContributionRepositoryTest {
+    /** 每次追加都超过阈值，写入期间不断在后台写快照 */
+    private static final long TINY_THRESHOLD = 1;
+    private static final int CONTRIBUTIONS = 300;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void callsRunOnJournalThread() throws Exception {
+        JournalContributionRepository repository = new JournalContributionRepository(directory, false, TINY_THRESHOLD);
+        repository.initialize();
+        try {
+            assertEquals("ContribTracker-Journal", repository.supplyAsync(() -> Thread.currentThread().getName()).join());
+            // 同步方法在日志线程上调用时直接执行，不会等待自己
+            int id = repository.supplyAsync(() ->
+                repository.addContribution("nested", "building", null, 0, 64, 0, "overworld", UUID.randomUUID())).join();
+            assertEquals("nested", repository.getContributionById(id).getName());
+        } finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void dataSurvivesBackgroundSnapshotsAndRestart() throws Exception {
+        JournalContributionRepository repository = new JournalContributionRepository(directory, false, TINY_THRESHOLD);
+        repository.initialize();
+        writeContributions(repository);
+        repository.close();
+
+        JournalContributionRepository reopened = new JournalContributionRepository(directory, false, TINY_THRESHOLD);
+        reopened.initialize();
+        try {
+            assertContents(reopened);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void recoversFromSnapshotAndBothJournalsWithoutClose() throws Exception {
+        JournalContributionRepository repository = new JournalContributionRepository(directory, false, TINY_THRESHOLD);
+        repository.initialize();
+        writeContributions(repository);
+        repository.awaitSnapshot();
+
+        // 不调用close，模拟进程退出：快照之后的修改只在日志中
+        JournalContributionRepository recovered = new JournalContributionRepository(directory, false, TINY_THRESHOLD);
+        recovered.initialize();
+        try {
+            assertContents(recovered);
+            assertEquals(repository.getChangeLogPosition(), recovered.getChangeLogPosition());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    /**
+     * 每条贡献添加一个贡献者，每三条删除一条
+     */
+    private static void writeContributions(JournalContributionRepository repository) {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CONTRIBUTIONS; i++) {
+            UUID creator = new UUID(0, i);
+            int index = i;
+            futures.add(repository.addContributionAsync("contribution-" + i, "building", null, i, 64, -i, "overworld", creator)
+                .thenCompose(contribution -> repository.addContributorAsync(contribution.getId(), new UUID(1, index),
+                        "player-" + index, null, null)
+                    .thenCompose(contributor -> index % 3 == 0
+                        ? repository.deleteContributionAsync(contribution.getId())
+                        : CompletableFuture.completedFuture(null))));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    private static void assertContents(JournalContributionRepository repository) {
+        assertEquals(CONTRIBUTIONS - (CONTRIBUTIONS + 2) / 3, repository.getContributionCount());
+        for (int i = 0; i < CONTRIBUTIONS; i++) {
+            Contribution contribution = repository.getContributionByName("contribution-" + i);
+            if (i % 3 == 0) {
+                assertNull(contribution);
+                continue;
+            }
+            assertEquals(1, repository.getContributorCount(contribution.getId()), "contribution-" + i);
+            assertEquals("player-" + i,
+                repository.getContributorInfo(contribution.getId(), new UUID(1, i)).getPlayerName());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.contribtracker.websocket;
+
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.handshake.ServerHandshake;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContribWebSocketServerTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final List<TestClient> clients = new ArrayList<>();
+    private ContribWebSocketServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        server = new ContribWebSocketServer(new InetSocketAddress("127.0.0.1", 0), new MeteredDeflateExtension(6, 0)) {
+            @Override
+            public void onStart() {
+                started.countDown();
+            }
+
+            @Override
+            public void onOpen(WebSocketSession session) {
+                sessions.put(session.getQueryParameter("name"), session);
+            }
+
+            @Override
+            public void onClose(WebSocketSession session) {
+            }
+
+            @Override
+            public void onMessage(WebSocketSession session, String message) {
+            }
+
+            @Override
+            public void onError(WebSocketSession session, Throwable error) {
+            }
+        };
+        server.start();
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        for (TestClient client : clients) {
+            client.closeBlocking();
+        }
+        server.stop(1000);
+    }
+
+    @Test
+    void broadcastReachesCompressedAndPlainClients() throws Exception {
+        TestClient deflate1 = connect("deflate1", true);
+        TestClient deflate2 = connect("deflate2", true);
+        TestClient plain1 = connect("plain1", false);
+        TestClient plain2 = connect("plain2", false);
+
+        assertTrue(sessions.get("deflate1").isCompressed());
+        assertTrue(sessions.get("deflate2").isCompressed());
+        assertFalse(sessions.get("plain1").isCompressed());
+        assertFalse(sessions.get("plain2").isCompressed());
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append("{\"id\":").append(i).append(",\"name\":\"贡献-").append(i).append("\"},");
+        }
+        String payload = text.toString();
+        byte[] binary = payload.getBytes(StandardCharsets.UTF_8);
+
+        // 同一条消息连续广播两次，共享的帧和压缩连接的就地压缩不能互相影响
+        for (int round = 0; round < 2; round++) {
+            server.broadcastText(payload, sessions.values());
+            server.broadcastBinary(binary, sessions.values());
+        }
+
+        for (TestClient client : List.of(deflate1, deflate2, plain1, plain2)) {
+            for (int round = 0; round < 2; round++) {
+                assertEquals(payload, client.texts.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS), client.name);
+                assertArrayEquals(binary, client.binaries.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS), client.name);
+            }
+        }
+    }
+
+    @Test
+    void cachedUtf8TextReachesCompressedAndPlainClients() throws Exception {
+        TestClient deflate = connect("deflate", true);
+        TestClient plain = connect("plain", false);
+
+        String payload = "{\"type\":\"all_data\",\"data\":\"" + "刷铁机 🚂 iron farm ".repeat(500) + "\"}";
+        byte[] utf8 = payload.getBytes(StandardCharsets.UTF_8);
+        byte[] original = utf8.clone();
+
+        // 同一份字节发送两轮，每个连接都按原文收到，缓存的字节不被修改
+        for (int round = 0; round < 2; round++) {
+            for (WebSocketSession session : sessions.values()) {
+                session.sendText(utf8);
+            }
+        }
+
+        for (TestClient client : List.of(deflate, plain)) {
+            for (int round = 0; round < 2; round++) {
+                assertEquals(payload, client.texts.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS), client.name);
+            }
+        }
+        assertArrayEquals(original, utf8);
+    }
+
+    private TestClient connect(String name, boolean deflate) throws Exception {
+        URI uri = new URI("ws://127.0.0.1:" + server.getPort() + "/?name=" + name);
+        TestClient client = new TestClient(name, uri,
+            deflate ? new Draft_6455(new PerMessageDeflateExtension()) : new Draft_6455());
+        clients.add(client);
+        assertTrue(client.connectBlocking(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!sessions.containsKey(name) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return client;
+    }
+
+    private static class TestClient extends WebSocketClient {
+        private final String name;
+        private final BlockingQueue<String> texts = new LinkedBlockingQueue<>();
+        private final BlockingQueue<byte[]> binaries = new LinkedBlockingQueue<>();
+
+        private TestClient(String name, URI uri, Draft_6455 draft) {
+            super(uri, draft);
+            this.name = name;
+        }
+
+        @Override
+        public void onOpen(ServerHandshake handshake) {
+        }
+
+        @Override
+        public void onMessage(String message) {
+            texts.add(message);
+        }
+
+        @Override
+        public void onMessage(ByteBuffer message) {
+            byte[] bytes = new byte[message.remaining()];
+            message.get(bytes);
+            binaries.add(bytes);
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(Exception ex) {
+        }
+    }
+}
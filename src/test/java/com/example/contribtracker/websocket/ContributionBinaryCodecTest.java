@@ -0,0 +1,177 @@
+package com.example.contribtracker.websocket;
+
+import com.example.contribtracker.database.Contribution;
+import com.example.contribtracker.database.ContributorInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 每种消息类型编码后用 {@link ContributionBinaryDecoder} 解码，检查所有在线路上传输的字段
+ */
+class ContributionBinaryCodecTest {
+    private static final UUID CREATOR = new UUID(1, 1);
+    private static final UUID INVITER = new UUID(2, 2);
+    private static final UUID INVITEE = new UUID(3, 3);
+
+    @Test
+    void allDataKeepsNullUuidsEmptyListsAndNonAsciiStrings() {
+        List<Contribution> all = List.of(withoutCreator(), withoutContributors(), nullContributors());
+
+        ContributionBinaryDecoder.DecodedMessage message =
+            ContributionBinaryDecoder.decode(ContributionBinaryCodec.encodeAllData(42, all));
+
+        assertEquals(ContributionBinaryCodec.ALL_DATA, message.getType());
+        assertEquals(42, message.getVersion());
+        assertContributions(all, message.getContributions());
+    }
+
+    @Test
+    void deltaDataKeepsAddedChangedAndDeleted() {
+        List<Integer> deleted = List.of(3, 300, Integer.MAX_VALUE);
+
+        ContributionBinaryDecoder.DecodedMessage message = ContributionBinaryDecoder.decode(
+            ContributionBinaryCodec.encodeDeltaData(40, 42, List.of(withoutCreator()), List.of(withoutContributors()), deleted));
+
+        assertEquals(ContributionBinaryCodec.DELTA_DATA, message.getType());
+        assertEquals(40, message.getFromVersion());
+        assertEquals(42, message.getVersion());
+        assertContributions(List.of(withoutCreator()), message.getAdded());
+        assertContributions(List.of(withoutContributors()), message.getChanged());
+        assertEquals(deleted, message.getDeleted());
+    }
+
+    @Test
+    void emptyDeltaData() {
+        ContributionBinaryDecoder.DecodedMessage message = ContributionBinaryDecoder.decode(
+            ContributionBinaryCodec.encodeDeltaData(42, 42, List.of(), List.of(), List.of()));
+
+        assertTrue(message.getAdded().isEmpty());
+        assertTrue(message.getChanged().isEmpty());
+        assertTrue(message.getDeleted().isEmpty());
+    }
+
+    @Test
+    void updateSearchAndSnapshotChunk() {
+        ContributionBinaryDecoder.DecodedMessage update =
+            ContributionBinaryDecoder.decode(ContributionBinaryCodec.encodeUpdateData(withoutCreator()));
+        assertEquals(ContributionBinaryCodec.UPDATE_DATA, update.getType());
+        assertContributions(List.of(withoutCreator()), update.getContributions());
+
+        ContributionBinaryDecoder.DecodedMessage search = ContributionBinaryDecoder.decode(
+            ContributionBinaryCodec.encodeSearchResult("刷铁", List.of(withoutCreator())));
+        assertEquals(ContributionBinaryCodec.SEARCH_RESULT, search.getType());
+        assertEquals("刷铁", search.getQuery());
+        assertContributions(List.of(withoutCreator()), search.getContributions());
+
+        ContributionBinaryDecoder.DecodedMessage chunk =
+            ContributionBinaryDecoder.decode(ContributionBinaryCodec.encodeSnapshotChunk(42, 7, List.of()));
+        assertEquals(ContributionBinaryCodec.SNAPSHOT_CHUNK, chunk.getType());
+        assertEquals(42, chunk.getVersion());
+        assertEquals(7, chunk.getIndex());
+        assertTrue(chunk.getContributions().isEmpty());
+    }
+
+    @Test
+    void rejectsMalformedMessages() {
+        assertThrows(IllegalArgumentException.class, () -> ContributionBinaryDecoder.decode(new byte[] {1}));
+        assertThrows(IllegalArgumentException.class, () -> ContributionBinaryDecoder.decode(new byte[] {2, 1, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> ContributionBinaryDecoder.decode(new byte[] {1, 9, 0}));
+
+        byte[] valid = ContributionBinaryCodec.encodeUpdateData(withoutCreator());
+        byte[] trailing = Arrays.copyOf(valid, valid.length + 1);
+        assertThrows(IllegalArgumentException.class, () -> ContributionBinaryDecoder.decode(trailing));
+        byte[] truncated = Arrays.copyOf(valid, valid.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> ContributionBinaryDecoder.decode(truncated));
+    }
+
+    /**
+     * 没有创建者UUID，贡献者的UUID标志覆盖 无/只有玩家/玩家和邀请者 三种组合，名称包含中文和增补平面字符
+     */
+    private static Contribution withoutCreator() {
+        Contribution contribution = contribution(1, "刷铁机 🚂", "农场", null, null);
+        contribution.getContributorList().add(contributor(null, null, "无名氏", 1));
+        contribution.getContributorList().add(contributor(INVITER, null, "Steve", 1));
+        contribution.getContributorList().add(contributor(INVITEE, INVITER, "Ålex", 2));
+        return contribution;
+    }
+
+    /**
+     * 有创建者UUID，贡献者列表为空
+     */
+    private static Contribution withoutContributors() {
+        return contribution(2, "仓库", "建筑", "the_nether", CREATOR);
+    }
+
+    /**
+     * 贡献者列表为null时按空列表编码
+     */
+    private static Contribution nullContributors() {
+        Contribution contribution = contribution(300, "Iron Farm", "farm", "overworld", CREATOR);
+        contribution.setContributorList(null);
+        return contribution;
+    }
+
+    private static void assertContributions(List<Contribution> expected, List<Contribution> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Contribution e = expected.get(i);
+            Contribution a = actual.get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getWorld(), a.getWorld());
+            assertEquals(e.getCreatorName(), a.getCreatorName());
+            assertEquals(e.getGameId(), a.getGameId());
+            // 坐标按32位浮点数传输
+            assertEquals((float) e.getX(), a.getX());
+            assertEquals((float) e.getY(), a.getY());
+            assertEquals((float) e.getZ(), a.getZ());
+            assertEquals(e.getCreatedAt(), a.getCreatedAt());
+            assertEquals(e.getCreatorUuid(), a.getCreatorUuid());
+
+            List<ContributorInfo> expectedContributors = e.getContributorList() != null ? e.getContributorList() : List.of();
+            List<ContributorInfo> actualContributors = a.getContributorList();
+            assertEquals(expectedContributors.size(), actualContributors.size());
+            for (int j = 0; j < expectedContributors.size(); j++) {
+                ContributorInfo ec = expectedContributors.get(j);
+                ContributorInfo ac = actualContributors.get(j);
+                assertEquals(ec.getPlayerUuid(), ac.getPlayerUuid());
+                assertEquals(ec.getInviterUuid(), ac.getInviterUuid());
+                assertEquals(ec.getPlayerName(), ac.getPlayerName());
+                assertEquals(ec.getLevel(), ac.getLevel());
+            }
+        }
+    }
+
+    private static Contribution contribution(int id, String name, String type, String world, UUID creatorUuid) {
+        Contribution contribution = new Contribution();
+        contribution.setId(id);
+        contribution.setName(name);
+        contribution.setType(type);
+        contribution.setWorld(world);
+        contribution.setCreatorUuid(creatorUuid);
+        contribution.setCreatorName(creatorUuid != null ? "创建者" : null);
+        contribution.setGameId(id % 2 == 0 ? "server-1" : null);
+        contribution.setX(-1234.5);
+        contribution.setY(64);
+        contribution.setZ(98765.25);
+        contribution.setCreatedAt(1700000000000L + id);
+        return contribution;
+    }
+
+    private static ContributorInfo contributor(UUID playerUuid, UUID inviterUuid, String playerName, int level) {
+        ContributorInfo info = new ContributorInfo();
+        info.setPlayerUuid(playerUuid);
+        info.setInviterUuid(inviterUuid);
+        info.setPlayerName(playerName);
+        info.setLevel(level);
+        return info;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.contribtracker.websocket;
+
+import com.example.contribtracker.database.Contribution;
+import com.example.contribtracker.database.ContributorInfo;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * WebSocket二进制消息的参考解码器
+ * 按 {@link ContributionBinaryCodec} 中描述的格式逐字段读取，作为客户端实现解码时的对照；
+ * 服务器本身不解码二进制消息，因此只放在测试代码中，由 {@link ContributionBinaryCodecTest} 校验往返结果。
+ */
+final class ContributionBinaryDecoder {
+    private static final int HAS_CREATOR_UUID = 1;
+    private static final int HAS_PLAYER_UUID = 1;
+    private static final int HAS_INVITER_UUID = 2;
+
+    private ContributionBinaryDecoder() {
+    }
+
+    /**
+     * 解码一条二进制消息
+     * @param data 完整的二进制帧
+     * @return 解码结果，只有消息类型对应的字段有值
+     * @throws IllegalArgumentException 如果格式版本不支持、消息类型未知或数据不完整
+     */
+    static DecodedMessage decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            int formatVersion = buffer.get() & 0xFF;
+            if (formatVersion != ContributionBinaryCodec.FORMAT_VERSION) {
+                throw new IllegalArgumentException("不支持的二进制格式版本: " + formatVersion);
+            }
+            DecodedMessage message = new DecodedMessage(buffer.get() & 0xFF);
+            Reader reader = new Reader(buffer);
+
+            switch (message.type) {
+                case ContributionBinaryCodec.ALL_DATA -> {
+                    message.version = reader.readVarLong();
+                    message.contributions = reader.readContributions();
+                }
+                case ContributionBinaryCodec.DELTA_DATA -> {
+                    message.fromVersion = reader.readVarLong();
+                    message.version = reader.readVarLong();
+                    message.added = reader.readContributions();
+                    message.changed = reader.readContributions();
+                    int deletedCount = reader.readCount();
+                    message.deleted = new ArrayList<>(deletedCount);
+                    for (int i = 0; i < deletedCount; i++) {
+                        message.deleted.add((int) reader.readVarLong());
+                    }
+                }
+                case ContributionBinaryCodec.UPDATE_DATA -> message.contributions = reader.readContributions();
+                case ContributionBinaryCodec.SEARCH_RESULT -> {
+                    message.query = reader.readString();
+                    message.contributions = reader.readContributions();
+                }
+                case ContributionBinaryCodec.SNAPSHOT_CHUNK -> {
+                    message.version = reader.readVarLong();
+                    message.index = (int) reader.readVarLong();
+                    message.contributions = reader.readContributions();
+                }
+                default -> throw new IllegalArgumentException("未知的二进制消息类型: " + message.type);
+            }
+
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("二进制消息末尾有多余的 " + buffer.remaining() + " 字节");
+            }
+            return message;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("二进制消息不完整", e);
+        }
+    }
+
+    /**
+     * 解码后的消息
+     * version 用于 all_data、delta_data、snapshot_chunk；fromVersion、added、changed、deleted 只用于 delta_data；
+     * query 只用于 search_result；index 只用于 snapshot_chunk；其余类型的贡献在 contributions 中
+     */
+    static final class DecodedMessage {
+        private final int type;
+        private long version;
+        private long fromVersion;
+        private int index;
+        private String query;
+        private List<Contribution> contributions = new ArrayList<>();
+        private List<Contribution> added = new ArrayList<>();
+        private List<Contribution> changed = new ArrayList<>();
+        private List<Integer> deleted = new ArrayList<>();
+
+        private DecodedMessage(int type) {
+            this.type = type;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getFromVersion() {
+            return fromVersion;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public List<Contribution> getContributions() {
+            return contributions;
+        }
+
+        public List<Contribution> getAdded() {
+            return added;
+        }
+
+        public List<Contribution> getChanged() {
+            return changed;
+        }
+
+        public List<Integer> getDeleted() {
+            return deleted;
+        }
+    }
+
+    /**
+     * 先读取字符串表，之后的字符串引用都按表下标解析
+     */
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private final String[] strings;
+
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.strings = new String[readCount()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readCount()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+
+        private List<Contribution> readContributions() {
+            int count = readCount();
+            List<Contribution> contributions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Contribution contribution = new Contribution();
+                contribution.setId((int) readVarLong());
+                contribution.setName(readString());
+                contribution.setType(readString());
+                contribution.setWorld(readString());
+                contribution.setCreatorName(readString());
+                contribution.setGameId(readString());
+                contribution.setX(buffer.getFloat());
+                contribution.setY(buffer.getFloat());
+                contribution.setZ(buffer.getFloat());
+                contribution.setCreatedAt(readVarLong());
+                int flags = buffer.get();
+                contribution.setCreatorUuid((flags & HAS_CREATOR_UUID) != 0 ? readUuid() : null);
+
+                int contributorCount = readCount();
+                List<ContributorInfo> contributors = new ArrayList<>(contributorCount);
+                for (int j = 0; j < contributorCount; j++) {
+                    ContributorInfo contributor = new ContributorInfo();
+                    int contributorFlags = buffer.get();
+                    contributor.setPlayerUuid((contributorFlags & HAS_PLAYER_UUID) != 0 ? readUuid() : null);
+                    contributor.setInviterUuid((contributorFlags & HAS_INVITER_UUID) != 0 ? readUuid() : null);
+                    contributor.setPlayerName(readString());
+                    contributor.setLevel((int) readVarLong());
+                    contributor.setContributionId(contribution.getId());
+                    contributors.add(contributor);
+                }
+                contribution.setContributorList(contributors);
+                contributions.add(contribution);
+            }
+            return contributions;
+        }
+
+        private String readString() {
+            long reference = readVarLong();
+            if (reference == 0) {
+                return null;
+            }
+            if (reference > strings.length) {
+                throw new IllegalArgumentException("字符串引用超出字符串表: " + reference);
+            }
+            return strings[(int) reference - 1];
+        }
+
+        private UUID readUuid() {
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+
+        /**
+         * 读取数量或长度，不能超过剩余字节数，避免按损坏的数据分配过大的数组
+         */
+        private int readCount() {
+            long count = readVarLong();
+            if (count > buffer.remaining()) {
+                throw new IllegalArgumentException("数量超出剩余数据长度: " + count);
+            }
+            return (int) count;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = buffer.get() & 0xFF;
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("varint 超过10个字节");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.contribtracker.websocket;
+
+import org.java_websocket.framing.TextFrame;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeteredDeflateExtensionTest {
+    private static final String[] WORDS = {
+        "redstone", "building", "landmark", "overworld", "the_nether", "contribution", "player", "铁傀儡", "刷怪塔", "仓库"
+    };
+
+    @Test
+    void everyMessageUsesConfiguredLevel() {
+        byte[] payload = samplePayload();
+        MeteredDeflateExtension extension = (MeteredDeflateExtension) new MeteredDeflateExtension(1, 0).copyInstance();
+        assertTrue(extension.isServerNoContextTakeover());
+
+        int first = compressedSize(extension, payload);
+        // 父类在第一条消息结束后换上了默认级别的 Deflater，后续消息仍应按级别1压缩
+        assertEquals(first, compressedSize(extension, payload));
+        assertEquals(first, compressedSize(extension, payload));
+
+        MeteredDeflateExtension defaultLevel = (MeteredDeflateExtension) new MeteredDeflateExtension(6, 0).copyInstance();
+        assertNotEquals(first, compressedSize(defaultLevel, payload));
+    }
+
+    @Test
+    void messagesBelowThresholdAreNotCompressed() {
+        byte[] payload = "short".getBytes(StandardCharsets.UTF_8);
+        MeteredDeflateExtension extension = (MeteredDeflateExtension) new MeteredDeflateExtension(1, 1024).copyInstance();
+
+        TextFrame frame = frame(payload);
+        extension.encodeFrame(frame);
+        assertEquals(payload.length, frame.getPayloadData().remaining());
+        assertFalse(frame.isRSV1());
+    }
+
+    private static int compressedSize(MeteredDeflateExtension extension, byte[] payload) {
+        TextFrame frame = frame(payload);
+        extension.encodeFrame(frame);
+        assertTrue(frame.isRSV1());
+        return frame.getPayloadData().remaining();
+    }
+
+    private static TextFrame frame(byte[] payload) {
+        TextFrame frame = new TextFrame();
+        frame.setPayload(ByteBuffer.wrap(payload.clone()));
+        frame.setFin(true);
+        return frame;
+    }
+
+    /**
+     * 类似贡献数据的JSON文本，重复较多但不是简单的循环，不同压缩级别得到的长度不同
+     */
+    private static byte[] samplePayload() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append("{\"id\":").append(random.nextInt(100000))
+                .append(",\"name\":\"").append(WORDS[random.nextInt(WORDS.length)]).append('-').append(random.nextInt(1000))
+                .append("\",\"x\":").append(random.nextInt(20000) - 10000)
+                .append(",\"type\":\"").append(WORDS[random.nextInt(WORDS.length)]).append("\"},");
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}